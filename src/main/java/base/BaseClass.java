@@ -3,11 +3,28 @@ package base;
 import org.openqa.selenium.WebDriver;
 import org.testng.annotations.*;
 
+import java.lang.reflect.Method;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import config.ConfigKeys;
 import config.ConfigReader;
 import utils.DriverFactory;
+import utils.DriverPool;
+import utils.DriverProvisioner;
+import utils.DriverServiceManager;
+import utils.FixtureServer;
+import utils.FrameworkMetrics;
+import utils.LaunchPreset;
+import utils.LazyWebDriver;
+import utils.LocatorHealing;
+import utils.NavigationEpoch;
+import utils.NetworkArchive;
+import utils.RemoteHttpClientFactory;
+import utils.RequestBlocker;
+import utils.StrategyCache;
+import utils.WaitHistory;
 
 /**
  * =====================================================
@@ -53,6 +70,9 @@ public abstract class BaseClass {
     // Logger cho từng Test Class
     protected Logger logger;
 
+    // [METRICS] Setup latency per test (driver + navigate)
+    public static final String METRIC_SETUP = "setup.ms";
+
     /*
      * =====================================================
      * SUITE LEVEL
@@ -62,10 +82,33 @@ public abstract class BaseClass {
     @BeforeSuite(alwaysRun = true)
     protected void beforeSuite() {
         CORE_LOGGER.info("===== START TEST SUITE =====");
+
+        // [HTTP] JDK chỉ đọc keep-alive / pool size khi tạo HttpClient đầu tiên
+        RemoteHttpClientFactory.configureJdkClient();
+
+        // [FIXTURE] env=local → serve snapshot site trước khi tạo session / navigate
+        if (FixtureServer.isRequired()) {
+            FixtureServer.start();
+        }
     }
 
     @AfterSuite(alwaysRun = true)
     protected void afterSuite() {
+        if (DriverPool.isEnabled()) {
+            DriverPool.shutdown();
+        }
+        if (DriverProvisioner.isEnabled()) {
+            DriverProvisioner.shutdown();
+        }
+        // [SERVICE] Stop shared driver process sau khi mọi session đã quit
+        DriverServiceManager.stopAll();
+        RemoteHttpClientFactory.shutdown();
+        NetworkArchive.finish();
+        RequestBlocker.finish();
+        WaitHistory.save();
+        StrategyCache.save();
+        LocatorHealing.save();
+        FixtureServer.stop();
         CORE_LOGGER.info("===== END TEST SUITE =====");
     }
 
@@ -76,10 +119,27 @@ public abstract class BaseClass {
      */
 
     @BeforeTest(alwaysRun = true)
-    protected void beforeTest() {
+    @Parameters({ "browser", "os" })
+    protected void beforeTest(@Optional("") String browser, @Optional("") String os) {
+
+        // Lazy logger init: resolveRunMode() log qua logger, @BeforeClass chưa chạy
+        if (logger == null) {
+            logger = LogManager.getLogger(this.getClass());
+        }
 
         CORE_LOGGER.info("----- START <test> BLOCK -----");
 
+        // [POOL] Pre-spawn theo browser / os đã resolve của <test> này
+        // → cùng key với lease ở setUp (không warm theo config mặc định)
+        if (DriverPool.isEnabled()) {
+            if (DriverProvisioner.isEnabled()) {
+                // [PIPELINE] Provisioner thắng ở setUp / releaseDriver → pool không bao giờ được lease
+                CORE_LOGGER.warn("[POOL] driver.pipeline.enabled=true → skip driver.pool warm-up");
+            } else {
+                DriverPool.warmUp(resolveBrowser(browser), resolveOs(os), resolveRunMode());
+            }
+        }
+
         // [KEEP] Log global config 1 lần duy nhất
         String env = ConfigReader.getRequired("env");
         String baseUrl = ConfigReader.getBaseUrl();
@@ -126,6 +186,7 @@ public abstract class BaseClass {
     @BeforeMethod(alwaysRun = true)
     @Parameters({ "browser", "os" })
     protected void setUp(
+            Method method,
             @Optional("") String browser,
             @Optional("") String os) {
 
@@ -157,8 +218,44 @@ public abstract class BaseClass {
          * Create WebDriver
          * ======================
          */
-        WebDriver driver = DriverFactory.createDriver(currentBrowser, os, runMode);
-        setDriver(driver);
+        long setupStart = System.currentTimeMillis();
+
+        if (DriverProvisioner.isEnabled()) {
+            // [PIPELINE] Session đã được tạo + navigate sẵn ở background
+            setDriver(DriverProvisioner.take(currentBrowser, currentOs, runMode, this::prepareSession));
+            // [BLOCK] Background đã navigate với blocklist mặc định (chưa biết test nào sẽ lấy)
+            // → group của test có override thì tải lại base URL với blocklist đúng
+            if (RequestBlocker.beginTest(getDriver(), method)) {
+                logger.info("[PIPELINE] Group blocklist differs from default → reloading base URL");
+                getDriver().get(ConfigReader.getBaseUrl());
+                NavigationEpoch.advance(getDriver());
+            }
+        } else if (ConfigReader.getBoolean(ConfigKeys.DRIVER_LAZY_ENABLED, false)) {
+            // [LAZY] Chỉ tạo browser + navigate khi test gọi getDriver() lần đầu
+            setDriver(LazyWebDriver.create(
+                    () -> acquireDriver(currentBrowser, currentOs, runMode),
+                    driver -> {
+                        RequestBlocker.beginTest(driver, method);
+                        prepareLazySession(driver);
+                    },
+                    this::discardDriver));
+        } else {
+            WebDriver driver = acquireDriver(currentBrowser, currentOs, runMode);
+            setDriver(driver);
+            // [BLOCK] Blocklist theo group của test (trước khi navigate)
+            RequestBlocker.beginTest(driver, method);
+            prepareSession(driver);
+        }
+
+        // [METRICS] Setup latency của từng test (hiển thị trong Extent report)
+        FrameworkMetrics.recordForTest(METRIC_SETUP, System.currentTimeMillis() - setupStart);
+    }
+
+    /**
+     * Browser basic setup + navigate tới Base URL
+     * (chạy trên TestNG thread, hoặc background thread khi bật pipeline)
+     */
+    private void prepareSession(WebDriver driver) {
 
         /*
          * ======================
@@ -166,7 +263,10 @@ public abstract class BaseClass {
          * ======================
          */
         driver.manage().deleteAllCookies();
-        driver.manage().window().maximize();
+        // [PRESET] headless / fixed window size → không maximize (giữ --window-size)
+        if (!LaunchPreset.current().hasFixedWindow()) {
+            driver.manage().window().maximize();
+        }
 
         /*
          * ======================
@@ -180,21 +280,67 @@ public abstract class BaseClass {
         
         logger.info("Navigating to: {}", baseUrl);
         driver.get(baseUrl);
+        NavigationEpoch.advance(driver);
         logger.info("Successfully navigated to: {}", baseUrl);
     }
 
+    // [LAZY] Setup thật diễn ra ở lần dùng đầu tiên → ghi setup.ms tại đây
+    private void prepareLazySession(WebDriver driver) {
+        long start = System.currentTimeMillis();
+        prepareSession(driver);
+        FrameworkMetrics.recordForTest(METRIC_SETUP, System.currentTimeMillis() - start);
+    }
+
     @AfterMethod(alwaysRun = true)
     protected void tearDown() {
 
-        if (getDriver() != null) {
+        if (LazyWebDriver.isLazy(getDriver()) && !LazyWebDriver.isMaterialized(getDriver())) {
+            FrameworkMetrics.increment(LazyWebDriver.METRIC_AVOIDED);
+            logger.info("---- END TEST METHOD (Lazy driver never used, no browser created) ----");
+            removeDriver();
+        } else if (getDriver() != null) {
             logger.info("Quit WebDriver & End Method");
-            getDriver().quit();
+            // Pool / governor theo dõi session thật, không phải lazy handle
+            releaseDriver(LazyWebDriver.getMaterialized(getDriver()));
             removeDriver();
         } else {
             logger.info("---- END TEST METHOD (Driver was null) ----");
         }
     }
 
+    /*
+     * =====================================================
+     * DRIVER ACQUIRE / RELEASE
+     * =====================================================
+     */
+
+    // [POOL] driver.pool.enabled=true → lease/return thay vì create/quit
+    private WebDriver acquireDriver(String browser, String os, String runMode) {
+        if (DriverPool.isEnabled()) {
+            return DriverPool.lease(browser, os, runMode);
+        }
+        return DriverFactory.createDriver(browser, os, runMode);
+    }
+
+    private void releaseDriver(WebDriver driver) {
+        if (DriverProvisioner.isEnabled()) {
+            DriverProvisioner.retire(driver); // [PIPELINE] quit bất đồng bộ
+        } else if (DriverPool.isEnabled()) {
+            DriverPool.release(driver);
+        } else {
+            DriverFactory.quitDriver(driver);
+        }
+    }
+
+    // [LAZY] Session chuẩn bị lỗi → quit hẳn (không trả về pool)
+    private void discardDriver(WebDriver driver) {
+        if (DriverPool.isEnabled()) {
+            DriverPool.discard(driver, "session setup failed");
+        } else {
+            DriverFactory.quitDriver(driver);
+        }
+    }
+
     /*
      * =====================================================
      * RESOLVE METHODS
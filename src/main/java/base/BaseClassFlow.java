@@ -8,9 +8,23 @@ import java.lang.reflect.Method;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import config.ConfigKeys;
 import config.ConfigReader;
 import utils.DriverFactory;
+import utils.DriverPool;
+import utils.DriverProvisioner;
+import utils.DriverServiceManager;
+import utils.FixtureServer;
+import utils.LaunchPreset;
+import utils.LocatorHealing;
+import utils.NavigationEpoch;
+import utils.NetworkArchive;
+import utils.RemoteHttpClientFactory;
+import utils.RequestBlocker;
 import utils.ScreenshotUtil;
+import utils.SessionResetter;
+import utils.StrategyCache;
+import utils.WaitHistory;
 
 /**
  * =====================================================
@@ -56,6 +70,9 @@ public abstract class BaseClassFlow {
     // Logger cho từng Test Class
     protected Logger logger;
 
+    // [RESET] true khi session vừa bị reset về about:blank → method sau cần navigate lại
+    private boolean sessionWasReset;
+
     /*
      * =====================================================
      * SUITE LEVEL
@@ -65,10 +82,33 @@ public abstract class BaseClassFlow {
     @BeforeSuite(alwaysRun = true)
     protected void beforeSuite() {
         CORE_LOGGER.info("===== START TEST SUITE =====");
+
+        // [HTTP] JDK chỉ đọc keep-alive / pool size khi tạo HttpClient đầu tiên
+        RemoteHttpClientFactory.configureJdkClient();
+
+        // [FIXTURE] env=local → serve snapshot site trước khi tạo session / navigate
+        if (FixtureServer.isRequired()) {
+            FixtureServer.start();
+        }
     }
 
     @AfterSuite(alwaysRun = true)
     protected void afterSuite() {
+        if (DriverPool.isEnabled()) {
+            DriverPool.shutdown();
+        }
+        if (DriverProvisioner.isEnabled()) {
+            DriverProvisioner.shutdown();
+        }
+        // [SERVICE] Stop shared driver process sau khi mọi session đã quit
+        DriverServiceManager.stopAll();
+        RemoteHttpClientFactory.shutdown();
+        NetworkArchive.finish();
+        RequestBlocker.finish();
+        WaitHistory.save();
+        StrategyCache.save();
+        LocatorHealing.save();
+        FixtureServer.stop();
         CORE_LOGGER.info("===== END TEST SUITE =====");
     }
 
@@ -79,10 +119,22 @@ public abstract class BaseClassFlow {
      */
 
     @BeforeTest(alwaysRun = true)
-    protected void beforeTest() {
+    @Parameters({ "browser", "os" })
+    protected void beforeTest(@Optional("") String browser, @Optional("") String os) {
+
+        // Lazy logger init: resolveRunMode() log qua logger, @BeforeClass chưa chạy
+        if (logger == null) {
+            logger = LogManager.getLogger(this.getClass());
+        }
 
         CORE_LOGGER.info("----- START <test> BLOCK -----");
 
+        // [POOL] Pre-spawn theo browser / os đã resolve của <test> này
+        // → cùng key với lease ở setUp (không warm theo config mặc định)
+        if (DriverPool.isEnabled()) {
+            DriverPool.warmUp(resolveBrowser(browser), resolveOs(os), resolveRunMode());
+        }
+
         // [KEEP] Log global config 1 lần duy nhất
         String env = ConfigReader.getRequired("env");
         String baseUrl = ConfigReader.getBaseUrl();
@@ -119,17 +171,21 @@ public abstract class BaseClassFlow {
         String runMode = resolveRunMode();
 
         // Tạo driver
-        WebDriver driver = DriverFactory.createDriver(currentBrowser, currentOs, runMode);
+        WebDriver driver = acquireDriver(currentBrowser, currentOs, runMode);
         setDriver(driver);
 
         // Config cơ bản
-        driver.manage().window().maximize();
+        // [PRESET] headless / fixed window size → không maximize (giữ --window-size)
+        if (!LaunchPreset.current().hasFixedWindow()) {
+            driver.manage().window().maximize();
+        }
         
         String baseUrl = ConfigReader.getBaseUrl();
         if (baseUrl == null || baseUrl.isBlank()) {
             throw new IllegalStateException("Base URL cannot be null or empty");
         }
         driver.get(baseUrl);
+        NavigationEpoch.advance(driver);
     }
 
    /* * =====================================================
@@ -142,7 +198,7 @@ public abstract class BaseClassFlow {
         
         if (getDriver() != null) {
             logger.info("Quit WebDriver (Cleaning up session)");
-            getDriver().quit();
+            releaseDriver(getDriver());
             removeDriver();
         }
     }
@@ -158,6 +214,16 @@ public abstract class BaseClassFlow {
         logger.info("-------------------------------------------------------");
         logger.info(">>> START TEST METHOD: '{}'", method.getName());
         logger.info("-------------------------------------------------------");
+
+        // [BLOCK] Blocklist theo group của test (trước khi test navigate)
+        RequestBlocker.beginTest(getDriver(), method);
+
+        // [RESET] Session đã reset ở method trước → quay lại Base URL
+        if (sessionWasReset && getDriver() != null) {
+            getDriver().get(ConfigReader.getBaseUrl());
+            NavigationEpoch.advance(getDriver());
+            sessionWasReset = false;
+        }
         
         // 2. Nếu bạn dùng ExtentReport, đây là chỗ bạn tạo node test:
         // ExtentTestManager.startTest(method.getName(), "Mô tả test...");
@@ -180,6 +246,35 @@ public abstract class BaseClassFlow {
         }
         
         // LƯU Ý: KHÔNG gọi driver.quit() ở đây nữa!
+
+        // [RESET] Soft reset (cookies, storage, extra windows) thay vì quit + browser mới
+        if (ConfigReader.getBoolean(ConfigKeys.SESSION_RESET_PER_METHOD, false) && getDriver() != null) {
+            long resetMs = SessionResetter.reset(getDriver());
+            logger.info(">>> Session reset in {} ms", resetMs);
+            sessionWasReset = true;
+        }
+    }
+
+    /*
+     * =====================================================
+     * DRIVER ACQUIRE / RELEASE
+     * =====================================================
+     */
+
+    // [POOL] driver.pool.enabled=true → lease/return thay vì create/quit
+    private WebDriver acquireDriver(String browser, String os, String runMode) {
+        if (DriverPool.isEnabled()) {
+            return DriverPool.lease(browser, os, runMode);
+        }
+        return DriverFactory.createDriver(browser, os, runMode);
+    }
+
+    private void releaseDriver(WebDriver driver) {
+        if (DriverPool.isEnabled()) {
+            DriverPool.release(driver);
+        } else {
+            DriverFactory.quitDriver(driver);
+        }
     }
 
     /*
@@ -4,9 +4,9 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.PageFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import utils.CachedElementLocatorFactory;
 
 /**
  * =====================================================
@@ -32,7 +32,8 @@ public abstract class BaseComponent {
     public BaseComponent(WebDriver driver) {
         this.driver = driver;
         this.logger = LogManager.getLogger(this.getClass());
-        PageFactory.initElements(driver, this);
+        // [ELEMENT-CACHE] Proxy giữ element đã tìm, tự tìm lại khi stale / navigate
+        CachedElementLocatorFactory.initElements(driver, this);
     }
 
     /**
@@ -2,7 +2,7 @@ package base;
 
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
-import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -31,6 +31,7 @@ public abstract class BasePage { // [UPDATE] abstract
 
 	protected WebDriver driver;
 	protected WebDriverWait wait;
+	protected Duration waitTimeout;
 	protected Actions actions;
 	protected MouseUtil mouse;
 	protected KeyboardUtil keyboard;
@@ -45,7 +46,8 @@ public abstract class BasePage { // [UPDATE] abstract
 
 		// [UPDATE] Explicit wait lấy từ config (fallback = 10s)
 		int explicitWait = ConfigReader.getInt("explicit.wait", 10);
-		this.wait = new WebDriverWait(driver, Duration.ofSeconds(explicitWait));
+		this.waitTimeout = Duration.ofSeconds(explicitWait);
+		this.wait = new WebDriverWait(driver, waitTimeout);
 
 		if (driver != null) {
 			this.actions = new Actions(driver);
@@ -55,7 +57,9 @@ public abstract class BasePage { // [UPDATE] abstract
 		this.sliderUtil = new SliderUtil(driver);
 		this.logger = LogManager.getLogger(this.getClass());
 
-		PageFactory.initElements(driver, this);
+		// [HEAL] @FindBy trượt → chấm điểm theo fingerprint thay vì chờ hết explicit wait
+		// [ELEMENT-CACHE] Proxy giữ element đã tìm, tự tìm lại khi stale / navigate
+		CachedElementLocatorFactory.initElements(driver, this);
 	}
 
 	/* =======================
@@ -73,21 +77,49 @@ public abstract class BasePage { // [UPDATE] abstract
 	 * HELPER FOR LOG
 	 * ======================= */
 	protected String describe(WebElement element) {
-		try {
-			String tag = element.getTagName();
-			String id = element.getAttribute("id");
-			String text = element.getText();
+		return describeLazily(element).get();
+	}
+
+	/**
+	 * [LAZY-DESCRIBE] Mô tả chỉ được tính (1 script) khi log event thực sự được ghi.
+	 * Dùng 1 object cho cả action → log nhiều lần vẫn tính 1 lần.
+	 */
+	protected ElementDescription describeLazily(WebElement element) {
+		return ElementDescription.of(driver, element);
+	}
 
-			if (id != null && !id.isEmpty())
-				return "<" + tag + ">[id=" + id + "]";
+	/* =====================================================
+	 * [FAST-ACTION] ACTIONABILITY (1 round-trip)
+	 * ===================================================== */
 
-			if (text != null && !text.isEmpty())
-				return "<" + tag + ">[text=" + text + "]";
+	/**
+	 * Chờ element sẵn sàng cho action + trả về mô tả để log.
+	 * action.fast.enabled=true → 1 script: visible / enabled / không bị che
+	 * + scroll vào viewport + mô tả element (thay cho wait + describe()).
+	 * Chưa sẵn sàng / tắt → wait như cũ, mô tả tính lazy khi log.
+	 */
+	protected ElementDescription prepare(WebElement element, ActionScripts.Mode mode) {
+		return prepare(element, mode, describeLazily(element));
+	}
 
-			return "<" + tag + ">";
-		} catch (Exception e) {
-			return "<element>";
+	private ElementDescription prepare(WebElement element, ActionScripts.Mode mode, ElementDescription description) {
+		if (element == null) {
+			throw new IllegalArgumentException("Element cannot be null");
+		}
+		if (ActionScripts.isEnabled()) {
+			ActionScripts.Result result = ActionScripts.prepare(driver, element, mode);
+			description.seed(result.getDescription());
+			if (result.isReady()) {
+				return description;
+			}
+			logger.debug("[ACTION] {} not actionable yet ({}) → wait", description, result.getReason());
 		}
+		if (mode == ActionScripts.Mode.CLICK) {
+			awaitElement(element, DomWaitEngine.Condition.CLICKABLE, "Clickable", description);
+		} else {
+			awaitElement(element, DomWaitEngine.Condition.VISIBLE, "Visible", description);
+		}
+		return description;
 	}
 
 	/* ======================
@@ -99,23 +131,25 @@ public abstract class BasePage { // [UPDATE] abstract
 	}
 
 	/* =====================================================
-	 * WAIT METHODS (GIỮ NGUYÊN)
+	 * WAIT METHODS (GIỮ NGUYÊN API)
+	 * [DOM-WAIT] Chờ bằng MutationObserver trong browser, fallback polling
 	 * ===================================================== */
 
 	protected void waitForElementVisible(WebElement element) {
-		if (element == null) {
-			throw new IllegalArgumentException("Element cannot be null");
-		}
-		logger.debug("[WAIT] Visible {}", describe(element));
-		wait.until(ExpectedConditions.visibilityOf(element));
+		awaitElement(element, DomWaitEngine.Condition.VISIBLE, "Visible", describeLazily(element));
 	}
 
 	protected void waitForElementClickable(WebElement element) {
+		awaitElement(element, DomWaitEngine.Condition.CLICKABLE, "Clickable", describeLazily(element));
+	}
+
+	private void awaitElement(WebElement element, DomWaitEngine.Condition condition, String label,
+			ElementDescription description) {
 		if (element == null) {
 			throw new IllegalArgumentException("Element cannot be null");
 		}
-		logger.debug("[WAIT] Clickable {}", describe(element));
-		wait.until(ExpectedConditions.elementToBeClickable(element));
+		logger.debug("[WAIT] {} {}", label, description);
+		DomWaitEngine.until(driver, condition, element, waitTimeout);
 	}
 
 	protected void waitForElementPresent(By locator) {
@@ -123,25 +157,46 @@ public abstract class BasePage { // [UPDATE] abstract
 			throw new IllegalArgumentException("Locator cannot be null");
 		}
 		logger.debug("[WAIT] Presence of locator {}", locator);
-		wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+		DomWaitEngine.until(driver, DomWaitEngine.Condition.PRESENT, locator, waitTimeout);
 	}
 
 	protected void waitForPageLoaded() {
-		logger.info("[WAIT] Page loaded completely");
-		wait.until(driver -> {
-			if (driver == null) return false;
-			Object readyState = ((JavascriptExecutor) driver)
-					.executeScript("return document.readyState");
-			return "complete".equals(readyState);
-		});
+		logger.info("[WAIT] Page ready");
+		waitUntilReady();
+	}
+
+	/* =====================================================
+	 * [READINESS] PAGE READY CONTRACT
+	 * ===================================================== */
+
+	/**
+	 * Điều kiện để page được coi là "dùng được" (override ở page object).
+	 * Rỗng → document.readyState theo browser.page.load.strategy.
+	 */
+	protected List<ExpectedCondition<?>> readinessContract() {
+		return List.of();
+	}
+
+	/**
+	 * Chờ tới khi readiness contract đúng (không chờ ảnh / font / script
+	 * bên thứ 3 khi dùng eager / none) + ghi page.ready.ms
+	 */
+	public void waitUntilReady() {
+		PageReadiness.await(driver, wait, readinessContract());
+	}
+
+	/**
+	 * Navigate + trả về ngay khi page ready
+	 */
+	protected void navigateTo(String url) {
+		logger.info("[NAVIGATE] {}", url);
+		driver.get(url);
+		NavigationEpoch.advance(driver);
+		waitUntilReady();
 	}
 
 	protected void waitForElementInvisible(WebElement element) {
-		if (element == null) {
-			throw new IllegalArgumentException("Element cannot be null");
-		}
-		logger.debug("[WAIT] Invisible {}", describe(element));
-		wait.until(ExpectedConditions.invisibilityOf(element));
+		awaitElement(element, DomWaitEngine.Condition.INVISIBLE, "Invisible", describeLazily(element));
 	}
 
 	/* =====================================================
@@ -149,55 +204,63 @@ public abstract class BasePage { // [UPDATE] abstract
 	 * ===================================================== */
 
 	protected void click(WebElement element) {
-		logger.info("[ACTION] Click {}", describe(element));
+		long roundTrips = RoundTripCounter.current();
 		try {
-			waitForElementClickable(element);
+			logger.info("[ACTION] Click {}", prepare(element, ActionScripts.Mode.CLICK));
 			HighlightUtil.highlight(driver, element);
 			element.click();
 		} catch (StaleElementReferenceException e) {
-			logger.warn("[RETRY] StaleElement → Click again {}", describe(element));
+			logger.warn("[RETRY] StaleElement → Click again {}", describeLazily(element));
 			waitForElementClickable(element);
 			element.click();
 		}
+		RoundTripCounter.record("click", roundTrips);
 	}
 
 	protected void clickWithRetry(WebElement element) {
-		logger.info("[ACTION] Click with retry {}", describe(element));
+		long roundTrips = RoundTripCounter.current();
+		ElementDescription target = describeLazily(element);
+		logger.info("[ACTION] Click with retry {}", target);
 		RetryUtil.retry(() -> {
-			waitForElementClickable(element);
+			prepare(element, ActionScripts.Mode.CLICK, target);
 			HighlightUtil.highlight(driver, element);
 			element.click();
-		}, "Click " + describe(element));
+		}, () -> "Click " + target);
+		RoundTripCounter.record("clickWithRetry", roundTrips);
 	}
 
 	protected void jsClick(WebElement element) {
-		logger.info("[ACTION] JS Click {}", describe(element));
-		waitForElementClickable(element);
+		long roundTrips = RoundTripCounter.current();
+		logger.info("[ACTION] JS Click {}", prepare(element, ActionScripts.Mode.CLICK));
 		HighlightUtil.highlight(driver, element);
 		((JavascriptExecutor) driver).executeScript("arguments[0].click();", element);
+		RoundTripCounter.record("jsClick", roundTrips);
 	}
 
 	protected void jsClickWithRetry(WebElement element) {
-		logger.info("[ACTION] JS Click with retry {}", describe(element));
+		long roundTrips = RoundTripCounter.current();
+		ElementDescription target = describeLazily(element);
+		logger.info("[ACTION] JS Click with retry {}", target);
 		RetryUtil.retry(() -> {
-			waitForElementVisible(element);
+			awaitElement(element, DomWaitEngine.Condition.VISIBLE, "Visible", target);
 			HighlightUtil.highlight(driver, element);
 			((JavascriptExecutor) driver).executeScript("arguments[0].click();", element);
-		}, "JS Click " + describe(element));
+		}, () -> "JS Click " + target);
+		RoundTripCounter.record("jsClickWithRetry", roundTrips);
 	}
 
 	protected void type(WebElement element, String text) {
-		logger.info("[ACTION] Type '{}' into {}", text, describe(element));
-		waitForElementVisible(element);
+		long roundTrips = RoundTripCounter.current();
+		logger.info("[ACTION] Type '{}' into {}", text, prepare(element, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, element);
 		element.clear();
 		element.sendKeys(text);
+		RoundTripCounter.record("type", roundTrips);
 	}
 
 	// 🔥 GIỮ NGUYÊN
 	protected void typeSlowly(WebElement element, String text, long delayMs) throws InterruptedException {
-		logger.info("[ACTION] Type slowly '{}' into {}", text, describe(element));
-		waitForElementVisible(element);
+		logger.info("[ACTION] Type slowly '{}' into {}", text, prepare(element, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, element);
 		element.clear();
 		for (char c : text.toCharArray()) {
@@ -208,28 +271,32 @@ public abstract class BasePage { // [UPDATE] abstract
 
 	// 🔥 GIỮ NGUYÊN
 	protected void typeWithRetry(WebElement element, String text) {
-		logger.info("[ACTION] Type with retry '{}' into {}", text, describe(element));
+		ElementDescription target = describeLazily(element);
+		logger.info("[ACTION] Type with retry '{}' into {}", text, target);
 		RetryUtil.retry(() -> {
-			waitForElementVisible(element);
+			awaitElement(element, DomWaitEngine.Condition.VISIBLE, "Visible", target);
 			HighlightUtil.highlight(driver, element);
 			element.clear();
 			element.sendKeys(text);
-		}, "Type " + text + " into " + describe(element));
+		}, () -> "Type " + text + " into " + target);
 	}
 
 	// 🔥 GIỮ NGUYÊN
 	protected void appendText(WebElement element, String text) {
-		logger.info("[ACTION] Append '{}' into {}", text, describe(element));
-		waitForElementVisible(element);
+		long roundTrips = RoundTripCounter.current();
+		logger.info("[ACTION] Append '{}' into {}", text, prepare(element, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, element);
 		element.sendKeys(text);
+		RoundTripCounter.record("appendText", roundTrips);
 	}
 
 	protected String getText(WebElement element) {
-		logger.info("[ACTION] Get text from {}", describe(element));
-		waitForElementVisible(element);
+		long roundTrips = RoundTripCounter.current();
+		logger.info("[ACTION] Get text from {}", prepare(element, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, element);
-		return element.getText();
+		String text = element.getText();
+		RoundTripCounter.record("getText", roundTrips);
+		return text;
 	}
 
 	/**
@@ -240,8 +307,7 @@ public abstract class BasePage { // [UPDATE] abstract
 	 */
 	@SuppressWarnings("null")
 	protected String getAttribute(WebElement element, String attribute) {
-		logger.info("[ACTION] Get attribute '{}' from {}", attribute, describe(element));
-		waitForElementVisible(element);
+		logger.info("[ACTION] Get attribute '{}' from {}", attribute, prepare(element, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, element);
 		String value = element.getAttribute(attribute);
 		return java.util.Objects.requireNonNullElse(value, "");
@@ -256,10 +322,10 @@ public abstract class BasePage { // [UPDATE] abstract
 	protected boolean isDisplayed(WebElement element) {
 		try {
 			boolean result = element.isDisplayed();
-			logger.info("[VERIFY] {} displayed = {}", describe(element), result);
+			logger.info("[VERIFY] {} displayed = {}", describeLazily(element), result);
 			return result;
 		} catch (Exception e) {
-			logger.warn("[VERIFY] {} NOT displayed", describe(element));
+			logger.warn("[VERIFY] {} NOT displayed", describeLazily(element));
 			return false;
 		}
 	}
@@ -267,10 +333,10 @@ public abstract class BasePage { // [UPDATE] abstract
 	protected boolean isEnabled(WebElement element) {
 		try {
 			boolean result = element.isEnabled();
-			logger.info("[VERIFY] {} enabled = {}", describe(element), result);
+			logger.info("[VERIFY] {} enabled = {}", describeLazily(element), result);
 			return result;
 		} catch (Exception e) {
-			logger.warn("[VERIFY] {} NOT enabled", describe(element));
+			logger.warn("[VERIFY] {} NOT enabled", describeLazily(element));
 			return false;
 		}
 	}
@@ -280,29 +346,25 @@ public abstract class BasePage { // [UPDATE] abstract
 	 * ===================================================== */
 
 	protected void hover(WebElement element) {
-		logger.info("[ACTION] Hover {}", describe(element));
-		waitForElementVisible(element);
+		logger.info("[ACTION] Hover {}", prepare(element, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, element);
 		mouse.hover(element);
 	}
 
 	protected void rightClick(WebElement element) {
-		logger.info("[ACTION] Right click {}", describe(element));
-		waitForElementVisible(element);
+		logger.info("[ACTION] Right click {}", prepare(element, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, element);
 		mouse.rightClick(element);
 	}
 
 	protected void doubleClick(WebElement element) {
-		logger.info("[ACTION] Double click {}", describe(element));
-		waitForElementClickable(element);
+		logger.info("[ACTION] Double click {}", prepare(element, ActionScripts.Mode.CLICK));
 		HighlightUtil.highlight(driver, element);
 		mouse.doubleClick(element);
 	}
 
 	protected void clickAndHold(WebElement element) {
-		logger.info("[ACTION] Click & Hold {}", describe(element));
-		waitForElementVisible(element);
+		logger.info("[ACTION] Click & Hold {}", prepare(element, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, element);
 		mouse.clickAndHold(element);
 	}
@@ -313,26 +375,23 @@ public abstract class BasePage { // [UPDATE] abstract
 	}
 
 	protected void dragAndDrop(WebElement source, WebElement target) {
-		logger.info("[ACTION] Drag {} → {}", describe(source), describe(target));
-		waitForElementVisible(source);
-		waitForElementVisible(target);
+		logger.info("[ACTION] Drag {} → {}", prepare(source, ActionScripts.Mode.VISIBLE),
+				prepare(target, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, source);
 		HighlightUtil.highlight(driver, target);
 		mouse.dragAndDrop(source, target);
 	}
 
 	protected void dragAndDropCustom(WebElement source, WebElement target) {
-		logger.info("[ACTION] Drag (custom) {} → {}", describe(source), describe(target));
-		waitForElementVisible(source);
-		waitForElementVisible(target);
+		logger.info("[ACTION] Drag (custom) {} → {}", prepare(source, ActionScripts.Mode.VISIBLE),
+				prepare(target, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, source);
 		HighlightUtil.highlight(driver, target);
 		mouse.dragAndDropCustom(source, target);
 	}
 
 	protected void dragAndDropByOffset(WebElement source, int xOffset, int yOffset) {
-		logger.info("[ACTION] Drag {} by offset x={}, y={}", describe(source), xOffset, yOffset);
-		waitForElementVisible(source);
+		logger.info("[ACTION] Drag {} by offset x={}, y={}", prepare(source, ActionScripts.Mode.VISIBLE), xOffset, yOffset);
 		HighlightUtil.highlight(driver, source);
 		mouse.dragAndDropByOffset(source, xOffset, yOffset);
 	}
@@ -342,8 +401,7 @@ public abstract class BasePage { // [UPDATE] abstract
 	 * ===================================================== */
 
 	protected void scrollToElement(WebElement element) {
-		logger.info("[ACTION] Scroll to {}", describe(element));
-		waitForElementVisible(element);
+		logger.info("[ACTION] Scroll to {}", prepare(element, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, element);
 		((JavascriptExecutor) driver)
 				.executeScript("arguments[0].scrollIntoView(true);", element);
@@ -367,36 +425,31 @@ public abstract class BasePage { // [UPDATE] abstract
 	 * ===================================================== */
 
 	protected void ctrlSelectAll(WebElement element) {
-		logger.info("[ACTION] Ctrl + A {}", describe(element));
-		waitForElementVisible(element);
+		logger.info("[ACTION] Ctrl + A {}", prepare(element, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, element);
 		keyboard.ctrlSelectAll(element);
 	}
 
 	protected void ctrlCopy(WebElement element) {
-		logger.info("[ACTION] Ctrl + C {}", describe(element));
-		waitForElementVisible(element);
+		logger.info("[ACTION] Ctrl + C {}", prepare(element, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, element);
 		keyboard.ctrlCopy(element);
 	}
 
 	protected void ctrlPaste(WebElement element) {
-		logger.info("[ACTION] Ctrl + V {}", describe(element));
-		waitForElementVisible(element);
+		logger.info("[ACTION] Ctrl + V {}", prepare(element, ActionScripts.Mode.VISIBLE));
 		HighlightUtil.highlight(driver, element);
 		keyboard.ctrlPaste(element);
 	}
 
 	protected void shiftClick(WebElement element) {
-		logger.info("[ACTION] Shift + Click {}", describe(element));
-		waitForElementClickable(element);
+		logger.info("[ACTION] Shift + Click {}", prepare(element, ActionScripts.Mode.CLICK));
 		HighlightUtil.highlight(driver, element);
 		keyboard.shiftClick(element);
 	}
 
 	protected void altClick(WebElement element) {
-		logger.info("[ACTION] Alt + Click {}", describe(element));
-		waitForElementClickable(element);
+		logger.info("[ACTION] Alt + Click {}", prepare(element, ActionScripts.Mode.CLICK));
 		HighlightUtil.highlight(driver, element);
 		keyboard.altClick(element);
 	}
@@ -411,43 +464,37 @@ public abstract class BasePage { // [UPDATE] abstract
 	 * ===================================================== */
 
 	protected void moveSliderByPercentage(WebElement slider, int percentage) {
-		logger.info("[ACTION] Move slider {} to {}%", describe(slider), percentage);
-		waitForElementVisible(slider);
+		logger.info("[ACTION] Move slider {} to {}%", prepare(slider, ActionScripts.Mode.VISIBLE), percentage);
 		HighlightUtil.highlight(driver, slider);
 		sliderUtil.moveSliderByPercentage(slider, percentage);
 	}
 
 	protected void setSliderValue(WebElement slider, int value) {
-		logger.info("[ACTION] Set slider {} value = {}", describe(slider), value);
-		waitForElementVisible(slider);
+		logger.info("[ACTION] Set slider {} value = {}", prepare(slider, ActionScripts.Mode.VISIBLE), value);
 		HighlightUtil.highlight(driver, slider);
 		sliderUtil.setSliderValue(slider, value);
 	}
 
 	protected void setSliderValueByJS(WebElement slider, int value) {
-		logger.info("[ACTION] Set slider (JS) {} value = {}", describe(slider), value);
-		waitForElementVisible(slider);
+		logger.info("[ACTION] Set slider (JS) {} value = {}", prepare(slider, ActionScripts.Mode.VISIBLE), value);
 		HighlightUtil.highlight(driver, slider);
 		sliderUtil.setSliderValueByJS(slider, value);
 	}
 
 	protected void assertSliderValue(WebElement slider, int expected) {
-		logger.info("[VERIFY] Slider {} value = {}", describe(slider), expected);
-		waitForElementVisible(slider);
+		logger.info("[VERIFY] Slider {} value = {}", prepare(slider, ActionScripts.Mode.VISIBLE), expected);
 		HighlightUtil.highlight(driver, slider);
 		sliderUtil.assertSliderValue(slider, expected);
 	}
 
 	protected void assertSliderPercentage(WebElement slider, int expectedPercentage) {
-		logger.info("[VERIFY] Slider {} percentage = {}", describe(slider), expectedPercentage);
-		waitForElementVisible(slider);
+		logger.info("[VERIFY] Slider {} percentage = {}", prepare(slider, ActionScripts.Mode.VISIBLE), expectedPercentage);
 		HighlightUtil.highlight(driver, slider);
 		sliderUtil.assertSliderPercentage(slider, expectedPercentage);
 	}
 
 	protected void assertSliderValue(WebElement slider, int expected, int tolerance) {
-		logger.info("[VERIFY] Slider {} value = {} ±{}", describe(slider), expected, tolerance);
-		waitForElementVisible(slider);
+		logger.info("[VERIFY] Slider {} value = {} ±{}", prepare(slider, ActionScripts.Mode.VISIBLE), expected, tolerance);
 		HighlightUtil.highlight(driver, slider);
 		sliderUtil.assertSliderValue(slider, expected, tolerance);
 	}
@@ -563,31 +610,17 @@ public abstract class BasePage { // [UPDATE] abstract
                 throw new IllegalArgumentException("Chưa hỗ trợ loại element: " + elementType);
         }
 
-        // Thử từng chiến lược
-        for (String xpathFormat : xpathStrategies) {
-            // String.format() never returns null, but explicitly assert for null-safety checker
-            String actualXpath = Objects.requireNonNull(
-                String.format(xpathFormat, cleanText),
-                "XPath format should not be null"
-            );
-            try {
-                List<WebElement> elements = driver.findElements(By.xpath(actualXpath));
-                
-                for (WebElement element : elements) {
-                    try {
-                        // Kiểm tra element có thể tương tác được
-                        if (element.isDisplayed() && element.isEnabled()) {
-                            logger.debug("✓ Found '{}' with text '{}' using: {}", elementType, cleanText, actualXpath);
-                            return element;
-                        }
-                    } catch (StaleElementReferenceException e) {
-                        // Element bị stale, bỏ qua và thử element tiếp theo
-                        continue;
-                    }
-                }
-            } catch (Exception ignored) {
-                // XPath không match hoặc có lỗi khác, thử chiến lược tiếp theo
-            }
+        // [RESOLVER] Gửi toàn bộ chiến lược trong 1 script, browser chọn element đầu tiên
+        // displayed + enabled theo thứ tự ưu tiên (thay cho findElements + isDisplayed từng cái)
+        List<String> xpaths = xpathStrategies.stream()
+                .map(xpathFormat -> String.format(xpathFormat, cleanText))
+                .toList();
+        // [STRATEGY-CACHE] Chiến lược đã thắng ở route này (lần chạy trước / thread khác) được thử trước
+        StrategyResolver.Match match = StrategyCache.resolve(driver, elementType.toLowerCase(), cleanText,
+                xpathStrategies, xpaths);
+        if (match.getElement() != null) {
+            logger.debug("✓ Found '{}' with text '{}' using: {}", elementType, cleanText, xpaths.get(match.getIndex()));
+            return match.getElement();
         }
 
         // Không tìm thấy element nào
@@ -606,13 +639,8 @@ public abstract class BasePage { // [UPDATE] abstract
         logger.info("Clicking element: {}", text);
         WebElement element = wait.until(d -> {
             try {
-                WebElement el = findElementByStrategies(text, "button");
-                // Đảm bảo element vẫn clickable sau khi tìm thấy
-                // Suppress warning: Selenium API không có @NonNull annotation
-                @SuppressWarnings("null")
-                WebElement clickable = ExpectedConditions.elementToBeClickable(el).apply(d);
-                // Return directly - null-safety handled by wait.until() + requireNonNull below
-                return clickable;
+                // Resolver đã lọc displayed + enabled trong browser → không cần kiểm tra lại
+                return findElementByStrategies(text, "button");
             } catch (Exception e) {
                 return null; // Retry wait
             }
@@ -627,9 +655,7 @@ public abstract class BasePage { // [UPDATE] abstract
         logger.info("Enter text '{}' into field: {}", value, label);
         WebElement element = wait.until(d -> {
             try {
-                WebElement el = findElementByStrategies(label, "input");
-                if (el.isDisplayed() && el.isEnabled()) return el;
-                return null;
+                return findElementByStrategies(label, "input");
             } catch (Exception e) {
                 return null;
             }
@@ -663,9 +689,7 @@ public abstract class BasePage { // [UPDATE] abstract
         logger.info("Selecting checkbox/radio: {}", label);
         WebElement element = wait.until(d -> {
             try {
-                WebElement el = findElementByStrategies(label, "checkbox");
-                if (el.isDisplayed() && el.isEnabled()) return el;
-                return null;
+                return findElementByStrategies(label, "checkbox");
             } catch (Exception e) {
                 return null;
             }
@@ -7,28 +7,129 @@ public interface ConfigKeys {
     String BASE_URL_DEV = "base.url.dev";
     String BASE_URL_STAGING = "base.url.staging";
     String BASE_URL_PROD = "base.url.prod";
+    String BASE_URL_LOCAL = "base.url.local";
     String LOGIN_URL = "login.url";
+    String ACCOUNT_URL = "account.url";
+    String LOGIN_URL_LOCAL = "login.url.local";
+    String ACCOUNT_URL_LOCAL = "account.url.local";
+
+    /* Fixture Server (env=local) */
+    String FIXTURE_SERVER_HOST = "fixture.server.host";
+    String FIXTURE_SERVER_PORT = "fixture.server.port";
 
     /* Browser & Execution */
     String BROWSER = "browser";
     String OS = "os";
     String RUN_MODE = "run.mode";
 
+    /* Launch Preset */
+    String BROWSER_PRESET = "browser.preset";
+    String BROWSER_WINDOW_SIZE = "browser.window.size";
+    String BROWSER_RENDERER_LIMIT = "browser.renderer.limit";
+
+    /* Driver Service (local) */
+    String DRIVER_SERVICE_SHARED = "driver.service.shared";
+
+    /* Driver Binary Cache */
+    String DRIVER_CACHE_ENABLED = "driver.cache.enabled";
+    String DRIVER_CACHE_FILE = "driver.cache.file";
+    String DRIVER_OFFLINE = "driver.offline";
+
     /* Grid */
     String GRID_URL = "grid.url";
+    String GRID_SCHEDULER_ENABLED = "grid.scheduler.enabled";
+    String GRID_SCHEDULER_POLL_INTERVAL = "grid.scheduler.poll.interval";
+    String GRID_SCHEDULER_QUEUE_TIMEOUT = "grid.scheduler.queue.timeout";
+
+    /* Remote HTTP client (RemoteWebDriver) */
+    String REMOTE_HTTP_TUNED = "remote.http.tuned";
+    String REMOTE_HTTP_CONNECT_TIMEOUT = "remote.http.connect.timeout";
+    String REMOTE_HTTP_NEW_SESSION_TIMEOUT = "remote.http.newsession.timeout";
+    String REMOTE_HTTP_SCRIPT_TIMEOUT = "remote.http.script.timeout";
+    String REMOTE_HTTP_COMMAND_TIMEOUT = "remote.http.command.timeout";
+    String REMOTE_HTTP_KEEPALIVE_TIMEOUT = "remote.http.keepalive.timeout";
+    String REMOTE_HTTP_POOL_SIZE = "remote.http.pool.size";
+    String REMOTE_HTTP_HISTOGRAM = "remote.http.histogram.enabled";
 
     /* Waits */
     String IMPLICIT_WAIT = "implicit.wait";
     String PAGE_LOAD_TIMEOUT = "page.load.timeout";
     String EXPLICIT_WAIT = "explicit.wait";
+    String PAGE_LOAD_STRATEGY = "browser.page.load.strategy";
+    String WAIT_DOM_OBSERVER_ENABLED = "wait.dom.observer.enabled";
+    String NETWORK_IDLE_PREINSTALL = "wait.network.idle.preinstall";
+
+    /* Adaptive Waits (WaitHistory) */
+    String WAIT_HISTORY_ENABLED = "wait.history.enabled";
+    String WAIT_HISTORY_FILE = "wait.history.file";
+    String WAIT_HISTORY_RETENTION_DAYS = "wait.history.retention.days";
+    String WAIT_ADAPTIVE_ENABLED = "wait.adaptive.enabled";
+    String WAIT_ADAPTIVE_SAFETY_FACTOR = "wait.adaptive.safety.factor";
+    String WAIT_ADAPTIVE_MIN_SAMPLES = "wait.adaptive.min.samples";
+    String WAIT_ADAPTIVE_MAX = "wait.adaptive.max";
 
     /* Highlight */
     String HIGHLIGHT_ENABLED = "highlight.enabled";
     String HIGHLIGHT_BORDER_COLOR = "highlight.border.color";
     String HIGHLIGHT_DELAY = "highlight.delay";
     String HIGHLIGHT_TIMES = "highlight.times";
+    String HIGHLIGHT_MODE = "highlight.mode";
+    String HIGHLIGHT_AUTO_DISABLE = "highlight.auto.disable";
+
+    /* Actions (BasePage) */
+    String ACTION_FAST_ENABLED = "action.fast.enabled";
+    String ACTION_ROUNDTRIP_COUNT = "action.roundtrip.count";
+
+    /* Smart Finder (BasePage.findElementByStrategies) */
+    String FINDER_CACHE_ENABLED = "finder.cache.enabled";
+    String FINDER_CACHE_FILE = "finder.cache.file";
+
+    /* Locator Healing (@FindBy fingerprint) */
+    String LOCATOR_HEALING_ENABLED = "locator.healing.enabled";
+    String LOCATOR_HEALING_THRESHOLD = "locator.healing.threshold";
+    String LOCATOR_HEALING_FILE = "locator.healing.file";
+    String LOCATOR_HEALING_STRICT = "locator.healing.strict";
+
+    /* Element Cache (@FindBy proxy) */
+    String ELEMENT_CACHE_ENABLED = "element.cache.enabled";
 
     /* Retry */
     String RETRY_TIMES = "retry.times";
     String RETRY_DELAY = "retry.delay";
+
+    /* Driver Pool */
+    String DRIVER_POOL_ENABLED = "driver.pool.enabled";
+    String DRIVER_POOL_SIZE = "driver.pool.size";
+    String DRIVER_POOL_MAX_REUSE = "driver.pool.max.reuse";
+
+    /* Concurrency Governor (local) */
+    String CONCURRENCY_ENABLED = "browser.concurrency.enabled";
+    String CONCURRENCY_MAX = "browser.concurrency.max";
+    String CONCURRENCY_MEMORY_PER_SESSION_MB = "browser.concurrency.memory.per.session.mb";
+    String CONCURRENCY_QUEUE_TIMEOUT = "browser.concurrency.queue.timeout";
+
+    /* Driver Pipeline */
+    String DRIVER_PIPELINE_ENABLED = "driver.pipeline.enabled";
+    String DRIVER_PIPELINE_DEPTH = "driver.pipeline.depth";
+
+    /* Lazy Driver (BaseClass) */
+    String DRIVER_LAZY_ENABLED = "driver.lazy.enabled";
+
+    /* Auth Session Cache */
+    String AUTH_CACHE_ENABLED = "auth.cache.enabled";
+    String AUTH_LOGIN_ROUTE = "auth.login.route";
+
+    /* Network Archive (HAR record / replay) */
+    String NETWORK_ARCHIVE_MODE = "network.archive.mode";
+    String NETWORK_ARCHIVE_FILE = "network.archive.file";
+    String NETWORK_ARCHIVE_UNMATCHED = "network.archive.unmatched";
+
+    /* Third-party Request Blocking (+ ".<group>" override) */
+    String NETWORK_BLOCK_ENABLED = "network.block.enabled";
+    String NETWORK_BLOCK_PATTERNS = "network.block.patterns";
+    String NETWORK_BLOCK_SIZE_HINTS_FILE = "network.block.size.hints.file";
+    String NETWORK_BLOCK_SIZE_RECORD = "network.block.size.record";
+
+    /* Session Reset */
+    String SESSION_RESET_PER_METHOD = "session.reset.per.method";
 }
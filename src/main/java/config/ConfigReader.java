@@ -55,11 +55,12 @@ public class ConfigReader {
     }
 
     public static boolean getBoolean(String key, boolean defaultValue) {
-        try {
-            return Boolean.parseBoolean(get(key));
-        } catch (Exception e) {
+        // [FIX] Boolean.parseBoolean không bao giờ ném lỗi → key thiếu / rỗng phải trả default tường minh
+        String value = get(key);
+        if (value == null || value.isBlank()) {
             return defaultValue;
         }
+        return Boolean.parseBoolean(value.trim());
     }
 
     /*
@@ -75,7 +76,21 @@ public class ConfigReader {
             case "dev" -> getRequired(ConfigKeys.BASE_URL_DEV);
             case "staging" -> getRequired(ConfigKeys.BASE_URL_STAGING);
             case "prod" -> getRequired(ConfigKeys.BASE_URL_PROD);
+            case "local" -> getRequired(ConfigKeys.BASE_URL_LOCAL);
             default -> throw new RuntimeException("Unsupported env: " + env);
         };
     }
+
+    // env=local → FixtureServer, các env khác dùng URL chung
+    public static String getLoginUrl() {
+        return isLocalEnv() ? getRequired(ConfigKeys.LOGIN_URL_LOCAL) : getRequired(ConfigKeys.LOGIN_URL);
+    }
+
+    public static String getAccountUrl() {
+        return isLocalEnv() ? getRequired(ConfigKeys.ACCOUNT_URL_LOCAL) : getRequired(ConfigKeys.ACCOUNT_URL);
+    }
+
+    private static boolean isLocalEnv() {
+        return "local".equalsIgnoreCase(get(ConfigKeys.ENV));
+    }
 }
@@ -0,0 +1,204 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptKey;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * =====================================================
+ * ActionScripts - Kiểm tra actionability trong 1 round-trip
+ * =====================================================
+ * Click cũ: wait (polling / observer) + describe() (getTagName,
+ * getAttribute("id"), getText = 3 command) + click → 5+ round-trip.
+ *
+ * prepare(): 1 script duy nhất, trong browser:
+ *   1. Element còn trong DOM + visible (display / opacity / visibility)
+ *   2. CLICK: enabled (không disabled)
+ *   3. Ngoài viewport → scrollIntoView (center)
+ *   4. CLICK: không bị che (elementFromPoint tại tâm = element / con của nó)
+ *   5. Trả về mô tả "<tag>[id=..]" / "<tag>[text=..]" (ElementDescription)
+ * → sau đó native click / sendKeys (event thật của browser).
+ *
+ * Chưa actionable → Result.isReady()=false + lý do, BasePage chờ như cũ.
+ *
+ * Script được pin theo driver (JavascriptExecutor.pin): Chrome / Edge
+ * local cài sẵn script vào mọi document, mỗi lần gọi chỉ gửi tên hàm.
+ * Driver không pin được / document chưa có script → gửi nguyên script.
+ *
+ * Mặc định TẮT: action.fast.enabled=false → BasePage dùng lại wait +
+ * describe() cũ; bật để dùng script (so sánh round-trip: RoundTripCounter).
+ *
+ * Thread-Safe: YES
+ * =====================================================
+ */
+public final class ActionScripts {
+
+    private static final Logger logger = LogManager.getLogger(ActionScripts.class);
+
+    public enum Mode {
+        VISIBLE, CLICK
+    }
+
+    static final String PREPARE_SCRIPT =
+            ElementDescription.DESCRIBE_FUNCTION
+            + "var el = arguments[0], mode = arguments[1];"
+            + "if (!el || !el.isConnected) { return { ok: false, reason: 'detached' }; }"
+            + "var desc = __thDescribe(el);"
+            + "function fail(reason) { return { ok: false, reason: reason, desc: desc }; }"
+            + "if (el.getClientRects().length === 0) { return fail('not visible'); }"
+            + "for (var node = el; node && node.nodeType === 1; node = node.parentElement) {"
+            + "  var style = getComputedStyle(node);"
+            + "  if (style.display === 'none' || style.opacity === '0') { return fail('not visible'); }"
+            + "}"
+            + "if (getComputedStyle(el).visibility === 'hidden') { return fail('not visible'); }"
+            + "if (mode === 'CLICK' && el.disabled) { return fail('disabled'); }"
+            + "var r = el.getBoundingClientRect();"
+            + "var w = window.innerWidth || document.documentElement.clientWidth,"
+            + "    h = window.innerHeight || document.documentElement.clientHeight;"
+            + "if (r.top < 0 || r.left < 0 || r.bottom > h || r.right > w) {"
+            + "  el.scrollIntoView({ block: 'center', inline: 'center' });"
+            + "  r = el.getBoundingClientRect();"
+            + "}"
+            + "if (mode === 'CLICK') {"
+            + "  var root = el.getRootNode && el.getRootNode().elementFromPoint ? el.getRootNode() : document;"
+            + "  var hit = root.elementFromPoint(r.left + r.width / 2, r.top + r.height / 2);"
+            + "  if (!hit) { return fail('outside viewport'); }"
+            + "  if (hit !== el && !el.contains(hit)) {"
+            + "    return fail('covered by <' + hit.tagName.toLowerCase() + (hit.id ? '#' + hit.id : '') + '>');"
+            + "  }"
+            + "}"
+            + "return { ok: true, desc: desc };";
+
+    // Driver → script đã pin (null = driver không pin được → gửi nguyên script)
+    private static final Map<WebDriver, ScriptKey> PINNED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ActionScripts() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.ACTION_FAST_ENABLED, false);
+    }
+
+    /*
+     * ======================
+     * PUBLIC API
+     * ======================
+     */
+
+    /**
+     * Kiểm tra actionability + scroll vào viewport + mô tả element (1 round-trip)
+     */
+    public static Result prepare(WebDriver driver, WebElement element, Mode mode) {
+        return prepare(driver, element, mode, true);
+    }
+
+    private static Result prepare(WebDriver driver, WebElement element, Mode mode, boolean retryStale) {
+        if (!(driver instanceof JavascriptExecutor) || element == null) {
+            return Result.notReady("no javascript", null);
+        }
+        try {
+            Object result = execute((JavascriptExecutor) driver, driver, element, mode.name());
+            if (!(result instanceof Map)) {
+                return Result.notReady("unexpected result", null);
+            }
+            Map<?, ?> state = (Map<?, ?>) result;
+            String description = state.get("desc") == null ? null : String.valueOf(state.get("desc"));
+            if (Boolean.TRUE.equals(state.get("ok"))) {
+                return new Result(true, null, description);
+            }
+            return Result.notReady(String.valueOf(state.get("reason")), description);
+        } catch (StaleElementReferenceException e) {
+            // @FindBy proxy đang giữ element cũ → bỏ cache, thử lại 1 lần với element mới
+            if (retryStale && CachedElementLocatorFactory.invalidate(element)) {
+                return prepare(driver, element, mode, false);
+            }
+            return Result.notReady("stale", null);
+        } catch (WebDriverException e) {
+            // PageFactory proxy chưa tìm thấy element (NoSuchElement) / script lỗi → chờ như cũ
+            return Result.notReady(e.getClass().getSimpleName(), null);
+        }
+    }
+
+    private static Object execute(JavascriptExecutor js, WebDriver driver, Object... args) {
+        ScriptKey key = pinned(js, driver);
+        if (key != null) {
+            try {
+                return js.executeScript(key, args);
+            } catch (JavascriptException e) {
+                // Document không có script đã pin (vd: mở trước khi pin) → gửi nguyên script
+                logger.debug("[ACTION] Pinned script unavailable here → inline: {}", e.getMessage());
+            }
+        }
+        return js.executeScript(PREPARE_SCRIPT, args);
+    }
+
+    private static ScriptKey pinned(JavascriptExecutor js, WebDriver driver) {
+        // Pin nằm trên session thật → lazy handle mới bọc session cũ không pin lại
+        driver = LazyWebDriver.unwrap(driver);
+        synchronized (PINNED) {
+            if (PINNED.containsKey(driver)) {
+                return PINNED.get(driver);
+            }
+            ScriptKey key = null;
+            try {
+                key = js.pin(PREPARE_SCRIPT);
+            } catch (RuntimeException e) {
+                logger.debug("[ACTION] Cannot pin action script ({}) → inline", e.getMessage());
+            }
+            PINNED.put(driver, key);
+            return key;
+        }
+    }
+
+    /*
+     * ======================
+     * RESULT
+     * ======================
+     */
+
+    public static final class Result {
+        private final boolean ready;
+        private final String reason;
+        private final String description;
+
+        private Result(boolean ready, String reason, String description) {
+            this.ready = ready;
+            this.reason = reason;
+            this.description = description;
+        }
+
+        private static Result notReady(String reason, String description) {
+            return new Result(false, reason, description);
+        }
+
+        public boolean isReady() {
+            return ready;
+        }
+
+        /**
+         * Lý do chưa actionable (null khi ready)
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * Mô tả element cho log (null nếu script không chạy được)
+         */
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * =====================================================
+ * AuthSessionCache - Login 1 lần / account / suite
+ * =====================================================
+ * UI login = home → menu → login page → submit → redirect (nhiều page load).
+ * Tắt (mặc định): driver được chuyển nguyên trạng cho routine UI login
+ * của test → test giữ đúng luồng Home → My Account → Login như cũ.
+ *
+ * Cache:
+ *   1. Lần đầu (miss): xoá cookies, về base URL, login qua UI (routine
+ *      do test truyền vào), capture cookies + localStorage + sessionStorage
+ *   2. Các test sau (hit): add cookies + storage vào session mới
+ *      → 1 navigation tới account.url
+ *   3. Bị redirect về login route (session hết hạn / bị logout)
+ *      → xoá cache, login lại qua UI (transparent cho test)
+ *
+ * Scope: state cùng account dùng chung 1 server session.
+ * Test LOGOUT (phá session) login qua UI như cũ (Logout_Test): scope
+ * riêng bị invalidate sau mỗi lần chạy → không bao giờ hit, chỉ làm mất
+ * luồng Home → My Account → Login mà test đó kiểm tra.
+ *
+ * Config:
+ *   auth.cache.enabled=false (mặc định tắt: test bỏ qua UI login khi bật)
+ *   account.url=...route=account/account
+ *   auth.login.route=route=account/login
+ *
+ * Counters: auth.cache.hit / .miss / .expired, per test: auth.setup.ms
+ *
+ * Thread-Safe: YES (1 lock / account + scope → không login trùng)
+ * =====================================================
+ */
+public class AuthSessionCache {
+
+    private static final Logger logger = LogManager.getLogger(AuthSessionCache.class);
+
+    public static final String DEFAULT_SCOPE = "default";
+
+    public static final String METRIC_HIT = "auth.cache.hit";
+    public static final String METRIC_MISS = "auth.cache.miss";
+    public static final String METRIC_EXPIRED = "auth.cache.expired";
+    public static final String METRIC_SETUP = "auth.setup.ms";
+
+    private static final String CAPTURE_STORAGE_SCRIPT =
+            "return { origin: location.origin,"
+            + " local: Object.assign({}, window.localStorage),"
+            + " session: Object.assign({}, window.sessionStorage) };";
+
+    private static final String RESTORE_STORAGE_SCRIPT =
+            "var local = arguments[0], session = arguments[1];"
+            + "try {"
+            + "  Object.keys(local).forEach(function (k) { localStorage.setItem(k, local[k]); });"
+            + "  Object.keys(session).forEach(function (k) { sessionStorage.setItem(k, session[k]); });"
+            + "} catch (e) {}";
+
+    private static final Map<String, AuthState> STATES = new ConcurrentHashMap<>();
+    private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private AuthSessionCache() {
+    }
+
+    /*
+     * ======================
+     * CONFIG
+     * ======================
+     */
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.AUTH_CACHE_ENABLED, false);
+    }
+
+    private static String loginRoute() {
+        String route = ConfigReader.get(ConfigKeys.AUTH_LOGIN_ROUTE);
+        return (route == null || route.isBlank()) ? "route=account/login" : route.trim();
+    }
+
+    /*
+     * ======================
+     * LOGIN
+     * ======================
+     */
+
+    public static void login(WebDriver driver, String email, Consumer<WebDriver> uiLogin) {
+        login(driver, DEFAULT_SCOPE, email, uiLogin);
+    }
+
+    /**
+     * Đảm bảo driver đang login với account, kết thúc ở account.url
+     * (hoặc trang sau khi UI login).
+     *
+     * @param scope    nhóm state (test phá session như logout → scope riêng)
+     * @param email    account (key của cache)
+     * @param uiLogin  luồng UI login đầy đủ, bắt đầu từ base URL
+     *                 (cache tắt → chạy trên driver nguyên trạng sau setUp)
+     */
+    public static void login(WebDriver driver, String scope, String email, Consumer<WebDriver> uiLogin) {
+        long start = System.currentTimeMillis();
+        String key = scope + "|" + email;
+
+        try {
+            if (!isEnabled()) {
+                uiLogin.accept(driver);
+                return;
+            }
+
+            if (tryRestore(driver, key)) {
+                return;
+            }
+
+            // Miss / expired → 1 thread login, các thread cùng account chờ rồi dùng lại
+            synchronized (LOCKS.computeIfAbsent(key, k -> new Object())) {
+                if (tryRestore(driver, key)) {
+                    return;
+                }
+                FrameworkMetrics.increment(METRIC_MISS);
+                logger.info("[AUTH] Logging in {} through UI (scope={})", email, scope);
+                loginThroughUi(driver, uiLogin);
+
+                if (isOnLoginRoute(driver)) {
+                    logger.warn("[AUTH] Still on login page after UI login for {} → state not cached", email);
+                    return;
+                }
+                STATES.put(key, capture(driver));
+            }
+        } finally {
+            FrameworkMetrics.recordForTest(METRIC_SETUP, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Bỏ state đã cache (vd: sau khi test logout)
+     */
+    public static void invalidate(String scope, String email) {
+        STATES.remove(scope + "|" + email);
+    }
+
+    public static void clear() {
+        STATES.clear();
+    }
+
+    /*
+     * ======================
+     * RESTORE / CAPTURE
+     * ======================
+     */
+
+    private static boolean tryRestore(WebDriver driver, String key) {
+        AuthState state = STATES.get(key);
+        if (state == null) {
+            return false;
+        }
+        if (state.hasExpiredCookie()) {
+            expire(key, state, "cookie expired");
+            return false;
+        }
+
+        // addCookie chỉ hợp lệ khi đang ở đúng domain (sau setUp thường đã ở base URL)
+        String currentUrl = driver.getCurrentUrl();
+        if (currentUrl == null || !currentUrl.startsWith(state.origin)) {
+            driver.get(ConfigReader.getBaseUrl());
+            NavigationEpoch.advance(driver);
+        }
+
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : state.cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        if (!state.localStorage.isEmpty() || !state.sessionStorage.isEmpty()) {
+            ((JavascriptExecutor) driver).executeScript(RESTORE_STORAGE_SCRIPT, state.localStorage, state.sessionStorage);
+        }
+
+        driver.get(ConfigReader.getAccountUrl());
+        NavigationEpoch.advance(driver);
+
+        if (isOnLoginRoute(driver)) {
+            expire(key, state, "redirected to login");
+            return false;
+        }
+        FrameworkMetrics.increment(METRIC_HIT);
+        logger.debug("[AUTH] Restored session state for {}", key);
+        return true;
+    }
+
+    private static void expire(String key, AuthState state, String reason) {
+        STATES.remove(key, state);
+        FrameworkMetrics.increment(METRIC_EXPIRED);
+        logger.info("[AUTH] Cached session for {} is no longer valid ({}) → login again", key, reason);
+    }
+
+    // Restore thất bại có thể để driver ở trang login / state cũ → bắt đầu lại từ base URL
+    private static void loginThroughUi(WebDriver driver, Consumer<WebDriver> uiLogin) {
+        driver.manage().deleteAllCookies();
+        driver.get(ConfigReader.getBaseUrl());
+        NavigationEpoch.advance(driver);
+        uiLogin.accept(driver);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AuthState capture(WebDriver driver) {
+        Map<String, Object> storage =
+                (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE_SCRIPT);
+        return new AuthState(
+                String.valueOf(storage.get("origin")),
+                new ArrayList<>(driver.manage().getCookies()),
+                (Map<String, Object>) storage.get("local"),
+                (Map<String, Object>) storage.get("session"));
+    }
+
+    private static boolean isOnLoginRoute(WebDriver driver) {
+        String url = driver.getCurrentUrl();
+        return url != null && url.contains(loginRoute());
+    }
+
+    /*
+     * ======================
+     * STATE
+     * ======================
+     */
+
+    private static final class AuthState {
+        private final String origin;
+        private final List<Cookie> cookies;
+        private final Map<String, Object> localStorage;
+        private final Map<String, Object> sessionStorage;
+
+        private AuthState(String origin, List<Cookie> cookies,
+                          Map<String, Object> localStorage, Map<String, Object> sessionStorage) {
+            this.origin = origin;
+            this.cookies = cookies;
+            this.localStorage = localStorage == null ? Map.of() : localStorage;
+            this.sessionStorage = sessionStorage == null ? Map.of() : sessionStorage;
+        }
+
+        private boolean hasExpiredCookie() {
+            Date now = new Date();
+            return cookies.stream().anyMatch(c -> c.getExpiry() != null && c.getExpiry().before(now));
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.internal.LocatingElementHandler;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * =====================================================
+ * CachedElementLocatorFactory - @FindBy proxy nhớ element đã tìm
+ * =====================================================
+ * PageFactory mặc định: MỖI lần gọi method trên field (click, getText,
+ * truyền vào executeScript, ...) = 1 findElement → 1 action tốn 2+
+ * round-trip, và element bị thay giữa 2 lần gọi vẫn lọt
+ * StaleElementReferenceException ra test.
+ *
+ * initElements(driver, page) (BasePage / BaseComponent):
+ *   - Locator gốc: HealingElementLocatorFactory (self-healing)
+ *   - Bọc CachedElementLocator: giữ element đã tìm + NavigationEpoch
+ *       cùng epoch → trả element đã cache (0 round-trip)
+ *       epoch khác (driver.get qua framework) → tìm lại
+ *   - Proxy gặp StaleElementReferenceException → bỏ cache, tìm lại qua
+ *     locator (healing) và gọi lại method (tối đa MAX_ATTEMPTS lần)
+ *   - Stale xảy ra ngoài proxy (element là argument của executeScript:
+ *     ActionScripts, DomWaitEngine) → invalidate(element) rồi thử lại
+ *   - List<WebElement> → proxy mặc định (danh sách thay đổi theo DOM)
+ *
+ * Mặc định TẮT: element.cache.enabled=false → proxy PageFactory mặc định
+ * (healing vẫn áp dụng nếu bật)
+ * Counters: element.find / element.cache.hit / element.cache.refreshed
+ *
+ * Thread-Safe: YES
+ * =====================================================
+ */
+public class CachedElementLocatorFactory implements ElementLocatorFactory {
+
+    public static final String METRIC_FIND = "element.find";
+    public static final String METRIC_HIT = "element.cache.hit";
+    public static final String METRIC_REFRESHED = "element.cache.refreshed";
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final SearchContext searchContext;
+    private final ElementLocatorFactory delegate;
+
+    public CachedElementLocatorFactory(SearchContext searchContext, ElementLocatorFactory delegate) {
+        this.searchContext = searchContext;
+        this.delegate = delegate;
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.ELEMENT_CACHE_ENABLED, false);
+    }
+
+    /**
+     * Thay cho PageFactory.initElements(driver, page)
+     */
+    public static void initElements(SearchContext searchContext, Object page) {
+        ElementLocatorFactory locators = new HealingElementLocatorFactory(searchContext);
+        if (!isEnabled()) {
+            PageFactory.initElements(locators, page);
+            return;
+        }
+        PageFactory.initElements(
+                new CachedFieldDecorator(new CachedElementLocatorFactory(searchContext, locators)), page);
+    }
+
+    /**
+     * Bỏ element đã cache của proxy (stale phát hiện ngoài proxy)
+     *
+     * @return true nếu element là proxy của factory này và đang có cache
+     *         → gọi lại sẽ tìm element mới
+     */
+    public static boolean invalidate(WebElement element) {
+        if (element == null || !Proxy.isProxyClass(element.getClass())) {
+            return false;
+        }
+        InvocationHandler handler = Proxy.getInvocationHandler(element);
+        if (handler instanceof CachedElementHandler && ((CachedElementHandler) handler).locator.invalidate()) {
+            FrameworkMetrics.increment(METRIC_REFRESHED);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Locator của proxy @FindBy ("DefaultElementLocator 'By.id: x'"), không gọi browser
+     * (toString() của proxy = findElement + mô tả có session id)
+     *
+     * @return null nếu element không phải proxy PageFactory
+     */
+    public static String locatorOf(WebElement element) {
+        if (element == null || !Proxy.isProxyClass(element.getClass())) {
+            return null;
+        }
+        InvocationHandler handler = Proxy.getInvocationHandler(element);
+        if (handler instanceof CachedElementHandler) {
+            return ((CachedElementHandler) handler).locator.toString();
+        }
+        if (handler instanceof LocatingElementHandler) {
+            // Proxy mặc định (element.cache.enabled=false): locator là field private
+            try {
+                Field locator = LocatingElementHandler.class.getDeclaredField("locator");
+                locator.setAccessible(true);
+                return String.valueOf(locator.get(handler));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        ElementLocator locator = delegate.createLocator(field);
+        return locator == null ? null : new CachedElementLocator(searchContext, locator);
+    }
+
+    /*
+     * ======================
+     * LOCATOR
+     * ======================
+     */
+
+    static final class CachedElementLocator implements ElementLocator {
+
+        private final SearchContext searchContext;
+        private final ElementLocator delegate;
+        private volatile WebElement cached;
+        private volatile long epoch;
+
+        CachedElementLocator(SearchContext searchContext, ElementLocator delegate) {
+            this.searchContext = searchContext;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public WebElement findElement() {
+            long current = NavigationEpoch.current(searchContext);
+            WebElement element = cached;
+            if (element != null && epoch == current) {
+                FrameworkMetrics.increment(METRIC_HIT);
+                return element;
+            }
+            FrameworkMetrics.increment(METRIC_FIND);
+            element = delegate.findElement();
+            epoch = current;
+            cached = element;
+            return element;
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            return delegate.findElements();
+        }
+
+        /**
+         * @return true nếu đang có element cache (đã bỏ)
+         */
+        boolean invalidate() {
+            boolean had = cached != null;
+            cached = null;
+            return had;
+        }
+
+        @Override
+        public String toString() {
+            // Giữ "DefaultElementLocator 'By...'" → key WaitHistory không đổi
+            return delegate.toString();
+        }
+    }
+
+    /*
+     * ======================
+     * PROXY
+     * ======================
+     */
+
+    static final class CachedFieldDecorator extends DefaultFieldDecorator {
+
+        CachedFieldDecorator(ElementLocatorFactory factory) {
+            super(factory);
+        }
+
+        @Override
+        protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+            if (!(locator instanceof CachedElementLocator)) {
+                return super.proxyForLocator(loader, locator);
+            }
+            return (WebElement) Proxy.newProxyInstance(loader,
+                    new Class<?>[] {WebElement.class, WrapsElement.class, Locatable.class},
+                    new CachedElementHandler((CachedElementLocator) locator));
+        }
+    }
+
+    /**
+     * Giống LocatingElementHandler của Selenium + tìm lại khi stale
+     */
+    static final class CachedElementHandler implements InvocationHandler {
+
+        private final CachedElementLocator locator;
+
+        CachedElementHandler(CachedElementLocator locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            for (int attempt = 1; ; attempt++) {
+                WebElement element;
+                try {
+                    element = locator.findElement();
+                } catch (NoSuchElementException e) {
+                    if ("toString".equals(method.getName())) {
+                        return "Proxy element for: " + locator;
+                    }
+                    throw e;
+                }
+
+                if ("getWrappedElement".equals(method.getName())) {
+                    return element;
+                }
+
+                try {
+                    return method.invoke(element, args);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof StaleElementReferenceException
+                            && attempt < MAX_ATTEMPTS && locator.invalidate()) {
+                        FrameworkMetrics.increment(METRIC_REFRESHED);
+                        continue;
+                    }
+                    throw e.getCause();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import utils.exceptions.DriverCreationException;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * =====================================================
+ * ConcurrencyGovernor - Giới hạn số browser local chạy đồng thời
+ * =====================================================
+ * thread-count trong testng.xml là "số test song song", KHÔNG phải
+ * "số browser máy chịu được". Vượt quá RAM/CPU → swap, timeout ngẫu nhiên.
+ *
+ * Governor đặt 1 fair Semaphore trước DriverFactory.createDriver (local):
+ *   - Permit = 1 browser session đang sống
+ *   - Hết permit → createDriver xếp hàng (FIFO) tới khi có session quit
+ *   - Thời gian xếp hàng ghi vào "driver.queue.wait.ms" (per test)
+ *
+ * Budget:
+ *   browser.concurrency.max > 0 → dùng số này
+ *   = 0 (auto)                  → min(CPU cores,
+ *                                     free RAM / browser.concurrency.memory.per.session.mb)
+ *
+ * Permit trả lại qua DriverFactory.quitDriver(driver)
+ * (gọi driver.quit() trực tiếp sẽ KHÔNG trả permit).
+ *
+ * Session idle trong DriverPool / chuẩn bị trước bởi DriverProvisioner
+ * cũng giữ permit → 2 nơi này clamp theo parkingLimit() (budget - 1):
+ * luôn chừa ít nhất 1 permit cho test thread, không để session không ai
+ * lease giữ hết budget (starvation).
+ * =====================================================
+ */
+public class ConcurrencyGovernor {
+
+    private static final Logger logger = LogManager.getLogger(ConcurrencyGovernor.class);
+
+    public static final String METRIC_QUEUE_WAIT = "driver.queue.wait.ms";
+
+    private static final Set<WebDriver> GOVERNED =
+            Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private static Semaphore semaphore;
+    private static int budget;
+
+    private ConcurrencyGovernor() {
+    }
+
+    /*
+     * ======================
+     * CONFIG
+     * ======================
+     */
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.CONCURRENCY_ENABLED, false);
+    }
+
+    private static synchronized Semaphore semaphore() {
+        if (semaphore == null) {
+            budget = computeBudget();
+            semaphore = new Semaphore(budget, true);
+            logger.info("[GOVERNOR] Max concurrent local browsers = {}", budget);
+        }
+        return semaphore;
+    }
+
+    /**
+     * Số browser local tối đa (tính 1 lần cho cả suite)
+     */
+    public static synchronized int budget() {
+        semaphore();
+        return budget;
+    }
+
+    /**
+     * Số session tối đa được phép giữ permit mà không có test dùng
+     * (pool idle + pipeline chuẩn bị trước). Governor tắt → không giới hạn.
+     */
+    public static int parkingLimit() {
+        return isEnabled() ? budget() - 1 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Testable: quên budget / semaphore → tính lại ở lần dùng tiếp theo
+     * (chỉ gọi khi không còn session giữ permit)
+     */
+    public static synchronized void reset() {
+        semaphore = null;
+        budget = 0;
+        GOVERNED.clear();
+    }
+
+    static int computeBudget() {
+        int explicit = ConfigReader.getInt(ConfigKeys.CONCURRENCY_MAX, 0);
+        if (explicit > 0) {
+            return explicit;
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        long perSessionMb = Math.max(1, ConfigReader.getInt(ConfigKeys.CONCURRENCY_MEMORY_PER_SESSION_MB, 600));
+        long freeMb = freePhysicalMemoryMb();
+
+        int byMemory = freeMb > 0 ? (int) (freeMb / perSessionMb) : cores;
+        int budget = Math.max(1, Math.min(cores, byMemory));
+        logger.info("[GOVERNOR] Auto budget: cores={}, freeRam={} MB, perSession={} MB → {}",
+                cores, freeMb, perSessionMb, budget);
+        return budget;
+    }
+
+    private static long freePhysicalMemoryMb() {
+        try {
+            java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+            if (os instanceof com.sun.management.OperatingSystemMXBean) {
+                return ((com.sun.management.OperatingSystemMXBean) os).getFreeMemorySize() / (1024 * 1024);
+            }
+        } catch (Exception e) {
+            logger.debug("[GOVERNOR] Cannot read free memory: {}", e.getMessage());
+        }
+        return -1;
+    }
+
+    /*
+     * ======================
+     * ACQUIRE / RELEASE
+     * ======================
+     */
+
+    /**
+     * Chờ tới lượt tạo browser (fair, FIFO).
+     *
+     * @return thời gian đã chờ (ms)
+     * @throws DriverCreationException nếu chờ quá browser.concurrency.queue.timeout (giây)
+     */
+    public static long acquire() {
+        long start = System.currentTimeMillis();
+        int timeoutSeconds = ConfigReader.getInt(ConfigKeys.CONCURRENCY_QUEUE_TIMEOUT, 300);
+        try {
+            if (!semaphore().tryAcquire(timeoutSeconds, TimeUnit.SECONDS)) {
+                throw new DriverCreationException(String.format(
+                    "No browser slot available after %d seconds (browser.concurrency.max / free memory budget reached).",
+                    timeoutSeconds));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DriverCreationException("Interrupted while waiting for a browser slot", e);
+        }
+
+        long waited = System.currentTimeMillis() - start;
+        FrameworkMetrics.recordForTest(METRIC_QUEUE_WAIT, waited);
+        if (waited > 0) {
+            logger.debug("[GOVERNOR] Waited {} ms for a browser slot", waited);
+        }
+        return waited;
+    }
+
+    /**
+     * Gắn permit vừa acquire với driver đã tạo thành công
+     */
+    public static void register(WebDriver driver) {
+        GOVERNED.add(driver);
+    }
+
+    /**
+     * Trả permit khi tạo driver thất bại (chưa có driver để register)
+     */
+    public static void abandon() {
+        semaphore().release();
+    }
+
+    /**
+     * Trả permit của driver (idempotent, bỏ qua driver không được governor quản lý)
+     */
+    public static void release(WebDriver driver) {
+        if (driver != null && GOVERNED.remove(driver)) {
+            semaphore().release();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * =====================================================
+ * DomWaitEngine - Wait theo sự kiện DOM (MutationObserver)
+ * =====================================================
+ * WebDriverWait: mỗi lần poll = 1 round-trip, mặc định 500ms / lần
+ * → phản ứng với thay đổi DOM trễ tới nửa giây.
+ *
+ * Engine này: 1 executeAsyncScript / lượt chờ
+ *   - Script kiểm tra điều kiện ngay, nếu chưa đúng → MutationObserver
+ *     (childList / attributes / characterData) kiểm tra lại ở mỗi thay đổi
+ *     + re-check mỗi 100ms (CSS transition / animation không sinh mutation)
+ *   - Điều kiện đúng → callback ngay (vài ms sau thay đổi)
+ *   - Mỗi lượt tối đa SLICE_MS (< script timeout mặc định 30s),
+ *     chưa hết timeout → lượt tiếp (an toàn khi page navigate giữa chừng)
+ *
+ * Điều kiện: PRESENT, VISIBLE, CLICKABLE, INVISIBLE
+ * Target: By (css / xpath / id / name / class / tag / link text) hoặc WebElement
+ *
+ * Mặc định TẮT (wait.dom.observer.enabled=false): bật sau khi đã so sánh
+ * với polling wait trên suite thật (heuristic visible() riêng).
+ *
+ * Fallback WebDriverWait (polling) khi:
+ *   - wait.dom.observer.enabled=false / driver không hỗ trợ JS
+ *   - By không remote được (ByChained, custom By...)
+ *   - Script lỗi (async script không khả dụng, element chưa tồn tại...)
+ *
+ * Timeout / polling theo WaitHistory (wait.adaptive.enabled), mỗi lần chờ
+ * được ghi lại làm mẫu.
+ * Timeout → org.openqa.selenium.TimeoutException (giống WebDriverWait)
+ * Counters: wait.dom.observer / wait.dom.fallback
+ *
+ * Thread-Safe: YES (stateless)
+ * =====================================================
+ */
+public final class DomWaitEngine {
+
+    private static final Logger logger = LogManager.getLogger(DomWaitEngine.class);
+
+    public static final String METRIC_OBSERVER = "wait.dom.observer";
+    public static final String METRIC_FALLBACK = "wait.dom.fallback";
+
+    private static final long SLICE_MS = 5000;
+
+    public enum Condition {
+        PRESENT, VISIBLE, CLICKABLE, INVISIBLE
+    }
+
+    private static final String WAIT_SCRIPT =
+            "var using = arguments[0], value = arguments[1], target = arguments[2],"
+            + "    condition = arguments[3], timeout = arguments[4], done = arguments[arguments.length - 1];"
+            + "function find() {"
+            + "  if (target) { return target; }"
+            + "  switch (using) {"
+            + "    case 'css selector': return document.querySelector(value);"
+            + "    case 'xpath': return document.evaluate(value, document, null,"
+            + "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "    case 'tag name': return document.getElementsByTagName(value)[0] || null;"
+            + "    case 'link text': case 'partial link text':"
+            + "      var links = document.getElementsByTagName('a');"
+            + "      for (var i = 0; i < links.length; i++) {"
+            + "        var text = (links[i].innerText || links[i].textContent || '').trim();"
+            + "        if (using === 'link text' ? text === value : text.indexOf(value) >= 0) { return links[i]; }"
+            + "      }"
+            + "      return null;"
+            + "  }"
+            + "  return null;"
+            + "}"
+            + "function visible(el) {"
+            + "  if (!el || !el.isConnected || el.getClientRects().length === 0) { return false; }"
+            + "  for (var node = el; node && node.nodeType === 1; node = node.parentElement) {"
+            + "    var style = getComputedStyle(node);"
+            + "    if (style.display === 'none' || style.opacity === '0') { return false; }"
+            + "  }"
+            + "  return getComputedStyle(el).visibility !== 'hidden';"
+            + "}"
+            + "function check() {"
+            + "  var el = find();"
+            + "  switch (condition) {"
+            + "    case 'PRESENT': return el ? { el: el } : null;"
+            + "    case 'VISIBLE': return visible(el) ? { el: el } : null;"
+            + "    case 'CLICKABLE': return visible(el) && !el.disabled ? { el: el } : null;"
+            + "    case 'INVISIBLE': return visible(el) ? null : { el: null };"
+            + "  }"
+            + "  return null;"
+            + "}"
+            + "var first = check();"
+            + "if (first) { done({ ok: true, el: first.el }); return; }"
+            + "var finished = false, observer, timer, ticker;"
+            + "function finish(result) {"
+            + "  if (finished) { return; } finished = true;"
+            + "  observer.disconnect(); clearTimeout(timer); clearInterval(ticker);"
+            + "  done(result ? { ok: true, el: result.el } : { ok: false });"
+            + "}"
+            + "function recheck() { var r = check(); if (r) { finish(r); } }"
+            + "observer = new MutationObserver(recheck);"
+            + "observer.observe(document.documentElement || document,"
+            + "    { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "ticker = setInterval(recheck, 100);"
+            + "timer = setTimeout(function () { finish(null); }, timeout);";
+
+    private DomWaitEngine() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.WAIT_DOM_OBSERVER_ENABLED, false);
+    }
+
+    /*
+     * ======================
+     * PUBLIC API
+     * ======================
+     */
+
+    public static WebElement until(WebDriver driver, Condition condition, By locator, Duration timeout) {
+        return timed(driver, condition, locator, null, timeout);
+    }
+
+    public static WebElement until(WebDriver driver, Condition condition, WebElement element, Duration timeout) {
+        return timed(driver, condition, null, element, timeout);
+    }
+
+    /*
+     * ======================
+     * HISTORY (adaptive timeout / polling)
+     * ======================
+     */
+
+    private static WebElement timed(WebDriver driver, Condition condition, By locator, WebElement element,
+                                    Duration configured) {
+        String key = locator != null
+                ? WaitHistory.key(condition.name(), locator)
+                : WaitHistory.key(condition.name(), element);
+        Duration timeout = WaitHistory.timeoutFor(key, configured);
+        if (!timeout.equals(configured)) {
+            logger.debug("[WAIT] {} → {}", key, WaitHistory.explain(key));
+        }
+        long start = System.currentTimeMillis();
+        try {
+            WebElement result = await(driver, condition, locator, element, timeout, WaitHistory.pollingFor(key));
+            WaitHistory.record(key, System.currentTimeMillis() - start);
+            return result;
+        } catch (TimeoutException e) {
+            // Timeout cũng là 1 mẫu (>= thời gian cần) → lần sau nới timeout (tới wait.adaptive.max)
+            WaitHistory.record(key, System.currentTimeMillis() - start);
+            throw e;
+        }
+    }
+
+    /*
+     * ======================
+     * ENGINE
+     * ======================
+     */
+
+    /**
+     * @return element thỏa điều kiện (INVISIBLE → null)
+     */
+    private static WebElement await(WebDriver driver, Condition condition, By locator, WebElement element,
+                                    Duration timeout, Duration polling) {
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        By.Remotable.Parameters parameters = locator instanceof By.Remotable
+                ? ((By.Remotable) locator).getRemoteParameters() : null;
+        boolean observable = isEnabled() && driver instanceof JavascriptExecutor
+                && (element != null || parameters != null);
+
+        if (observable) {
+            try {
+                while (true) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw timeout(condition, locator, element, timeout);
+                    }
+                    Object result = ((JavascriptExecutor) driver).executeAsyncScript(WAIT_SCRIPT,
+                            parameters == null ? null : parameters.using(),
+                            parameters == null ? null : String.valueOf(parameters.value()),
+                            element, condition.name(), Math.min(remaining, SLICE_MS));
+                    if (result instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) result).get("ok"))) {
+                        FrameworkMetrics.increment(METRIC_OBSERVER);
+                        Object found = ((Map<?, ?>) result).get("el");
+                        if (condition == Condition.INVISIBLE) {
+                            return null;
+                        }
+                        return element != null ? element : (WebElement) found;
+                    }
+                }
+            } catch (ScriptTimeoutException e) {
+                logger.debug("[WAIT] Script timeout shorter than wait slice → polling");
+            } catch (TimeoutException e) {
+                throw e;
+            } catch (StaleElementReferenceException | NoSuchElementException e) {
+                if (e instanceof StaleElementReferenceException && CachedElementLocatorFactory.invalidate(element)
+                        && deadline > System.currentTimeMillis()) {
+                    // @FindBy proxy giữ element của document cũ → chờ lại trên element tìm mới
+                    return await(driver, condition, locator, element,
+                            Duration.ofMillis(deadline - System.currentTimeMillis()), polling);
+                }
+                if (condition == Condition.INVISIBLE) {
+                    // Element đã bị xoá / không tồn tại → đã invisible
+                    FrameworkMetrics.increment(METRIC_OBSERVER);
+                    return null;
+                }
+                logger.debug("[WAIT] Element not resolvable yet → polling: {}", e.getClass().getSimpleName());
+            } catch (WebDriverException e) {
+                logger.debug("[WAIT] Async wait script unavailable → polling: {}", e.getMessage());
+            }
+        }
+
+        FrameworkMetrics.increment(METRIC_FALLBACK);
+        long remaining = Math.max(1, deadline - System.currentTimeMillis());
+        WebDriverWait wait = new WebDriverWait(driver, Duration.ofMillis(remaining), polling);
+        Object result = wait.until(fallback(condition, locator, element));
+        return result instanceof WebElement ? (WebElement) result : null;
+    }
+
+    private static ExpectedCondition<?> fallback(Condition condition, By locator, WebElement element) {
+        switch (condition) {
+            case PRESENT:
+                return locator != null
+                        ? ExpectedConditions.presenceOfElementLocated(locator)
+                        : (ExpectedCondition<WebElement>) d -> {
+                            element.getTagName(); // NoSuchElementException → wait tiếp
+                            return element;
+                        };
+            case VISIBLE:
+                return locator != null
+                        ? ExpectedConditions.visibilityOfElementLocated(locator)
+                        : ExpectedConditions.visibilityOf(element);
+            case CLICKABLE:
+                return locator != null
+                        ? ExpectedConditions.elementToBeClickable(locator)
+                        : ExpectedConditions.elementToBeClickable(element);
+            case INVISIBLE:
+            default:
+                return locator != null
+                        ? ExpectedConditions.invisibilityOfElementLocated(locator)
+                        : ExpectedConditions.invisibilityOf(element);
+        }
+    }
+
+    private static TimeoutException timeout(Condition condition, By locator, WebElement element,
+                                            Duration timeout) {
+        return new TimeoutException(String.format("Expected condition failed: waiting for %s of %s (tried for %d ms)",
+                condition.name().toLowerCase(), locator != null ? locator : element, timeout.toMillis()));
+    }
+}
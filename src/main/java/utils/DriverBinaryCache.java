@@ -0,0 +1,199 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.service.DriverFinder;
+import org.openqa.selenium.remote.service.DriverService;
+import utils.exceptions.DriverCreationException;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * =====================================================
+ * DriverBinaryCache - Offline driver/browser path cache
+ * =====================================================
+ * Selenium Manager resolve driver + browser path ở MỖI lần tạo driver
+ * (có network probe) → chậm, và fail hẳn trên CI agent air-gapped.
+ *
+ * Cache trên disk (properties), key = browser + version:
+ *   chrome.stable.driver=/home/ci/.cache/selenium/chromedriver/.../chromedriver
+ *   chrome.stable.browser=/home/ci/.cache/selenium/chrome/.../chrome
+ *
+ * Flow:
+ *   1. Có entry + file còn tồn tại → dùng luôn (KHÔNG gọi Selenium Manager)
+ *   2. Không có:
+ *      - driver.offline=true  → DriverCreationException ngay (fail fast)
+ *      - online               → resolve qua Selenium Manager 1 lần, ghi cache
+ *
+ * Config:
+ *   driver.cache.enabled=false
+ *   driver.cache.file=  (default: ~/.th-framework/driver-cache.properties)
+ *   driver.offline=false (true → bật cache + không bao giờ resolve online)
+ *
+ * Thread-Safe: YES (synchronized, file nhỏ)
+ * =====================================================
+ */
+public class DriverBinaryCache {
+
+    private static final Logger logger = LogManager.getLogger(DriverBinaryCache.class);
+
+    private static final String DEFAULT_CACHE_FILE =
+            System.getProperty("user.home") + "/.th-framework/driver-cache.properties";
+
+    private static Properties cache;
+
+    private DriverBinaryCache() {
+    }
+
+    /*
+     * ======================
+     * CONFIG
+     * ======================
+     */
+
+    public static boolean isEnabled() {
+        return isOffline() || ConfigReader.getBoolean(ConfigKeys.DRIVER_CACHE_ENABLED, false);
+    }
+
+    public static boolean isOffline() {
+        return ConfigReader.getBoolean(ConfigKeys.DRIVER_OFFLINE, false);
+    }
+
+    private static Path cacheFile() {
+        String file = ConfigReader.get(ConfigKeys.DRIVER_CACHE_FILE);
+        return Paths.get(file == null || file.isBlank() ? DEFAULT_CACHE_FILE : file.trim());
+    }
+
+    /*
+     * ======================
+     * RESOLVE
+     * ======================
+     */
+
+    /**
+     * Resolve driver + browser path cho service/options.
+     * Cache tắt → gọi thẳng Selenium Manager (hành vi mặc định).
+     *
+     * @param browser chrome / edge / firefox (normalized)
+     * @param service service chưa start (để Selenium Manager biết driver name)
+     * @param options options của session (browserVersion nếu có)
+     * @return paths đã resolve (browserPath có thể null)
+     * @throws DriverCreationException offline mode mà cache chưa có entry
+     */
+    public static synchronized Resolution resolve(String browser, DriverService service, Capabilities options) {
+        if (!isEnabled()) {
+            return resolveOnline(service, options);
+        }
+
+        String key = browser + "." + versionOf(options);
+        Properties entries = load();
+        String driverPath = entries.getProperty(key + ".driver");
+        String browserPath = entries.getProperty(key + ".browser");
+
+        if (driverPath != null && new File(driverPath).isFile()
+                && (browserPath == null || new File(browserPath).isFile())) {
+            FrameworkMetrics.increment("driver.cache.hit");
+            logger.debug("[DRIVER-CACHE] Hit {} → {}", key, driverPath);
+            return new Resolution(driverPath, browserPath);
+        }
+
+        if (isOffline()) {
+            throw new DriverCreationException(String.format(
+                "Offline mode: no cached driver for '%s' in %s. "
+                    + "Run once online with driver.cache.enabled=true (or copy the cache file to this agent).",
+                key, cacheFile()));
+        }
+
+        FrameworkMetrics.increment("driver.cache.miss");
+        Resolution resolution = resolveOnline(service, options);
+        entries.setProperty(key + ".driver", resolution.getDriverPath());
+        if (resolution.getBrowserPath() != null) {
+            entries.setProperty(key + ".browser", resolution.getBrowserPath());
+        } else {
+            entries.remove(key + ".browser");
+        }
+        save(entries);
+        logger.info("[DRIVER-CACHE] Cached {} → {}", key, resolution.getDriverPath());
+        return resolution;
+    }
+
+    /*
+     * ======================
+     * HELPERS
+     * ======================
+     */
+
+    private static Resolution resolveOnline(DriverService service, Capabilities options) {
+        DriverFinder finder = new DriverFinder(service, options);
+        return new Resolution(finder.getDriverPath(), finder.hasBrowserPath() ? finder.getBrowserPath() : null);
+    }
+
+    private static String versionOf(Capabilities options) {
+        String version = options.getBrowserVersion();
+        return (version == null || version.isBlank()) ? "default" : version.trim().toLowerCase();
+    }
+
+    private static Properties load() {
+        if (cache != null) {
+            return cache;
+        }
+        cache = new Properties();
+        Path file = cacheFile();
+        if (Files.isRegularFile(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                cache.load(input);
+            } catch (Exception e) {
+                logger.warn("[DRIVER-CACHE] Cannot read {}: {}", file, e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    private static void save(Properties entries) {
+        Path file = cacheFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream output = Files.newOutputStream(file)) {
+                entries.store(output, "Driver/browser paths resolved by Selenium Manager");
+            }
+        } catch (Exception e) {
+            // Cache chỉ là tối ưu → không làm fail test
+            logger.warn("[DRIVER-CACHE] Cannot write {}: {}", file, e.getMessage());
+        }
+    }
+
+    /*
+     * ======================
+     * RESOLUTION
+     * ======================
+     */
+
+    public static final class Resolution {
+        private final String driverPath;
+        private final String browserPath;
+
+        private Resolution(String driverPath, String browserPath) {
+            this.driverPath = driverPath;
+            this.browserPath = browserPath;
+        }
+
+        public String getDriverPath() {
+            return driverPath;
+        }
+
+        public String getBrowserPath() {
+            return browserPath;
+        }
+    }
+}
@@ -3,21 +3,30 @@ package utils;
 import config.ConfigKeys;
 import config.ConfigReader;
 
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.MutableCapabilities;
 import org.openqa.selenium.Platform;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.remote.Augmenter;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import utils.exceptions.AutomationException;
 import utils.exceptions.DriverCreationException;
 import utils.exceptions.GridConnectionException;
 import utils.exceptions.InvalidBrowserException;
 import utils.exceptions.InvalidConfigException;
 
 import java.net.URI;
+import java.net.URL;
 import java.util.Arrays;
 import java.util.List;
 
@@ -36,6 +45,13 @@ public class DriverFactory {
     private static final List<String> SUPPORTED_BROWSERS = Arrays.asList("chrome", "firefox", "edge");
     private static final List<String> SUPPORTED_RUN_MODES = Arrays.asList("local", "grid");
 
+    public static final String METRIC_CREATE = "driver.create.ms";
+
+    static {
+        // [ROUND-TRIP] Phải đặt webdriver.http.factory trước khi tạo HttpClient đầu tiên
+        RoundTripCounter.install();
+    }
+
     private DriverFactory() {
     }
 
@@ -61,11 +77,73 @@ public class DriverFactory {
         String normalizedRunMode = runMode.trim().toLowerCase();
 
         if ("grid".equals(normalizedRunMode)) {
-            return createRemoteDriver(normalizedBrowser, os);
+            return timed(() -> createRemoteDriver(normalizedBrowser, os));
         }
-        
+
         // Default to local
-        return createLocalDriver(normalizedBrowser);
+        // [GOVERNOR] Giới hạn số browser local đồng thời (xếp hàng fair)
+        if (!ConcurrencyGovernor.isEnabled()) {
+            return timed(() -> createLocalDriver(normalizedBrowser));
+        }
+        ConcurrencyGovernor.acquire();
+        try {
+            WebDriver driver = timed(() -> createLocalDriver(normalizedBrowser));
+            ConcurrencyGovernor.register(driver);
+            return driver;
+        } catch (RuntimeException e) {
+            ConcurrencyGovernor.abandon();
+            throw e;
+        }
+    }
+
+    /**
+     * Quit driver + trả browser slot cho ConcurrencyGovernor.
+     * Framework code nên quit qua hàm này thay vì driver.quit().
+     */
+    public static void quitDriver(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            NetworkArchive.detach(driver);
+            RequestBlocker.detach(driver);
+            driver.quit();
+        } finally {
+            ConcurrencyGovernor.release(driver);
+        }
+    }
+
+    // [METRICS] Thời gian launch browser (so sánh với session.reset.ms)
+    private static WebDriver timed(java.util.function.Supplier<WebDriver> creator) {
+        long start = System.currentTimeMillis();
+        WebDriver driver = creator.get();
+        FrameworkMetrics.recordForTest(METRIC_CREATE, System.currentTimeMillis() - start);
+        try {
+            // [RESET] window gốc để SessionResetter giữ lại khi soft reset
+            SessionResetter.rememberMainWindow(driver);
+            // [NET-ARCHIVE] record / replay (no-op khi network.archive.mode=off)
+            NetworkArchive.attach(driver);
+            // [BLOCK] chặn analytics / font / ads (no-op khi network.block.enabled=false)
+            RequestBlocker.attach(driver);
+            // [NET-IDLE] instrumentation fetch / XHR cho mọi document (wait.network.idle.preinstall)
+            NetworkIdle.attach(driver);
+        } catch (RuntimeException e) {
+            // Browser đã chạy → quit ngay, không để process mồ côi
+            // (permit governor được createDriver trả qua abandon())
+            discard(driver, e);
+            throw new DriverCreationException("Session created but framework setup failed: " + e.getMessage(), e);
+        }
+        return driver;
+    }
+
+    private static void discard(WebDriver driver, RuntimeException cause) {
+        try {
+            NetworkArchive.detach(driver);
+            RequestBlocker.detach(driver);
+            driver.quit();
+        } catch (RuntimeException quitError) {
+            cause.addSuppressed(quitError);
+        }
     }
 
     /**
@@ -107,29 +185,117 @@ public class DriverFactory {
 
     private static WebDriver createLocalDriver(String browser) {
         try {
+            // [SERVICE] driver.service.shared=true → dùng chung 1 driver process / browser
+            if (DriverServiceManager.isEnabled()) {
+                return createSharedServiceDriver(browser);
+            }
+
+            // [CACHE] driver.cache.enabled / driver.offline → bỏ qua Selenium Manager khi đã có cache
+            if (DriverBinaryCache.isEnabled()) {
+                return createCachedBinaryDriver(browser);
+            }
+
             switch (browser) {
                 case "chrome":
-                    return new ChromeDriver();
+                    return new ChromeDriver(buildChromeOptions());
 
                 case "edge":
-                    return new EdgeDriver();
+                    return new EdgeDriver(buildEdgeOptions());
 
                 case "firefox":
-                    return new FirefoxDriver();
+                    return new FirefoxDriver(buildFirefoxOptions());
 
                 default:
                     // Should never reach here due to validation
                     throw new InvalidBrowserException("Unsupported browser: " + browser);
             }
         } catch (Exception e) {
-            if (e instanceof InvalidBrowserException) {
-                throw e; // Re-throw custom exception
+            if (e instanceof AutomationException) {
+                throw e; // Re-throw custom exception (InvalidBrowser, offline DriverCreation...)
             }
             throw new DriverCreationException(
                 String.format("Failed to create local %s driver. Ensure driver is in PATH or configured correctly.", browser), e);
         }
     }
 
+    /**
+     * Driver với executable/browser path lấy từ DriverBinaryCache
+     * (service đã có executable → ChromeDriver không gọi Selenium Manager nữa)
+     */
+    private static WebDriver createCachedBinaryDriver(String browser) {
+        DriverBinaryCache.Resolution resolution;
+        switch (browser) {
+            case "chrome": {
+                ChromeOptions options = buildChromeOptions();
+                ChromeDriverService service = new ChromeDriverService.Builder().build();
+                resolution = DriverBinaryCache.resolve(browser, service, options);
+                service.setExecutable(resolution.getDriverPath());
+                if (resolution.getBrowserPath() != null) {
+                    options.setBinary(resolution.getBrowserPath());
+                }
+                return new ChromeDriver(service, options);
+            }
+            case "edge": {
+                EdgeOptions options = buildEdgeOptions();
+                EdgeDriverService service = new EdgeDriverService.Builder().build();
+                resolution = DriverBinaryCache.resolve(browser, service, options);
+                service.setExecutable(resolution.getDriverPath());
+                if (resolution.getBrowserPath() != null) {
+                    options.setBinary(resolution.getBrowserPath());
+                }
+                return new EdgeDriver(service, options);
+            }
+            case "firefox": {
+                FirefoxOptions options = buildFirefoxOptions();
+                GeckoDriverService service = new GeckoDriverService.Builder().build();
+                resolution = DriverBinaryCache.resolve(browser, service, options);
+                service.setExecutable(resolution.getDriverPath());
+                if (resolution.getBrowserPath() != null) {
+                    options.setBinary(resolution.getBrowserPath());
+                }
+                return new FirefoxDriver(service, options);
+            }
+            default:
+                throw new InvalidBrowserException("Unsupported browser: " + browser);
+        }
+    }
+
+    /**
+     * Session mới trên shared DriverService (không spawn process mới).
+     * Augmenter bổ sung HasCdp/HasBiDi... giống ChromeDriver/EdgeDriver gốc.
+     */
+    private static WebDriver createSharedServiceDriver(String browser) {
+        DriverServiceManager.SharedService service;
+        switch (browser) {
+            case "chrome": {
+                ChromeOptions options = buildChromeOptions();
+                service = DriverServiceManager.getOrStart(browser, options);
+                if (service.getBrowserPath() != null) {
+                    options.setBinary(service.getBrowserPath());
+                }
+                return new Augmenter().augment(newRemoteWebDriver(service.getUrl(), options));
+            }
+            case "edge": {
+                EdgeOptions options = buildEdgeOptions();
+                service = DriverServiceManager.getOrStart(browser, options);
+                if (service.getBrowserPath() != null) {
+                    options.setBinary(service.getBrowserPath());
+                }
+                return new Augmenter().augment(newRemoteWebDriver(service.getUrl(), options));
+            }
+            case "firefox": {
+                FirefoxOptions options = buildFirefoxOptions();
+                service = DriverServiceManager.getOrStart(browser, options);
+                if (service.getBrowserPath() != null) {
+                    options.setBinary(service.getBrowserPath());
+                }
+                return new Augmenter().augment(newRemoteWebDriver(service.getUrl(), options));
+            }
+            default:
+                throw new InvalidBrowserException("Unsupported browser: " + browser);
+        }
+    }
+
     /*
      * ======================
      * REMOTE DRIVER (GRID)
@@ -144,121 +310,132 @@ public class DriverFactory {
         }
 
         try {
+            URL url = URI.create(gridUrl).toURL();
+            MutableCapabilities options;
             switch (browser) {
                 case "firefox":
-                    return new RemoteWebDriver(
-                            URI.create(gridUrl).toURL(),
-                            getFirefoxOptions(os));
+                    options = getFirefoxOptions(os);
+                    break;
                 case "edge":
-                    return new RemoteWebDriver(
-                            URI.create(gridUrl).toURL(),
-                            getEdgeOptions(os));
+                    options = getEdgeOptions(os);
+                    break;
                 case "chrome":
                 default:
-                    return new RemoteWebDriver(
-                            URI.create(gridUrl).toURL(),
-                            getChromeOptions(os));
+                    options = getChromeOptions(os);
+                    break;
+            }
+
+            // [GRID-QUEUE] Chờ slot trống phía client thay vì dồn request lên Grid
+            if (GridScheduler.isEnabled()) {
+                return GridScheduler.getInstance().schedule(
+                        options.getBrowserName(), resolvePlatform(os), () -> newRemoteWebDriver(url, options));
             }
+            return newRemoteWebDriver(url, options);
         } catch (java.net.MalformedURLException e) {
             throw new InvalidConfigException(
                 String.format("Invalid Grid URL: '%s'. Expected format: http://host:port", gridUrl), e);
+        } catch (AutomationException e) {
+            throw e;
         } catch (Exception e) {
             throw new GridConnectionException(
                 String.format("Failed to connect to Selenium Grid at '%s'. Ensure Grid is running and accessible.", gridUrl), e);
         }
     }
 
+    // [HTTP] remote.http.tuned=true → keep-alive pool + timeout theo command class + latency histogram
+    private static RemoteWebDriver newRemoteWebDriver(URL url, Capabilities options) {
+        if (RemoteHttpClientFactory.isEnabled()) {
+            return new RemoteWebDriver(RemoteHttpClientFactory.createExecutor(url), options);
+        }
+        return new RemoteWebDriver(url, options);
+    }
+
     /*
      * ======================
      * OPTIONS
      * ======================
      */
 
-    private static ChromeOptions getChromeOptions(String os) {
-        ChromeOptions options = new ChromeOptions();
-
-        // 1. Xác định Platform dựa trên tham số os truyền vào
-        Platform platform;
-        if (os != null && os.toLowerCase().contains("mac")) {
-            platform = Platform.MAC;
-        } else if (os != null && os.toLowerCase().contains("lin")) {
-            platform = Platform.LINUX; // Bonus thêm Linux nếu cần
-        } else {
-            platform = Platform.WINDOWS; // Mặc định là Windows
-        }
-
-        // 2. Set capability platformName
-        options.setCapability("platformName", platform);
+    /*
+     * build*Options(): dùng chung cho local & grid
+     * → launch preset (browser.preset) + page load strategy áp dụng giống nhau ở cả 2 mode
+     */
 
-        // 3. Cấu hình Arguments (Lưu ý sự khác biệt giữa Mac và Win)
-        if (platform == Platform.MAC) {
-            // Trên Mac, --start-maximized thường không hoạt động ổn định
-            // Nên dùng --kiosk (fullscreen) hoặc set cứng kích thước
-            options.addArguments("--kiosk");
-            // Hoặc: options.addArguments("--window-size=1920,1080");
-        } else {
-            options.addArguments("--start-maximized");
-        }
+    private static ChromeOptions buildChromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        LaunchPreset.current().applyTo(options);
+        PageReadiness.applyTo(options);
+        return options;
+    }
 
+    private static EdgeOptions buildEdgeOptions() {
+        EdgeOptions options = new EdgeOptions();
+        LaunchPreset.current().applyTo(options);
+        PageReadiness.applyTo(options);
         return options;
     }
 
-    private static FirefoxOptions getFirefoxOptions(String os) {
+    private static FirefoxOptions buildFirefoxOptions() {
         FirefoxOptions options = new FirefoxOptions();
+        LaunchPreset.current().applyTo(options);
+        PageReadiness.applyTo(options);
+        return options;
+    }
 
-        // 1. Xác định Platform dựa trên tham số os truyền vào
-        Platform platform;
-        if (os != null && os.toLowerCase().contains("mac")) {
-            platform = Platform.MAC;
-        } else if (os != null && os.toLowerCase().contains("lin")) {
-            platform = Platform.LINUX; // Bonus thêm Linux nếu cần
-        } else {
-            platform = Platform.WINDOWS; // Mặc định là Windows
-        }
+    /*
+     * get*Options(os): Grid only → thêm platformName + window mặc định
+     */
 
-        // 2. Set capability platformName
+    private static ChromeOptions getChromeOptions(String os) {
+        ChromeOptions options = buildChromeOptions();
+        Platform platform = resolvePlatform(os);
         options.setCapability("platformName", platform);
+        addDefaultWindowArguments(options, platform);
+        return options;
+    }
 
-        // 3. Cấu hình Arguments (Lưu ý sự khác biệt giữa Mac và Win)
-        if (platform == Platform.MAC) {
-            // Trên Mac, --start-maximized thường không hoạt động ổn định
-            // Nên dùng --kiosk (fullscreen) hoặc set cứng kích thước
-            options.addArguments("--kiosk");
-            // Hoặc: options.addArguments("--window-size=1920,1080");
-        } else {
-            options.addArguments("--start-maximized");
+    private static FirefoxOptions getFirefoxOptions(String os) {
+        FirefoxOptions options = buildFirefoxOptions();
+        Platform platform = resolvePlatform(os);
+        options.setCapability("platformName", platform);
+        LaunchPreset preset = LaunchPreset.current();
+        if (!preset.hasFixedWindow() && preset != LaunchPreset.HEADED_DEBUG) {
+            options.addArguments(platform == Platform.MAC ? "--kiosk" : "--start-maximized");
         }
-
         return options;
     }
 
     private static EdgeOptions getEdgeOptions(String os) {
-        EdgeOptions options = new EdgeOptions();
+        EdgeOptions options = buildEdgeOptions();
+        Platform platform = resolvePlatform(os);
+        options.setCapability("platformName", platform);
+        addDefaultWindowArguments(options, platform);
+        return options;
+    }
 
-        // 1. Xác định Platform dựa trên tham số os truyền vào
-        Platform platform;
+    // 1. Xác định Platform dựa trên tham số os truyền vào
+    private static Platform resolvePlatform(String os) {
         if (os != null && os.toLowerCase().contains("mac")) {
-            platform = Platform.MAC;
+            return Platform.MAC;
         } else if (os != null && os.toLowerCase().contains("lin")) {
-            platform = Platform.LINUX; // Bonus thêm Linux nếu cần
-        } else {
-            platform = Platform.WINDOWS; // Mặc định là Windows
+            return Platform.LINUX; // Bonus thêm Linux nếu cần
         }
+        return Platform.WINDOWS; // Mặc định là Windows
+    }
 
-        // 2. Set capability platformName
-        options.setCapability("platformName", platform);
-
-        // 3. Cấu hình Arguments (Lưu ý sự khác biệt giữa Mac và Win)
+    // 2. Preset không cố định window size → giữ cách cũ (Lưu ý sự khác biệt giữa Mac và Win)
+    private static void addDefaultWindowArguments(ChromiumOptions<?> options, Platform platform) {
+        LaunchPreset preset = LaunchPreset.current();
+        if (preset.hasFixedWindow() || preset == LaunchPreset.HEADED_DEBUG) {
+            return; // preset đã set --window-size / --start-maximized
+        }
         if (platform == Platform.MAC) {
             // Trên Mac, --start-maximized thường không hoạt động ổn định
             // Nên dùng --kiosk (fullscreen) hoặc set cứng kích thước
             options.addArguments("--kiosk");
-            // Hoặc: options.addArguments("--window-size=1920,1080");
         } else {
             options.addArguments("--start-maximized");
         }
-
-        return options;
     }
 
 }
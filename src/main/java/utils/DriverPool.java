@@ -0,0 +1,318 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * =====================================================
+ * DriverPool - Warm WebDriver session pool
+ * =====================================================
+ * Browser launch dominates per-test wall time, so instead of
+ * create → quit for every test method the pool keeps sessions alive:
+ *
+ *   warmUp()  : pre-spawn N sessions per <test> block (resolved browser / os,
+ *               same key as lease; skipped when driver.pipeline.enabled=true)
+ *   lease()   : take an idle session (hit) or create one (miss)
+ *   release() : reset the session and put it back, or evict it
+ *   shutdown(): quit everything at suite end
+ *
+ * Eviction rules:
+ *   - Health check fails on lease (browser crashed / session gone)
+ *   - Session reached driver.pool.max.reuse
+ *   - Reset failed on release
+ *   - Idle queue already full
+ *   - Idle sessions (all keys) reached ConcurrencyGovernor.parkingLimit()
+ *     (an idle session holds a browser permit nobody can lease)
+ *
+ * Counters (FrameworkMetrics): driver.pool.hit / .miss / .eviction
+ *
+ * Config:
+ *   driver.pool.enabled=false
+ *   driver.pool.size=2
+ *   driver.pool.max.reuse=20
+ *
+ * Testable: useFactory(stub) replaces DriverFactory.createDriver
+ * (frameworkTests.DriverPool_Test, no browser needed)
+ *
+ * Thread-Safe: YES (one idle queue per browser|os|runMode key)
+ * =====================================================
+ */
+public class DriverPool {
+
+    private static final Logger logger = LogManager.getLogger(DriverPool.class);
+
+    public static final String METRIC_HIT = "driver.pool.hit";
+    public static final String METRIC_MISS = "driver.pool.miss";
+    public static final String METRIC_EVICTION = "driver.pool.eviction";
+
+    private static final Map<String, Deque<PooledSession>> IDLE = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, PooledSession> LEASED = new ConcurrentHashMap<>();
+
+    private static volatile boolean closed;
+
+    // Sessions are created through DriverFactory unless a test installs a stub
+    private static volatile SessionFactory factory = DriverFactory::createDriver;
+
+    private DriverPool() {
+    }
+
+    @FunctionalInterface
+    public interface SessionFactory {
+        WebDriver create(String browser, String os, String runMode);
+    }
+
+    /**
+     * Replace the session factory (null → DriverFactory.createDriver)
+     */
+    public static void useFactory(SessionFactory sessionFactory) {
+        factory = sessionFactory != null ? sessionFactory : DriverFactory::createDriver;
+    }
+
+    /*
+     * ======================
+     * CONFIG
+     * ======================
+     */
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.DRIVER_POOL_ENABLED, false);
+    }
+
+    private static int poolSize() {
+        return Math.max(1, ConfigReader.getInt(ConfigKeys.DRIVER_POOL_SIZE, 2));
+    }
+
+    private static int maxReuse() {
+        return Math.max(1, ConfigReader.getInt(ConfigKeys.DRIVER_POOL_MAX_REUSE, 20));
+    }
+
+    /*
+     * ======================
+     * WARM UP
+     * ======================
+     */
+
+    /**
+     * Pre-spawn sessions in parallel so the first tests already get a hit.
+     * Failures are logged only: the pool falls back to create-on-miss.
+     */
+    public static void warmUp(String browser, String os, String runMode) {
+        closed = false;
+        String key = keyOf(browser, os, runMode);
+
+        // BaseClass & BaseClassFlow both have @BeforeTest → only fill what is missing
+        int missing = poolSize() - idleQueue(key).size();
+        int parkable = ConcurrencyGovernor.parkingLimit() - totalIdle();
+        if (parkable < missing) {
+            logger.warn("[POOL] browser.concurrency budget is {} → warming {} instead of {} session(s) for {}",
+                    ConcurrencyGovernor.budget(), Math.max(0, parkable), missing, key);
+            missing = parkable;
+        }
+        if (missing <= 0) {
+            return;
+        }
+        logger.info("[POOL] Warming up {} session(s) for {}", missing, key);
+
+        ExecutorService executor = Executors.newFixedThreadPool(missing);
+        try {
+            List<Future<WebDriver>> futures = new ArrayList<>();
+            for (int i = 0; i < missing; i++) {
+                futures.add(executor.submit(() -> factory.create(browser, os, runMode)));
+            }
+            for (Future<WebDriver> future : futures) {
+                try {
+                    idleQueue(key).offerFirst(new PooledSession(key, future.get()));
+                } catch (Exception e) {
+                    logger.warn("[POOL] Warm-up session failed: {}", e.getMessage());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        logger.info("[POOL] Warm-up done: {} idle session(s) for {}", idleQueue(key).size(), key);
+    }
+
+    /*
+     * ======================
+     * LEASE / RELEASE
+     * ======================
+     */
+
+    /**
+     * Lease a healthy session for the given browser/os/runMode.
+     * Creates a new one through DriverFactory when the pool is empty.
+     */
+    public static WebDriver lease(String browser, String os, String runMode) {
+        String key = keyOf(browser, os, runMode);
+        Deque<PooledSession> idle = idleQueue(key);
+
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            if (isHealthy(session.driver)) {
+                FrameworkMetrics.increment(METRIC_HIT);
+                LEASED.put(session.driver, session);
+                logger.debug("[POOL] Hit {} (uses={})", key, session.uses);
+                return session.driver;
+            }
+            evict(session, "health check failed");
+        }
+
+        FrameworkMetrics.increment(METRIC_MISS);
+        logger.debug("[POOL] Miss {} → creating new session", key);
+        WebDriver driver = factory.create(browser, os, runMode);
+        LEASED.put(driver, new PooledSession(key, driver));
+        return driver;
+    }
+
+    /**
+     * Return a leased session. It is reset and kept for the next lease,
+     * or evicted (quit) when it cannot be reused.
+     * Drivers that were not leased from the pool are simply quit.
+     */
+    public static void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        PooledSession session = LEASED.remove(driver);
+        if (session == null) {
+            quitQuietly(driver);
+            return;
+        }
+
+        session.uses++;
+        if (closed) {
+            quitQuietly(driver);
+            return;
+        }
+        if (session.uses >= maxReuse()) {
+            evict(session, "max reuse reached (" + session.uses + ")");
+            return;
+        }
+        try {
+            SessionResetter.reset(driver);
+        } catch (Exception e) {
+            evict(session, "reset failed: " + e.getMessage());
+            return;
+        }
+
+        Deque<PooledSession> idle = idleQueue(session.key);
+        if (idle.size() >= poolSize()) {
+            evict(session, "idle queue full");
+            return;
+        }
+        if (totalIdle() >= ConcurrencyGovernor.parkingLimit()) {
+            evict(session, "browser.concurrency budget reached, keeping a permit free");
+            return;
+        }
+        idle.offerFirst(session);
+    }
+
+    /**
+     * Quit a leased session instead of returning it (e.g. it never reached
+     * a usable state). Drivers that were not leased from the pool are quit too.
+     */
+    public static void discard(WebDriver driver, String reason) {
+        if (driver == null) {
+            return;
+        }
+        PooledSession session = LEASED.remove(driver);
+        if (session == null) {
+            quitQuietly(driver);
+            return;
+        }
+        evict(session, reason);
+    }
+
+    /**
+     * Quit all idle sessions. Sessions still leased are quit on release.
+     */
+    public static void shutdown() {
+        closed = true;
+        IDLE.values().forEach(idle -> {
+            PooledSession session;
+            while ((session = idle.pollFirst()) != null) {
+                quitQuietly(session.driver);
+            }
+        });
+        logger.info("[POOL] Shutdown. hit={}, miss={}, eviction={}",
+                FrameworkMetrics.getCount(METRIC_HIT),
+                FrameworkMetrics.getCount(METRIC_MISS),
+                FrameworkMetrics.getCount(METRIC_EVICTION));
+    }
+
+    /**
+     * Idle sessions currently parked for the given key
+     */
+    public static int idleCount(String browser, String os, String runMode) {
+        Deque<PooledSession> idle = IDLE.get(keyOf(browser, os, runMode));
+        return idle == null ? 0 : idle.size();
+    }
+
+    /*
+     * ======================
+     * HELPERS
+     * ======================
+     */
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void evict(PooledSession session, String reason) {
+        FrameworkMetrics.increment(METRIC_EVICTION);
+        logger.info("[POOL] Evict session of {}: {}", session.key, reason);
+        quitQuietly(session.driver);
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            DriverFactory.quitDriver(driver);
+        } catch (Exception e) {
+            logger.debug("[POOL] Ignored error on quit: {}", e.getMessage());
+        }
+    }
+
+    private static int totalIdle() {
+        return IDLE.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    private static Deque<PooledSession> idleQueue(String key) {
+        return IDLE.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+    }
+
+    private static String keyOf(String browser, String os, String runMode) {
+        return normalize(browser) + "|" + normalize(os) + "|" + normalize(runMode);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase();
+    }
+
+    private static final class PooledSession {
+        private final String key;
+        private final WebDriver driver;
+        private int uses;
+
+        private PooledSession(String key, WebDriver driver) {
+            this.key = key;
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import utils.exceptions.DriverCreationException;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * =====================================================
+ * DriverProvisioner - Pipelined driver provisioning
+ * =====================================================
+ * BaseClass mặc định chạy tuần tự trên TestNG thread:
+ *   quit() test N → createDriver() → get(baseUrl) → test N+1
+ *
+ * Pipeline (driver.pipeline.enabled=true):
+ *   - Session kế tiếp được tạo + chuẩn bị (navigate baseUrl)
+ *     trên background executor trong lúc test hiện tại chạy
+ *   - setUp chỉ lấy session đã sẵn sàng (take)
+ *   - Session cũ quit bất đồng bộ (retire)
+ *
+ * driver.pipeline.depth = số session chuẩn bị trước
+ * (nên >= thread-count khi chạy parallel; governor bật → clamp về
+ * ConcurrencyGovernor.parkingLimit(), tối thiểu 1)
+ *
+ * Metric: "setup.ms" (per test, ghi bởi BaseClass),
+ *         "driver.pipeline.wait.ms" = thời gian setUp còn phải chờ
+ * Metric per-test ghi trên provisioning thread (driver.create.ms,
+ * driver.queue.wait.ms, grid.*) đi kèm Future → take() gán cho test
+ * lấy session (TestNG thread), không nằm lại ThreadLocal của executor.
+ *
+ * Thread-Safe: YES
+ * =====================================================
+ */
+public class DriverProvisioner {
+
+    private static final Logger logger = LogManager.getLogger(DriverProvisioner.class);
+
+    public static final String METRIC_WAIT = "driver.pipeline.wait.ms";
+
+    private static final Map<String, Queue<Future<Provisioned>>> READY = new ConcurrentHashMap<>();
+
+    private static ExecutorService provisionExecutor;
+    private static ExecutorService quitExecutor;
+
+    private DriverProvisioner() {
+    }
+
+    /*
+     * ======================
+     * CONFIG
+     * ======================
+     */
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.DRIVER_PIPELINE_ENABLED, false);
+    }
+
+    private static int depth() {
+        int depth = Math.max(1, ConfigReader.getInt(ConfigKeys.DRIVER_PIPELINE_DEPTH, 1));
+        // Session chuẩn bị trước giữ permit → không để chúng chiếm hết budget
+        return Math.max(1, Math.min(depth, ConcurrencyGovernor.parkingLimit()));
+    }
+
+    /*
+     * ======================
+     * TAKE / RETIRE
+     * ======================
+     */
+
+    /**
+     * Lấy 1 session đã được tạo + chuẩn bị sẵn.
+     * Đồng thời submit session thay thế để test kế tiếp không phải chờ.
+     *
+     * @param preparer bước chuẩn bị chạy ở background (maximize, navigate...)
+     */
+    public static WebDriver take(String browser, String os, String runMode, Consumer<WebDriver> preparer) {
+        String key = browser + "|" + os + "|" + runMode;
+        Queue<Future<Provisioned>> queue = READY.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>());
+
+        // Giữ "depth" session đang chuẩn bị SAU khi lấy 1 cái
+        topUp(queue, depth() + 1, browser, os, runMode, preparer);
+
+        long start = System.currentTimeMillis();
+        Future<Provisioned> future = queue.poll();
+        Provisioned provisioned = awaitOrCreate(future, browser, os, runMode, preparer);
+        long waited = System.currentTimeMillis() - start;
+
+        FrameworkMetrics.attributeToTest(provisioned.testValues);
+        FrameworkMetrics.recordForTest(METRIC_WAIT, waited);
+        logger.debug("[PIPELINE] Took session for {} (waited {} ms)", key, waited);
+        return provisioned.driver;
+    }
+
+    /**
+     * Quit session cũ ở background (không chặn TestNG thread)
+     */
+    public static void retire(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        quitExecutor().submit(() -> quitQuietly(driver));
+    }
+
+    /**
+     * Huỷ các session đã chuẩn bị nhưng chưa dùng + chờ các quit đang chạy.
+     */
+    public static synchronized void shutdown() {
+        READY.values().forEach(queue -> {
+            Future<Provisioned> future;
+            while ((future = queue.poll()) != null) {
+                try {
+                    quitQuietly(future.get(60, TimeUnit.SECONDS).driver);
+                } catch (Exception e) {
+                    future.cancel(true);
+                }
+            }
+        });
+        READY.clear();
+
+        if (provisionExecutor != null) {
+            provisionExecutor.shutdownNow();
+            provisionExecutor = null;
+        }
+        if (quitExecutor != null) {
+            quitExecutor.shutdown();
+            try {
+                quitExecutor.awaitTermination(60, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            quitExecutor = null;
+        }
+    }
+
+    /*
+     * ======================
+     * HELPERS
+     * ======================
+     */
+
+    private static void topUp(Queue<Future<Provisioned>> queue, int target,
+                              String browser, String os, String runMode, Consumer<WebDriver> preparer) {
+        synchronized (queue) {
+            while (queue.size() < target) {
+                queue.offer(provisionExecutor().submit(() -> provisionInBackground(browser, os, runMode, preparer)));
+            }
+        }
+    }
+
+    /**
+     * Chạy trên provisioning thread: metric per-test ghi trong lúc tạo session
+     * được gom lại để take() gán cho test thật
+     */
+    private static Provisioned provisionInBackground(String browser, String os, String runMode,
+                                                     Consumer<WebDriver> preparer) {
+        // Bỏ giá trị sót lại trên thread này (lần provision trước thất bại)
+        FrameworkMetrics.drainTestValues();
+        WebDriver driver = provision(browser, os, runMode, preparer);
+        return new Provisioned(driver, FrameworkMetrics.drainTestValues());
+    }
+
+    private static WebDriver provision(String browser, String os, String runMode, Consumer<WebDriver> preparer) {
+        WebDriver driver = DriverFactory.createDriver(browser, os, runMode);
+        try {
+            preparer.accept(driver);
+            return driver;
+        } catch (RuntimeException e) {
+            quitQuietly(driver);
+            throw e;
+        }
+    }
+
+    private static Provisioned awaitOrCreate(Future<Provisioned> future,
+                                             String browser, String os, String runMode, Consumer<WebDriver> preparer) {
+        if (future != null) {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DriverCreationException("Interrupted while waiting for a provisioned session", e);
+            } catch (ExecutionException e) {
+                logger.warn("[PIPELINE] Background provisioning failed, creating session inline: {}",
+                        e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+        }
+        // Inline trên TestNG thread → metric đã ghi thẳng cho test hiện tại
+        return new Provisioned(provision(browser, os, runMode, preparer), Map.of());
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            DriverFactory.quitDriver(driver);
+        } catch (Exception e) {
+            logger.debug("[PIPELINE] Ignored error on quit: {}", e.getMessage());
+        }
+    }
+
+    private static synchronized ExecutorService provisionExecutor() {
+        if (provisionExecutor == null) {
+            int configured = ConfigReader.getInt(ConfigKeys.DRIVER_PIPELINE_DEPTH, 1);
+            if (depth() < configured) {
+                logger.warn("[PIPELINE] browser.concurrency budget is {} → driver.pipeline.depth clamped {} → {}",
+                        ConcurrencyGovernor.budget(), configured, depth());
+            }
+            provisionExecutor = Executors.newFixedThreadPool(depth(), daemonThreads("driver-provision"));
+        }
+        return provisionExecutor;
+    }
+
+    private static synchronized ExecutorService quitExecutor() {
+        if (quitExecutor == null) {
+            quitExecutor = Executors.newCachedThreadPool(daemonThreads("driver-quit"));
+        }
+        return quitExecutor;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Provisioned {
+        private final WebDriver driver;
+        private final Map<String, Long> testValues;
+
+        private Provisioned(WebDriver driver, Map<String, Long> testValues) {
+            this.driver = driver;
+            this.testValues = testValues;
+        }
+    }
+}
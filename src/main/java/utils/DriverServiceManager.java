@@ -0,0 +1,155 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverService;
+import utils.exceptions.DriverCreationException;
+import utils.exceptions.InvalidBrowserException;
+
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * =====================================================
+ * DriverServiceManager - 1 driver process / browser / JVM
+ * =====================================================
+ * new ChromeDriver() mặc định:
+ *   - resolve binary qua Selenium Manager
+ *   - spawn 1 chromedriver process riêng
+ *   - quit() → stop process
+ * → với thread-count=5+ tốn thời gian spawn + file descriptors.
+ *
+ * Shared mode (driver.service.shared=true):
+ *   - Resolve (DriverBinaryCache) + start DriverService 1 lần cho mỗi browser
+ *   - Mọi session tạo qua RemoteWebDriver tới service URL
+ *     (quit() chỉ đóng session, KHÔNG stop service)
+ *   - stopAll() ở @AfterSuite (+ shutdown hook phòng khi JVM bị kill)
+ *
+ * Thread-Safe: YES
+ * =====================================================
+ */
+public class DriverServiceManager {
+
+    private static final Logger logger = LogManager.getLogger(DriverServiceManager.class);
+
+    private static final Map<String, SharedService> SERVICES = new ConcurrentHashMap<>();
+
+    private static volatile boolean shutdownHookRegistered;
+
+    private DriverServiceManager() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.DRIVER_SERVICE_SHARED, false);
+    }
+
+    /**
+     * Lấy (hoặc start lần đầu) service dùng chung cho browser.
+     *
+     * @param browser chrome / edge / firefox (normalized)
+     * @param options options của session đầu tiên (dùng để resolve driver/browser path)
+     * @return service đang chạy + browser binary path (null nếu dùng browser hệ thống)
+     */
+    public static synchronized SharedService getOrStart(String browser, Capabilities options) {
+        SharedService shared = SERVICES.get(browser);
+        if (shared != null && shared.service.isRunning()) {
+            return shared;
+        }
+
+        DriverService service = createService(browser);
+        try {
+            long start = System.currentTimeMillis();
+
+            // Selenium Manager hoặc cache trên disk (driver.cache.enabled / driver.offline)
+            DriverBinaryCache.Resolution resolution = DriverBinaryCache.resolve(browser, service, options);
+            service.setExecutable(resolution.getDriverPath());
+
+            service.start();
+            shared = new SharedService(service, resolution.getBrowserPath());
+            SERVICES.put(browser, shared);
+            registerShutdownHook();
+
+            logger.info("[SERVICE] Started shared {} driver service at {} in {} ms",
+                    browser, service.getUrl(), System.currentTimeMillis() - start);
+            return shared;
+        } catch (DriverCreationException e) {
+            throw e;
+        } catch (Exception e) {
+            service.stop();
+            throw new DriverCreationException(
+                String.format("Failed to start shared %s driver service.", browser), e);
+        }
+    }
+
+    /**
+     * Stop tất cả service (gọi ở @AfterSuite)
+     */
+    public static synchronized void stopAll() {
+        SERVICES.forEach((browser, shared) -> {
+            try {
+                shared.service.stop();
+                logger.info("[SERVICE] Stopped shared {} driver service", browser);
+            } catch (Exception e) {
+                logger.warn("[SERVICE] Cannot stop {} driver service: {}", browser, e.getMessage());
+            }
+        });
+        SERVICES.clear();
+    }
+
+    /*
+     * ======================
+     * HELPERS
+     * ======================
+     */
+
+    private static DriverService createService(String browser) {
+        switch (browser) {
+            case "chrome":
+                return new ChromeDriverService.Builder().usingAnyFreePort().build();
+            case "edge":
+                return new EdgeDriverService.Builder().usingAnyFreePort().build();
+            case "firefox":
+                return new GeckoDriverService.Builder().usingAnyFreePort().build();
+            default:
+                throw new InvalidBrowserException("Unsupported browser: " + browser);
+        }
+    }
+
+    private static void registerShutdownHook() {
+        if (!shutdownHookRegistered) {
+            Runtime.getRuntime().addShutdownHook(new Thread(DriverServiceManager::stopAll));
+            shutdownHookRegistered = true;
+        }
+    }
+
+    /*
+     * ======================
+     * SHARED SERVICE
+     * ======================
+     */
+
+    public static final class SharedService {
+        private final DriverService service;
+        private final String browserPath;
+
+        private SharedService(DriverService service, String browserPath) {
+            this.service = service;
+            this.browserPath = browserPath;
+        }
+
+        public URL getUrl() {
+            return service.getUrl();
+        }
+
+        public String getBrowserPath() {
+            return browserPath;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.function.Supplier;
+
+/**
+ * =====================================================
+ * ElementDescription - Mô tả element cho log, tính khi cần
+ * =====================================================
+ * describe() cũ = 3 round-trip (getTagName, getAttribute("id"), getText),
+ * chạy ngay cả khi log level tắt (tham số được tính trước khi gọi logger).
+ *
+ * Object này:
+ *   - Lazy: Log4j chỉ gọi toString() khi event thực sự được ghi
+ *     → DEBUG tắt = 0 round-trip
+ *   - 1 script thay 3 command, kết quả giống hệt describe() cũ:
+ *       "<button>[id=login]" / "<a>[text=Continue]" / "<input>"
+ *   - Memo: 1 object / element / action → log nhiều lần vẫn 1 lần tính
+ *   - seed(): mô tả đã có sẵn (vd: từ ActionScripts.prepare) → 0 round-trip
+ *
+ * Dùng cho message của RetryUtil: RetryUtil.retry(action, () -> "Click " + description)
+ *
+ * Counter: element.describe.resolved (số lần thực sự gọi browser)
+ * =====================================================
+ */
+public final class ElementDescription implements Supplier<String> {
+
+    public static final String METRIC_RESOLVED = "element.describe.resolved";
+
+    private static final String FALLBACK = "<element>";
+
+    // Dùng chung với ActionScripts (cùng format)
+    static final String DESCRIBE_FUNCTION =
+            "function __thDescribe(el) {"
+            + "  var tag = el.tagName.toLowerCase(), text = (el.innerText || '').trim();"
+            + "  return el.id ? '<' + tag + '>[id=' + el.id + ']'"
+            + "      : text ? '<' + tag + '>[text=' + text + ']' : '<' + tag + '>';"
+            + "}";
+
+    private static final String DESCRIBE_SCRIPT = DESCRIBE_FUNCTION + "return __thDescribe(arguments[0]);";
+
+    private final WebDriver driver;
+    private final WebElement element;
+    private volatile String value;
+
+    private ElementDescription(WebDriver driver, WebElement element) {
+        this.driver = driver;
+        this.element = element;
+    }
+
+    public static ElementDescription of(WebDriver driver, WebElement element) {
+        return new ElementDescription(driver, element);
+    }
+
+    /**
+     * Dùng mô tả đã biết (bỏ qua nếu đã tính / description null)
+     */
+    public ElementDescription seed(String description) {
+        if (value == null && description != null) {
+            value = description;
+        }
+        return this;
+    }
+
+    public boolean isResolved() {
+        return value != null;
+    }
+
+    @Override
+    public String get() {
+        String result = value;
+        if (result == null) {
+            result = resolve();
+            value = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return get();
+    }
+
+    private String resolve() {
+        if (element == null) {
+            return FALLBACK;
+        }
+        FrameworkMetrics.increment(METRIC_RESOLVED);
+        try {
+            if (driver instanceof JavascriptExecutor) {
+                Object result = ((JavascriptExecutor) driver).executeScript(DESCRIBE_SCRIPT, element);
+                return result == null ? FALLBACK : String.valueOf(result);
+            }
+            // Không có JS → 3 command như cũ
+            String tag = element.getTagName();
+            String id = element.getAttribute("id");
+            String text = element.getText();
+            if (id != null && !id.isEmpty()) {
+                return "<" + tag + ">[id=" + id + "]";
+            }
+            if (text != null && !text.isEmpty()) {
+                return "<" + tag + ">[text=" + text + "]";
+            }
+            return "<" + tag + ">";
+        } catch (Exception e) {
+            return FALLBACK;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import java.text.SimpleDateFormat;
 import java.util.Arrays; // [NEW] Import để log mảng dữ liệu (parameters)
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ====================================================
@@ -118,6 +119,7 @@ public class ExtentReportManager implements ITestListener {
         
         // [NEW] Gọi hàm log tham số đầu vào (ví dụ: login với user nào)
         logTestParams(result); 
+        logTestMetrics();
         
         EXTENT_TEST.get().log(Status.PASS, result.getMethod().getMethodName() + " PASSED");
     }
@@ -126,6 +128,7 @@ public class ExtentReportManager implements ITestListener {
     public void onTestFailure(ITestResult result) {
         ExtentTest test = EXTENT_TEST.get();
         logTestParams(result); // Log tham số (nếu có)
+        logTestMetrics();
 
         test.log(Status.FAIL, result.getMethod().getMethodName() + " FAILED");
         test.log(Status.FAIL, result.getThrowable());
@@ -138,7 +141,10 @@ public class ExtentReportManager implements ITestListener {
                 driver = ((BaseClass) currentClass).getDriver();
             }
 
-            if (driver != null) {
+            if (driver != null && !LazyWebDriver.isMaterialized(driver)) {
+                // [LAZY] Test fail trước khi dùng browser → không tạo session chỉ để chụp ảnh
+                test.log(Status.INFO, "No screenshot: browser was never started for this test.");
+            } else if (driver != null) {
                 // --- SCREENSHOT ---
                 // Bước 1: Chụp và lưu file ảnh vào folder (để backup)
                 ScreenshotUtil.captureViewport(driver, result.getMethod().getMethodName()); // Backup to disk
@@ -217,6 +223,7 @@ public class ExtentReportManager implements ITestListener {
         // [VIDEO RECORDING] Stop và XOÁ video vì test SKIPPED
         VideoManager.stopRecording(false);
         
+        logTestMetrics();
         EXTENT_TEST.get().log(Status.SKIP, result.getMethod().getMethodName() + " SKIPPED");
         if (result.getThrowable() != null) {
             EXTENT_TEST.get().log(Status.SKIP, result.getThrowable());
@@ -225,6 +232,18 @@ public class ExtentReportManager implements ITestListener {
 
     @Override
     public void onFinish(ITestContext context) {
+        // [METRICS] Framework counters (driver pool, reset, ...) → System Info
+        FrameworkMetrics.snapshot().forEach((name, value) -> extent.setSystemInfo("[Metric] " + name, value));
+        // [ADAPTIVE WAIT] Timeout / polling học từ lịch sử + lý do
+        WaitHistory.explainAll().forEach((key, explanation) -> extent.setSystemInfo("[Wait] " + key, explanation));
+        // [STRATEGY-CACHE] Hit ratio + thời gian lookup của smart finder
+        String finderSummary = StrategyCache.summary();
+        if (finderSummary != null) {
+            extent.setSystemInfo("[Finder] strategy cache", finderSummary);
+        }
+        // [HEAL] Field đã heal + locator gợi ý
+        LocatorHealing.healedAll().forEach((field, suggestion) -> extent.setSystemInfo("[Heal] " + field, suggestion));
+
         extent.flush();
         EXTENT_TEST.remove();
 
@@ -248,6 +267,21 @@ public class ExtentReportManager implements ITestListener {
         }
     }
 
+    // [METRICS] Helper Method: Log các giá trị đo được trong lúc chạy test (setup time, wait time...)
+    private void logTestMetrics() {
+        RequestBlocker.endTest();
+        Map<String, Long> metrics = FrameworkMetrics.drainTestValues();
+        if (!metrics.isEmpty() && EXTENT_TEST.get() != null) {
+            EXTENT_TEST.get().info("Framework Metrics: " + metrics);
+        }
+        // [HEAL] Test chạy trên locator đã heal → WARNING (có thể thao tác nhầm element)
+        for (String heal : LocatorHealing.drainTestHeals()) {
+            if (EXTENT_TEST.get() != null) {
+                EXTENT_TEST.get().log(Status.WARNING, "[Heal] " + heal);
+            }
+        }
+    }
+
     // [NEW] Helper Method: Kiểm tra xem code có đang chạy trên môi trường CI (Jenkins, GitLab...) không
     private boolean isRunningOnCI() {
         // Hầu hết các hệ thống CI đều có biến môi trường "CI" hoặc "JENKINS_URL"
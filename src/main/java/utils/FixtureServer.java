@@ -0,0 +1,449 @@
+package utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.exceptions.AutomationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * =====================================================
+ * FixtureServer - Local snapshot của tutorialsninja demo
+ * =====================================================
+ * env=dev/staging/prod → mọi page load đi qua Internet
+ * (latency + availability của site bên ngoài).
+ *
+ * env=local → BaseClass start server này ở @BeforeSuite:
+ *   - Serve snapshot (resources/fixtures/tutorialsninja/*.html) của
+ *     home, login, register, success, account, edit, logout
+ *   - Form hoạt động thật (in-memory): login / register / edit / logout,
+ *     session qua cookie OCSESSID, account mặc định = email/password trong config
+ *   - Set System property base.url.local / login.url.local / account.url.local
+ *     theo port thực tế → ConfigReader.getBaseUrl() / getLoginUrl() trỏ về đây
+ *
+ * Snapshot giữ nguyên markup của các element page object dùng
+ * (id, label, linkText, class) - CSS/JS remote thay bằng inline.
+ *
+ * Config:
+ *   fixture.server.host=127.0.0.1 (grid: đổi thành IP mà node truy cập được)
+ *   fixture.server.port=0         (0 = port trống bất kỳ)
+ *
+ * Thread-Safe: YES
+ * =====================================================
+ */
+public class FixtureServer {
+
+    private static final Logger logger = LogManager.getLogger(FixtureServer.class);
+
+    private static final String CONTEXT = "/demo/";
+    private static final String FIXTURE_DIR = "fixtures/tutorialsninja/";
+    private static final String SESSION_COOKIE = "OCSESSID";
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+    private static String baseUrl;
+
+    private static final Map<String, String> TEMPLATES = new ConcurrentHashMap<>();
+    private static final Map<String, Customer> CUSTOMERS = new ConcurrentHashMap<>();
+    private static final Map<String, Session> SESSIONS = new ConcurrentHashMap<>();
+
+    private FixtureServer() {
+    }
+
+    /*
+     * ======================
+     * LIFECYCLE
+     * ======================
+     */
+
+    /**
+     * true khi env=local (server cần chạy cho suite)
+     */
+    public static boolean isRequired() {
+        return "local".equalsIgnoreCase(ConfigReader.get(ConfigKeys.ENV));
+    }
+
+    /**
+     * Start (idempotent) và trả về base URL, vd: http://127.0.0.1:54321/demo/
+     */
+    public static synchronized String start() {
+        if (server != null) {
+            return baseUrl;
+        }
+        String host = ConfigReader.get(ConfigKeys.FIXTURE_SERVER_HOST);
+        host = (host == null || host.isBlank()) ? "127.0.0.1" : host.trim();
+        int port = ConfigReader.getInt(ConfigKeys.FIXTURE_SERVER_PORT, 0);
+
+        try {
+            boolean loopback = "127.0.0.1".equals(host) || "localhost".equalsIgnoreCase(host);
+            server = HttpServer.create(
+                    loopback ? new InetSocketAddress(host, port) : new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            throw new AutomationException("Cannot start fixture server on port " + port, e);
+        }
+
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fixture-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(CONTEXT, FixtureServer::handle);
+        server.start();
+
+        seedDefaultCustomer();
+        baseUrl = "http://" + host + ":" + server.getAddress().getPort() + CONTEXT;
+
+        // System property > config.properties → ConfigReader tự trỏ về server
+        System.setProperty(ConfigKeys.BASE_URL_LOCAL, baseUrl);
+        System.setProperty(ConfigKeys.LOGIN_URL_LOCAL, baseUrl + "index.php?route=account/login");
+        System.setProperty(ConfigKeys.ACCOUNT_URL_LOCAL, baseUrl + "index.php?route=account/account");
+
+        logger.info("[FIXTURE] Serving tutorialsninja snapshot at {}", baseUrl);
+        return baseUrl;
+    }
+
+    public static synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        SESSIONS.clear();
+        logger.info("[FIXTURE] Stopped");
+    }
+
+    private static void seedDefaultCustomer() {
+        String email = ConfigReader.get("email");
+        String password = ConfigReader.get("password");
+        if (email != null && password != null) {
+            CUSTOMERS.putIfAbsent(email.toLowerCase(), new Customer("Pavan", "Kumar", email, "0123456789", password));
+        }
+    }
+
+    /*
+     * ======================
+     * ROUTING (index.php?route=...)
+     * ======================
+     */
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+            Map<String, String> form = "POST".equalsIgnoreCase(exchange.getRequestMethod())
+                    ? parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8))
+                    : Map.of();
+            Session session = session(exchange);
+            String route = query.getOrDefault("route", "common/home");
+            boolean post = "POST".equalsIgnoreCase(exchange.getRequestMethod());
+
+            switch (route) {
+                case "common/home":
+                    page(exchange, session, "Your Store", "home", Map.of());
+                    break;
+                case "account/login":
+                    if (session.customer != null) {
+                        redirect(exchange, "account/account");
+                    } else if (post) {
+                        login(exchange, session, form);
+                    } else {
+                        page(exchange, session, "Account Login", "login", Map.of("email", ""));
+                    }
+                    break;
+                case "account/register":
+                    if (post) {
+                        register(exchange, session, form);
+                    } else {
+                        page(exchange, session, "Register Account", "register", Map.of());
+                    }
+                    break;
+                case "account/success":
+                    page(exchange, session, "Your Account Has Been Created!", "success", Map.of());
+                    break;
+                case "account/account":
+                    if (requireLogin(exchange, session)) {
+                        String flash = session.flash;
+                        session.flash = null;
+                        page(exchange, session, "My Account", "account",
+                                Map.of("alert", flash == null ? "" : alert("success", flash)));
+                    }
+                    break;
+                case "account/edit":
+                    if (requireLogin(exchange, session)) {
+                        if (post) {
+                            edit(exchange, session, form);
+                        } else {
+                            Customer c = session.customer;
+                            page(exchange, session, "My Account Information", "edit", Map.of(
+                                    "firstname", escape(c.firstName), "lastname", escape(c.lastName),
+                                    "email", escape(c.email), "telephone", escape(c.telephone)));
+                        }
+                    }
+                    break;
+                case "account/logout":
+                    session.customer = null;
+                    page(exchange, session, "Account Logout", "logout", Map.of());
+                    break;
+                default:
+                    send(exchange, 404, render(session, "Page Not Found!", "not_found", Map.of()));
+                    break;
+            }
+        } catch (Exception e) {
+            logger.warn("[FIXTURE] Error on {}: {}", exchange.getRequestURI(), e.getMessage());
+            send(exchange, 500, "Fixture server error: " + escape(String.valueOf(e.getMessage())));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /*
+     * ======================
+     * FORMS
+     * ======================
+     */
+
+    private static void login(HttpExchange exchange, Session session, Map<String, String> form) throws IOException {
+        String email = form.getOrDefault("email", "").trim();
+        Customer customer = CUSTOMERS.get(email.toLowerCase());
+        if (customer == null || !customer.password.equals(form.getOrDefault("password", ""))) {
+            page(exchange, session, "Account Login", "login", Map.of(
+                    "email", escape(email),
+                    "alert", alert("danger", "Warning: No match for E-Mail Address and/or Password.")));
+            return;
+        }
+        session.customer = customer;
+        redirect(exchange, "account/account");
+    }
+
+    private static void register(HttpExchange exchange, Session session, Map<String, String> form) throws IOException {
+        String email = form.getOrDefault("email", "").trim();
+        String error = null;
+        if (!"1".equals(form.get("agree"))) {
+            error = "Warning: You must agree to the Privacy Policy!";
+        } else if (email.isEmpty() || CUSTOMERS.containsKey(email.toLowerCase())) {
+            error = "Warning: E-Mail Address is already registered!";
+        } else if (!form.getOrDefault("password", "").equals(form.getOrDefault("confirm", ""))) {
+            error = "Password confirmation does not match password!";
+        }
+        if (error != null) {
+            page(exchange, session, "Register Account", "register", Map.of("alert", alert("danger", error)));
+            return;
+        }
+
+        Customer customer = new Customer(form.getOrDefault("firstname", ""), form.getOrDefault("lastname", ""),
+                email, form.getOrDefault("telephone", ""), form.getOrDefault("password", ""));
+        CUSTOMERS.put(email.toLowerCase(), customer);
+        session.customer = customer;
+        redirect(exchange, "account/success");
+    }
+
+    private static void edit(HttpExchange exchange, Session session, Map<String, String> form) throws IOException {
+        Customer customer = session.customer;
+        customer.firstName = form.getOrDefault("firstname", customer.firstName);
+        customer.lastName = form.getOrDefault("lastname", customer.lastName);
+        customer.telephone = form.getOrDefault("telephone", customer.telephone);
+        session.flash = "Success: Your account has been successfully updated.";
+        redirect(exchange, "account/account");
+    }
+
+    private static boolean requireLogin(HttpExchange exchange, Session session) throws IOException {
+        if (session.customer == null) {
+            redirect(exchange, "account/login");
+            return false;
+        }
+        return true;
+    }
+
+    /*
+     * ======================
+     * RENDER
+     * ======================
+     */
+
+    private static void page(HttpExchange exchange, Session session, String title, String template,
+                             Map<String, String> values) throws IOException {
+        send(exchange, 200, render(session, title, template, values));
+    }
+
+    private static String render(Session session, String title, String template, Map<String, String> values) {
+        Map<String, String> all = new HashMap<>(values);
+        all.putIfAbsent("alert", "");
+        all.put("column_right", columnRight(session.customer != null));
+
+        String content = fill(template(template), all);
+        Map<String, String> layout = new HashMap<>();
+        layout.put("title", escape(title));
+        layout.put("account_menu", accountMenu(session.customer != null));
+        layout.put("content", content);
+        return fill(template("layout"), layout);
+    }
+
+    private static String fill(String template, Map<String, String> values) {
+        String result = template.replace("{{base}}", CONTEXT);
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            result = result.replace("{{" + entry.getKey() + "}}", entry.getValue());
+        }
+        return result;
+    }
+
+    private static String template(String name) {
+        return TEMPLATES.computeIfAbsent(name, key -> {
+            try (InputStream input = FixtureServer.class.getClassLoader()
+                    .getResourceAsStream(FIXTURE_DIR + key + ".html")) {
+                if (input == null) {
+                    throw new AutomationException("Fixture template not found: " + FIXTURE_DIR + key + ".html");
+                }
+                return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new AutomationException("Cannot read fixture template " + key, e);
+            }
+        });
+    }
+
+    private static String accountMenu(boolean loggedIn) {
+        if (!loggedIn) {
+            return link("account/register", "Register") + link("account/login", "Login");
+        }
+        return link("account/account", "My Account") + link("account/order", "Order History")
+                + link("account/transaction", "Transactions") + link("account/download", "Downloads")
+                + link("account/logout", "Logout");
+    }
+
+    private static String columnRight(boolean loggedIn) {
+        StringBuilder html = new StringBuilder("<aside id=\"column-right\">\n<div class=\"list-group\">\n");
+        if (!loggedIn) {
+            html.append(groupLink("account/login", "Login"))
+                .append(groupLink("account/register", "Register"))
+                .append(groupLink("account/forgotten", "Forgotten Password"));
+        }
+        html.append(groupLink("account/account", "My Account"));
+        if (loggedIn) {
+            html.append(groupLink("account/edit", "Edit Account"))
+                .append(groupLink("account/password", "Password"));
+        }
+        html.append(groupLink("account/address", "Address Book"))
+            .append(groupLink("account/wishlist", "Wish List"))
+            .append(groupLink("account/order", "Order History"))
+            .append(groupLink("account/download", "Downloads"))
+            .append(groupLink("account/newsletter", "Newsletter"));
+        if (loggedIn) {
+            html.append(groupLink("account/logout", "Logout"));
+        }
+        return html.append("</div>\n</aside>").toString();
+    }
+
+    private static String link(String route, String text) {
+        return "<li><a href=\"" + CONTEXT + "index.php?route=" + route + "\">" + text + "</a></li>\n";
+    }
+
+    private static String groupLink(String route, String text) {
+        return "<a href=\"" + CONTEXT + "index.php?route=" + route + "\" class=\"list-group-item\">" + text + "</a>\n";
+    }
+
+    private static String alert(String type, String message) {
+        String icon = "success".equals(type) ? "fa-check-circle" : "fa-exclamation-circle";
+        return "<div class=\"alert alert-" + type + " alert-dismissible\"><i class=\"fa " + icon + "\"></i> "
+                + escape(message) + "</div>";
+    }
+
+    /*
+     * ======================
+     * HTTP HELPERS
+     * ======================
+     */
+
+    private static Session session(HttpExchange exchange) {
+        String cookieHeader = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookieHeader != null) {
+            for (String part : cookieHeader.split(";")) {
+                String[] pair = part.trim().split("=", 2);
+                if (pair.length == 2 && SESSION_COOKIE.equals(pair[0])) {
+                    Session existing = SESSIONS.get(pair[1]);
+                    if (existing != null) {
+                        return existing;
+                    }
+                }
+            }
+        }
+        String id = UUID.randomUUID().toString().replace("-", "");
+        Session created = new Session();
+        SESSIONS.put(id, created);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + id + "; Path=/; HttpOnly");
+        return created;
+    }
+
+    private static void redirect(HttpExchange exchange, String route) throws IOException {
+        exchange.getResponseHeaders().add("Location", CONTEXT + "index.php?route=" + route);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void send(HttpExchange exchange, int status, String html) throws IOException {
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.getResponseHeaders().add("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> values = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            String[] parts = pair.split("=", 2);
+            String key = URLDecoder.decode(parts[0], StandardCharsets.UTF_8);
+            values.put(key, parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return values;
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /*
+     * ======================
+     * STATE
+     * ======================
+     */
+
+    private static final class Session {
+        private volatile Customer customer;
+        private volatile String flash;
+    }
+
+    private static final class Customer {
+        private volatile String firstName;
+        private volatile String lastName;
+        private final String email;
+        private volatile String telephone;
+        private final String password;
+
+        private Customer(String firstName, String lastName, String email, String telephone, String password) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.telephone = telephone;
+            this.password = password;
+        }
+    }
+}
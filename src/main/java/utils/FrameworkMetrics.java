@@ -0,0 +1,251 @@
+package utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * =====================================================
+ * FrameworkMetrics
+ * =====================================================
+ * Lightweight in-memory counters & timers for the framework itself
+ * (driver pool, session reset, waits ...)
+ *
+ * - Suite-level: counters + timers (count / total / max), thread-safe
+ * - Histograms : latency buckets (p50 / p90 / p99 upper bound)
+ * - Test-level : values recorded on the current thread, drained by
+ *                ExtentReportManager when the test finishes
+ *
+ * Usage:
+ *   FrameworkMetrics.increment("driver.pool.hit");
+ *   FrameworkMetrics.recordTime("session.reset.ms", elapsedMs);
+ *   FrameworkMetrics.recordLatency("http.POST /session", elapsedMs);
+ *   FrameworkMetrics.recordForTest("setup.ms", elapsedMs);
+ *
+ * Thread-Safe: YES
+ * =====================================================
+ */
+public class FrameworkMetrics {
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Map<String, Long>> TEST_VALUES =
+            ThreadLocal.withInitial(LinkedHashMap::new);
+
+    private FrameworkMetrics() {
+    }
+
+    /*
+     * ======================
+     * COUNTERS
+     * ======================
+     */
+
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    public static void add(String name, long delta) {
+        COUNTERS.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+
+    public static long getCount(String name) {
+        LongAdder adder = COUNTERS.get(name);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /*
+     * ======================
+     * TIMERS
+     * ======================
+     */
+
+    public static void recordTime(String name, long millis) {
+        TIMERS.computeIfAbsent(name, k -> new Timer()).record(millis);
+    }
+
+    /**
+     * @return average in ms, or -1 if nothing was recorded
+     */
+    public static double getAverageTime(String name) {
+        Timer timer = TIMERS.get(name);
+        return timer == null ? -1 : timer.average();
+    }
+
+    /*
+     * ======================
+     * HISTOGRAMS
+     * ======================
+     */
+
+    /**
+     * Record a latency sample into fixed buckets (ms).
+     */
+    public static void recordLatency(String name, long millis) {
+        HISTOGRAMS.computeIfAbsent(name, k -> new Histogram()).record(millis);
+    }
+
+    /**
+     * @return upper bound (ms) of the bucket holding the given percentile (0-100),
+     *         or -1 if nothing was recorded
+     */
+    public static long getPercentile(String name, double percentile) {
+        Histogram histogram = HISTOGRAMS.get(name);
+        return histogram == null ? -1 : histogram.percentile(percentile);
+    }
+
+    /*
+     * ======================
+     * PER-TEST VALUES
+     * ======================
+     */
+
+    /**
+     * Record a value for the test running on the current thread.
+     * Values with the same name are summed. Also feeds the suite-level timer.
+     */
+    public static void recordForTest(String name, long value) {
+        TEST_VALUES.get().merge(name, value, Long::sum);
+        recordTime(name, value);
+    }
+
+    /**
+     * Attribute values recorded on another thread (e.g. a background
+     * provisioning thread) to the test running on the current thread.
+     * Suite-level timers were already fed when the values were recorded.
+     */
+    public static void attributeToTest(Map<String, Long> values) {
+        if (values != null && !values.isEmpty()) {
+            Map<String, Long> current = TEST_VALUES.get();
+            values.forEach((name, value) -> current.merge(name, value, Long::sum));
+        }
+    }
+
+    /**
+     * Return & clear the values recorded on the current thread.
+     */
+    public static Map<String, Long> drainTestValues() {
+        Map<String, Long> values = TEST_VALUES.get();
+        if (values.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Long> copy = new LinkedHashMap<>(values);
+        values.clear();
+        return copy;
+    }
+
+    /*
+     * ======================
+     * SNAPSHOT (report / log)
+     * ======================
+     */
+
+    /**
+     * Sorted, human readable view of all counters & timers.
+     */
+    public static Map<String, String> snapshot() {
+        Map<String, String> result = new TreeMap<>();
+        COUNTERS.forEach((name, adder) -> result.put(name, String.valueOf(adder.sum())));
+        TIMERS.forEach((name, timer) -> result.put(name, timer.toString()));
+        HISTOGRAMS.forEach((name, histogram) -> result.put(name, histogram.toString()));
+        return result;
+    }
+
+    public static void reset() {
+        COUNTERS.clear();
+        TIMERS.clear();
+        HISTOGRAMS.clear();
+        TEST_VALUES.remove();
+    }
+
+    /*
+     * ======================
+     * TIMER
+     * ======================
+     */
+
+    private static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private volatile long max;
+
+        void record(long millis) {
+            count.increment();
+            total.add(millis);
+            if (millis > max) {
+                synchronized (this) {
+                    if (millis > max) {
+                        max = millis;
+                    }
+                }
+            }
+        }
+
+        double average() {
+            long n = count.sum();
+            return n == 0 ? -1 : (double) total.sum() / n;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, avg=%.1f ms, max=%d ms, total=%d ms",
+                    count.sum(), average(), max, total.sum());
+        }
+    }
+
+    /*
+     * ======================
+     * HISTOGRAM
+     * ======================
+     */
+
+    private static final class Histogram {
+        private static final long[] BOUNDS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+        // Bucket cuối = > 30000 ms
+        private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+        private final Timer timer = new Timer();
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long millis) {
+            int index = 0;
+            while (index < BOUNDS.length && millis > BOUNDS[index]) {
+                index++;
+            }
+            buckets[index].increment();
+            timer.record(millis);
+        }
+
+        long percentile(double percentile) {
+            long total = timer.count.sum();
+            if (total == 0) {
+                return -1;
+            }
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BOUNDS.length; i++) {
+                seen += buckets[i].sum();
+                if (seen >= Math.max(1, rank)) {
+                    return BOUNDS[i];
+                }
+            }
+            return timer.max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s, p50<=%d ms, p90<=%d ms, p99<=%d ms",
+                    timer, percentile(50), percentile(90), percentile(99));
+        }
+    }
+}
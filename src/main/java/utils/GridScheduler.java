@@ -0,0 +1,463 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import utils.exceptions.GridConnectionException;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * =====================================================
+ * GridScheduler - Client-side slot-aware queue cho Grid
+ * =====================================================
+ * Mặc định: new RemoteWebDriver(grid) → Grid tự queue request,
+ * client chỉ biết chờ tới timeout mặc định rồi GridConnectionException.
+ *
+ * Scheduler:
+ *   1. Poll {grid.url}/status (tối đa 1 lần / poll.interval)
+ *   2. Đếm slot trống theo browserName + platformName
+ *      (node DOWN/DRAINING bị bỏ qua, tôn trọng maxSessions của node)
+ *   3. Request chờ trong hàng đợi local (FIFO theo từng browser/platform)
+ *      tới khi có slot → giữ chỗ đúng slot đó (node + index) → mới gửi
+ *      new-session. Slot đã giữ tính như busy cho MỌI browser → chrome và
+ *      firefox không cùng lấy 1 chỗ maxSessions của 1 node
+ *   4. Hết grid.scheduler.queue.timeout → GridConnectionException rõ ràng
+ *
+ * Metrics (per test):
+ *   grid.queue.wait.ms    : thời gian chờ slot (client-side)
+ *   grid.session.start.ms : thời gian Grid tạo session (sau khi có slot)
+ *
+ * Lưu ý: Grid autoscale (KEDA...) scale dựa trên queue phía Grid
+ * → giữ scheduler tắt cho loại Grid này.
+ *
+ * Testable: new GridScheduler(statusUrl, ...) trỏ tới stand-in grid
+ * (xem frameworkTests.GridScheduler_Test).
+ *
+ * Thread-Safe: YES (monitor của instance; HTTP /status gọi NGOÀI monitor,
+ * 1 poll tại 1 thời điểm → /status chậm không chặn release / thread khác)
+ * =====================================================
+ */
+public class GridScheduler {
+
+    private static final Logger logger = LogManager.getLogger(GridScheduler.class);
+
+    public static final String METRIC_QUEUE_WAIT = "grid.queue.wait.ms";
+    public static final String METRIC_SESSION_START = "grid.session.start.ms";
+
+    private static GridScheduler instance;
+
+    private final URI statusUri;
+    private final long pollIntervalMs;
+    private final long queueTimeoutMs;
+    private final HttpClient httpClient;
+
+    // FIFO hàng đợi local + slot (node:index) đã cấp nhưng Grid chưa phản ánh trong /status
+    private final LinkedList<Ticket> queue = new LinkedList<>();
+    private final Set<String> reserved = new HashSet<>();
+
+    private List<Slot> slots = Collections.emptyList();
+    private long lastPoll;
+    private boolean stale = true;
+    private boolean polling;
+
+    public GridScheduler(String gridUrl, long pollIntervalMs, long queueTimeoutMs) {
+        this.statusUri = URI.create(toStatusUrl(gridUrl));
+        this.pollIntervalMs = Math.max(50, pollIntervalMs);
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /*
+     * ======================
+     * CONFIG
+     * ======================
+     */
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.GRID_SCHEDULER_ENABLED, false);
+    }
+
+    /**
+     * Scheduler dùng chung cho grid.url hiện tại
+     */
+    public static synchronized GridScheduler getInstance() {
+        if (instance == null) {
+            instance = new GridScheduler(
+                    ConfigReader.getRequired(ConfigKeys.GRID_URL),
+                    ConfigReader.getInt(ConfigKeys.GRID_SCHEDULER_POLL_INTERVAL, 1000),
+                    ConfigReader.getInt(ConfigKeys.GRID_SCHEDULER_QUEUE_TIMEOUT, 300) * 1000L);
+        }
+        return instance;
+    }
+
+    /*
+     * ======================
+     * SCHEDULE
+     * ======================
+     */
+
+    /**
+     * Chờ slot trống cho browser/platform rồi mới tạo session.
+     *
+     * @param browserName browserName của Grid (chrome / firefox / MicrosoftEdge)
+     * @param platform    platformName yêu cầu (null = bất kỳ)
+     * @param creator     tạo RemoteWebDriver (chỉ gọi khi đã có slot)
+     * @throws GridConnectionException hết queue timeout mà chưa có slot
+     */
+    public WebDriver schedule(String browserName, Platform platform, Supplier<WebDriver> creator) {
+        String key = keyOf(browserName, platform);
+
+        long start = System.currentTimeMillis();
+        String slot = awaitSlot(key, browserName, platform);
+        FrameworkMetrics.recordForTest(METRIC_QUEUE_WAIT, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        try {
+            return creator.get();
+        } finally {
+            FrameworkMetrics.recordForTest(METRIC_SESSION_START, System.currentTimeMillis() - start);
+            releaseReservation(slot);
+        }
+    }
+
+    /**
+     * Slot trống hiện tại (theo lần poll gần nhất, đã trừ reservation)
+     */
+    public int freeSlots(String browserName, Platform platform) {
+        refreshIfDue();
+        synchronized (this) {
+            return slots == null ? Integer.MAX_VALUE : countFree(slots, reserved, browserName, platform);
+        }
+    }
+
+    /*
+     * ======================
+     * QUEUE
+     * ======================
+     */
+
+    /**
+     * @return id slot đã giữ chỗ, null nếu /status không đọc được (không áp backpressure)
+     */
+    private String awaitSlot(String key, String browserName, Platform platform) {
+        long start = System.currentTimeMillis();
+        long deadline = start + queueTimeoutMs;
+        Ticket ticket = new Ticket(key);
+        synchronized (this) {
+            queue.addLast(ticket);
+        }
+        boolean warned = false;
+
+        try {
+            while (true) {
+                refreshIfDue();
+
+                synchronized (this) {
+                    // stale = session vừa tạo / fail sau lần poll cuối → chờ poll mới rồi mới cấp
+                    if (!stale && isFirstFor(ticket)) {
+                        if (slots == null) {
+                            return null;
+                        }
+                        Slot slot = pickFree(slots, reserved, browserName, platform);
+                        if (slot != null) {
+                            reserved.add(slot.id);
+                            long waited = System.currentTimeMillis() - start;
+                            if (waited > 0) {
+                                logger.debug("[GRID-QUEUE] {} got slot {} after {} ms", key, slot.id, waited);
+                            }
+                            return slot.id;
+                        }
+                    }
+
+                    if (!warned && totalSlots(browserName, platform) == 0) {
+                        logger.warn("[GRID-QUEUE] Grid currently has no slot for {} → waiting (timeout {} s)",
+                                key, queueTimeoutMs / 1000);
+                        warned = true;
+                    }
+
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new GridConnectionException(String.format(
+                            "No free Grid slot for %s after %d seconds (%d request(s) still queued at %s).",
+                            key, queueTimeoutMs / 1000, queue.size() - 1, statusUri));
+                    }
+                    wait(Math.min(remaining, pollIntervalMs));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GridConnectionException("Interrupted while waiting for a Grid slot for " + key, e);
+        } finally {
+            synchronized (this) {
+                queue.remove(ticket);
+                notifyAll();
+            }
+        }
+    }
+
+    private synchronized void releaseReservation(String slot) {
+        if (slot != null) {
+            reserved.remove(slot);
+        }
+        // Session vừa tạo (hoặc fail) → /status phải poll lại trước lần cấp slot tiếp theo
+        stale = true;
+        notifyAll();
+    }
+
+    private boolean isFirstFor(Ticket ticket) {
+        for (Ticket queued : queue) {
+            if (queued.key.equals(ticket.key)) {
+                return queued == ticket;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * ======================
+     * GRID STATUS
+     * ======================
+     */
+
+    /**
+     * Poll /status nếu tới hạn. HTTP chạy ngoài monitor; chỉ 1 thread poll,
+     * thread khác dùng snapshot hiện có (hoặc chờ notify khi snapshot stale).
+     */
+    private void refreshIfDue() {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (polling || (!stale && now - lastPoll < pollIntervalMs)) {
+                return;
+            }
+            polling = true;
+            lastPoll = now;
+            stale = false;
+        }
+
+        List<Slot> fetched = fetchSlots();
+
+        synchronized (this) {
+            polling = false;
+            // Có release trong lúc poll → kết quả có thể chưa thấy session mới → giữ stale, poll lại
+            if (!stale) {
+                slots = fetched;
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return slot theo /status, null nếu không đọc được
+     */
+    private List<Slot> fetchSlots() {
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(statusUri).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+            return parseSlots(response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            // Không đọc được /status → không chặn (new-session tự báo lỗi kết nối như cũ)
+            logger.debug("[GRID-QUEUE] Cannot read {}: {}", statusUri, e.getMessage());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Slot> parseSlots(String json) {
+        Map<String, Object> root = new Json().toType(json, Map.class);
+        Map<String, Object> value = (Map<String, Object>) root.getOrDefault("value", root);
+        List<Slot> result = new ArrayList<>();
+
+        Object nodes = value.get("nodes");
+        if (!(nodes instanceof List)) {
+            return result;
+        }
+        int nodeIndex = 0;
+        for (Object nodeObject : (List<Object>) nodes) {
+            Map<String, Object> node = (Map<String, Object>) nodeObject;
+            nodeIndex++;
+            if (!"UP".equalsIgnoreCase(String.valueOf(node.getOrDefault("availability", "UP")))) {
+                continue;
+            }
+            Object nodeSlots = node.get("slots");
+            if (!(nodeSlots instanceof List)) {
+                continue;
+            }
+            int maxSessions = node.get("maxSessions") instanceof Number
+                    ? ((Number) node.get("maxSessions")).intValue()
+                    : Integer.MAX_VALUE;
+            int slotIndex = 0;
+            for (Object slotObject : (List<Object>) nodeSlots) {
+                Map<String, Object> slot = (Map<String, Object>) slotObject;
+                slotIndex++;
+                Map<String, Object> stereotype = slot.get("stereotype") instanceof Map
+                        ? (Map<String, Object>) slot.get("stereotype")
+                        : Collections.emptyMap();
+                result.add(new Slot(
+                        nodeIndex,
+                        slotIndex,
+                        maxSessions,
+                        slot.get("session") != null,
+                        (String) stereotype.get("browserName"),
+                        (String) stereotype.get("platformName")));
+            }
+        }
+        return result;
+    }
+
+    /*
+     * ======================
+     * CAPACITY
+     * ======================
+     */
+
+    private int totalSlots(String browserName, Platform platform) {
+        if (slots == null) {
+            return -1;
+        }
+        int total = 0;
+        for (Slot slot : slots) {
+            if (slot.matches(browserName, platform)) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Slot trống khớp browser/platform, tôn trọng maxSessions của node.
+     * Slot đã giữ chỗ (reserved) tính như busy.
+     */
+    static int countFree(List<Slot> slots, Set<String> reserved, String browserName, Platform platform) {
+        Map<Integer, Integer> matchingFreePerNode = new HashMap<>();
+        for (Slot slot : slots) {
+            if (!slot.isTaken(reserved) && slot.matches(browserName, platform)) {
+                matchingFreePerNode.merge(slot.node, 1, Integer::sum);
+            }
+        }
+        Map<Integer, Integer> capacity = nodeCapacity(slots, reserved);
+
+        int free = 0;
+        for (Map.Entry<Integer, Integer> entry : matchingFreePerNode.entrySet()) {
+            free += Math.max(0, Math.min(entry.getValue(), capacity.get(entry.getKey())));
+        }
+        return free;
+    }
+
+    /**
+     * Slot trống đầu tiên khớp browser/platform trên node còn capacity, null nếu hết
+     */
+    static Slot pickFree(List<Slot> slots, Set<String> reserved, String browserName, Platform platform) {
+        Map<Integer, Integer> capacity = nodeCapacity(slots, reserved);
+        for (Slot slot : slots) {
+            if (!slot.isTaken(reserved) && slot.matches(browserName, platform) && capacity.get(slot.node) > 0) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    // Node → số session còn tạo được (maxSessions - busy - reserved)
+    private static Map<Integer, Integer> nodeCapacity(List<Slot> slots, Set<String> reserved) {
+        Map<Integer, Integer> capacity = new HashMap<>();
+        for (Slot slot : slots) {
+            capacity.putIfAbsent(slot.node, slot.nodeMaxSessions);
+            if (slot.isTaken(reserved)) {
+                capacity.merge(slot.node, -1, Integer::sum);
+            }
+        }
+        return capacity;
+    }
+
+    /*
+     * ======================
+     * HELPERS
+     * ======================
+     */
+
+    private static String toStatusUrl(String gridUrl) {
+        String base = gridUrl.trim();
+        while (base.endsWith("/")) {
+            base = base.substring(0, base.length() - 1);
+        }
+        if (base.endsWith("/wd/hub")) {
+            base = base.substring(0, base.length() - "/wd/hub".length());
+        }
+        return base + "/status";
+    }
+
+    private static String keyOf(String browserName, Platform platform) {
+        return browserName.toLowerCase() + "/" + (platform == null ? "any" : platform.name().toLowerCase());
+    }
+
+    private static final class Ticket {
+        private final String key;
+
+        private Ticket(String key) {
+            this.key = key;
+        }
+    }
+
+    static final class Slot {
+        private final String id;
+        private final int node;
+        private final int nodeMaxSessions;
+        private final boolean busy;
+        private final String browserName;
+        private final String platformName;
+
+        Slot(int node, int index, int nodeMaxSessions, boolean busy, String browserName, String platformName) {
+            this.id = node + ":" + index;
+            this.node = node;
+            this.nodeMaxSessions = nodeMaxSessions;
+            this.busy = busy;
+            this.browserName = browserName;
+            this.platformName = platformName;
+        }
+
+        boolean isTaken(Set<String> reserved) {
+            return busy || reserved.contains(id);
+        }
+
+        boolean matches(String requestedBrowser, Platform requestedPlatform) {
+            if (browserName == null || !browserName.equalsIgnoreCase(requestedBrowser)) {
+                return false;
+            }
+            if (requestedPlatform == null || platformName == null || platformName.isBlank()
+                    || "any".equalsIgnoreCase(platformName)) {
+                return true;
+            }
+            try {
+                return Platform.fromString(platformName).is(requestedPlatform);
+            } catch (Exception e) {
+                return platformName.equalsIgnoreCase(requestedPlatform.name());
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * =====================================================
+ * HealingElementLocatorFactory - PageFactory locator có self-healing
+ * =====================================================
+ * PageFactory.initElements(new HealingElementLocatorFactory(driver), page)
+ *
+ * Mỗi @FindBy field → DefaultElementLocator như cũ, bọc thêm:
+ *   - Tìm thấy → LocatorHealing.capture (fingerprint, 1 lần / field / lần chạy)
+ *   - NoSuchElement → LocatorHealing.heal (1 script chấm điểm candidate)
+ *       đạt ngưỡng → trả về element đã heal, nhớ locator gợi ý cho
+ *       các lần tìm sau (không phải trượt locator gốc mỗi lần)
+ *       không đạt → ném lại NoSuchElement (wait poll tiếp như cũ)
+ *   - findElements (List<WebElement>) → giữ nguyên, không heal
+ *
+ * toString() = DefaultElementLocator → key của WaitHistory không đổi.
+ *
+ * Thread-Safe: YES (mỗi page object 1 driver / thread)
+ * =====================================================
+ */
+public class HealingElementLocatorFactory implements ElementLocatorFactory {
+
+    private final SearchContext searchContext;
+
+    public HealingElementLocatorFactory(SearchContext searchContext) {
+        this.searchContext = searchContext;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        ElementLocator delegate = new DefaultElementLocator(searchContext, field);
+        if (!LocatorHealing.isEnabled()) {
+            return delegate;
+        }
+        return new HealingElementLocator(searchContext, delegate,
+                field.getDeclaringClass().getSimpleName() + "." + field.getName(),
+                new Annotations(field).buildBy());
+    }
+
+    /*
+     * ======================
+     * LOCATOR
+     * ======================
+     */
+
+    static final class HealingElementLocator implements ElementLocator {
+
+        private final SearchContext searchContext;
+        private final ElementLocator delegate;
+        private final String key;
+        private final By original;
+        private volatile By healed;
+
+        HealingElementLocator(SearchContext searchContext, ElementLocator delegate, String key, By original) {
+            this.searchContext = searchContext;
+            this.delegate = delegate;
+            this.key = key;
+            this.original = original;
+        }
+
+        @Override
+        public WebElement findElement() {
+            By known = healed;
+            if (known != null) {
+                List<WebElement> elements = searchContext.findElements(known);
+                if (!elements.isEmpty()) {
+                    LocatorHealing.markUsed(key);
+                    return elements.get(0);
+                }
+            }
+            try {
+                WebElement element = delegate.findElement();
+                LocatorHealing.capture(searchContext, key, element);
+                return element;
+            } catch (NoSuchElementException e) {
+                LocatorHealing.Healed result = LocatorHealing.heal(searchContext, key, original);
+                if (result == null) {
+                    throw e;
+                }
+                healed = result.getSuggested();
+                return result.getElement();
+            }
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            return delegate.findElements();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
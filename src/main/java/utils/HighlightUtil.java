@@ -4,10 +4,38 @@ import config.ConfigKeys;
 import config.ConfigReader;
 import org.openqa.selenium.*;
 
+/**
+ * =====================================================
+ * HighlightUtil - Viền element trước mỗi action (debug trực quan)
+ * =====================================================
+ * highlight.mode:
+ *   animation : 1 executeScript gắn class có CSS animation (nhấp nháy
+ *               highlight.times lần, mỗi nửa chu kỳ highlight.delay ms),
+ *               browser tự gỡ class bằng setTimeout → Java không sleep
+ *   blocking  : cách cũ, set style + Thread.sleep (2 × times × delay / action)
+ *               (mặc định: animation là opt-in)
+ *
+ * highlight.auto.disable=true (opt-in) → tắt khi headless (browser.preset) hoặc CI
+ * (biến môi trường CI / JENKINS_URL): không ai xem → không cần highlight.
+ *
+ * highlight.saved.ms: tổng thời gian KHÔNG phải sleep so với blocking
+ * (FrameworkMetrics → Extent system info)
+ * =====================================================
+ */
 public class HighlightUtil {
 
+    public static final String METRIC_SAVED = "highlight.saved.ms";
+
+    private static final boolean AUTO_DISABLED =
+            ConfigReader.getBoolean(ConfigKeys.HIGHLIGHT_AUTO_DISABLE, false)
+                    && (LaunchPreset.current().isHeadless()
+                    || System.getenv("CI") != null || System.getenv("JENKINS_URL") != null);
+
     private static final boolean ENABLED =
-            ConfigReader.getBoolean(ConfigKeys.HIGHLIGHT_ENABLED, true);
+            ConfigReader.getBoolean(ConfigKeys.HIGHLIGHT_ENABLED, true) && !AUTO_DISABLED;
+
+    private static final boolean BLOCKING =
+            !"animation".equalsIgnoreCase(String.valueOf(ConfigReader.get(ConfigKeys.HIGHLIGHT_MODE)).trim());
 
     private static final String BORDER_COLOR =
             ConfigReader.get(ConfigKeys.HIGHLIGHT_BORDER_COLOR);
@@ -18,14 +46,56 @@ public class HighlightUtil {
     private static final long DELAY =
             ConfigReader.getInt(ConfigKeys.HIGHLIGHT_DELAY, 200);
 
+    // Thời gian blocking mode sleep cho 1 lần highlight
+    private static final long BLOCKING_MS = 2L * TIMES * DELAY;
+
+    // 1 round-trip: thêm <style> (1 lần / document) + class, browser tự gỡ sau times × 2 × delay
+    private static final String ANIMATION_SCRIPT =
+            "var el = arguments[0], color = arguments[1], half = arguments[2], times = arguments[3];"
+            + "if (!document.getElementById('__thHighlight')) {"
+            + "  var style = document.createElement('style');"
+            + "  style.id = '__thHighlight';"
+            + "  style.textContent = '@keyframes __thHighlight { 0%, 100% { outline-color: transparent; }"
+            + " 50% { outline-color: var(--th-highlight-color); } }"
+            + " .__thHighlight { outline: 3px solid transparent !important; outline-offset: 1px;"
+            + " animation: __thHighlight var(--th-highlight-duration) linear var(--th-highlight-times); }';"
+            + "  (document.head || document.documentElement).appendChild(style);"
+            + "}"
+            + "el.style.setProperty('--th-highlight-color', color);"
+            + "el.style.setProperty('--th-highlight-duration', (half * 2) + 'ms');"
+            + "el.style.setProperty('--th-highlight-times', String(times));"
+            + "el.classList.remove('__thHighlight'); void el.offsetWidth;"
+            + "el.classList.add('__thHighlight');"
+            + "clearTimeout(el.__thHighlightTimer);"
+            + "el.__thHighlightTimer = setTimeout(function () {"
+            + "  el.classList.remove('__thHighlight');"
+            + "  ['--th-highlight-color', '--th-highlight-duration', '--th-highlight-times']"
+            + "      .forEach(function (p) { el.style.removeProperty(p); });"
+            + "}, half * 2 * times);";
+
     private HighlightUtil() {
     }
 
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
     public static void highlight(WebDriver driver, WebElement element) {
-        if (!ENABLED) return;
+        if (!ENABLED) {
+            if (AUTO_DISABLED && BLOCKING_MS > 0) {
+                FrameworkMetrics.add(METRIC_SAVED, BLOCKING_MS);
+            }
+            return;
+        }
 
         try {
             JavascriptExecutor js = (JavascriptExecutor) driver;
+            if (!BLOCKING) {
+                js.executeScript(ANIMATION_SCRIPT, element, BORDER_COLOR, DELAY, TIMES);
+                FrameworkMetrics.add(METRIC_SAVED, BLOCKING_MS);
+                return;
+            }
+
             String originalStyle = element.getAttribute("style");
 
             String borderStyle = "3px solid " + BORDER_COLOR;
@@ -0,0 +1,202 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import utils.exceptions.InvalidConfigException;
+
+import java.util.Arrays;
+
+/**
+ * =====================================================
+ * LaunchPreset - Named browser launch profiles
+ * =====================================================
+ * Chọn qua config: browser.preset=headless-fast
+ * (hoặc -Dbrowser.preset=ci-lowmem khi chạy Maven)
+ *
+ *   default       : giữ nguyên hành vi cũ (headed, maximize)
+ *   headless-fast : headless + window cố định + lean profile
+ *   headed-debug  : headed, maximize, giữ extensions/devtools
+ *   ci-lowmem     : headless + window nhỏ + lean profile
+ *                   + ít renderer process nhất có thể
+ *
+ * Lean profile = tắt extensions, GPU, background networking,
+ * component update, sync, telemetry... (không ảnh hưởng test)
+ *
+ * Override (optional):
+ *   browser.window.size=1920x1080
+ *   browser.renderer.limit=4
+ *
+ * Áp dụng cho cả local & grid (DriverFactory dùng chung options).
+ * =====================================================
+ */
+public enum LaunchPreset {
+
+    DEFAULT("default", false, null, false, 0),
+    HEADLESS_FAST("headless-fast", true, new Dimension(1920, 1080), true, 4),
+    HEADED_DEBUG("headed-debug", false, null, false, 0),
+    CI_LOWMEM("ci-lowmem", true, new Dimension(1366, 768), true, 2);
+
+    private final String presetName;
+    private final boolean headless;
+    private final Dimension windowSize;
+    private final boolean lean;
+    private final int rendererLimit;
+
+    LaunchPreset(String presetName, boolean headless, Dimension windowSize, boolean lean, int rendererLimit) {
+        this.presetName = presetName;
+        this.headless = headless;
+        this.windowSize = windowSize;
+        this.lean = lean;
+        this.rendererLimit = rendererLimit;
+    }
+
+    /*
+     * ======================
+     * RESOLVE
+     * ======================
+     */
+
+    /**
+     * Preset hiện tại từ config (browser.preset), mặc định = default
+     */
+    public static LaunchPreset current() {
+        return fromName(ConfigReader.get(ConfigKeys.BROWSER_PRESET));
+    }
+
+    public static LaunchPreset fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return DEFAULT;
+        }
+        String normalized = name.trim().toLowerCase();
+        for (LaunchPreset preset : values()) {
+            if (preset.presetName.equals(normalized)) {
+                return preset;
+            }
+        }
+        throw new InvalidConfigException(
+            String.format("Unsupported browser preset: '%s'. Supported presets: %s",
+                name, Arrays.stream(values()).map(LaunchPreset::getPresetName).toList()));
+    }
+
+    /*
+     * ======================
+     * GETTERS
+     * ======================
+     */
+
+    public String getPresetName() {
+        return presetName;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * true → window size do preset quyết định, KHÔNG maximize() sau khi tạo driver
+     */
+    public boolean hasFixedWindow() {
+        return getWindowSize() != null;
+    }
+
+    public Dimension getWindowSize() {
+        String override = ConfigReader.get(ConfigKeys.BROWSER_WINDOW_SIZE);
+        if (override == null || override.isBlank()) {
+            return windowSize;
+        }
+        String[] parts = override.trim().toLowerCase().split("[x,]");
+        try {
+            return new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        } catch (Exception e) {
+            throw new InvalidConfigException(
+                String.format("Invalid browser.window.size: '%s'. Expected format: 1920x1080", override), e);
+        }
+    }
+
+    public int getRendererLimit() {
+        return ConfigReader.getInt(ConfigKeys.BROWSER_RENDERER_LIMIT, rendererLimit);
+    }
+
+    /*
+     * ======================
+     * APPLY - CHROME / EDGE
+     * ======================
+     */
+
+    public void applyTo(ChromiumOptions<?> options) {
+        if (headless) {
+            options.addArguments("--headless=new");
+        }
+
+        Dimension size = getWindowSize();
+        if (size != null) {
+            options.addArguments("--window-size=" + size.getWidth() + "," + size.getHeight());
+        } else if (this == HEADED_DEBUG) {
+            options.addArguments("--start-maximized");
+        }
+
+        if (lean) {
+            options.addArguments(
+                "--disable-extensions",
+                "--disable-gpu",
+                "--disable-background-networking",
+                "--disable-component-update",
+                "--disable-default-apps",
+                "--disable-sync",
+                "--disable-client-side-phishing-detection",
+                "--disable-domain-reliability",
+                "--disable-features=Translate,OptimizationHints,MediaRouter",
+                "--metrics-recording-only",
+                "--no-first-run",
+                "--no-default-browser-check",
+                "--mute-audio");
+        }
+
+        if (this == CI_LOWMEM) {
+            // /dev/shm nhỏ trong container + site isolation sinh nhiều renderer
+            options.addArguments("--disable-dev-shm-usage", "--disable-site-isolation-trials");
+        }
+
+        int limit = getRendererLimit();
+        if (limit > 0) {
+            options.addArguments("--renderer-process-limit=" + limit);
+        }
+    }
+
+    /*
+     * ======================
+     * APPLY - FIREFOX
+     * ======================
+     */
+
+    public void applyTo(FirefoxOptions options) {
+        if (headless) {
+            options.addArguments("-headless");
+        }
+
+        Dimension size = getWindowSize();
+        if (size != null) {
+            options.addArguments("--width=" + size.getWidth(), "--height=" + size.getHeight());
+        }
+
+        if (lean) {
+            options.addPreference("app.update.auto", false);
+            options.addPreference("extensions.update.enabled", false);
+            options.addPreference("browser.shell.checkDefaultBrowser", false);
+            options.addPreference("browser.newtabpage.enabled", false);
+            options.addPreference("datareporting.policy.dataSubmissionEnabled", false);
+            options.addPreference("toolkit.telemetry.enabled", false);
+            options.addPreference("browser.safebrowsing.malware.enabled", false);
+            options.addPreference("browser.safebrowsing.phishing.enabled", false);
+            options.addPreference("network.prefetch-next", false);
+        }
+
+        int limit = getRendererLimit();
+        if (limit > 0) {
+            options.addPreference("dom.ipc.processCount", limit);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.interactions.Interactive;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * =====================================================
+ * LazyWebDriver - Session chỉ được tạo khi thật sự dùng
+ * =====================================================
+ * BaseClass (driver.lazy.enabled=true) trả về 1 handle thay vì browser thật:
+ *   - Lần gọi đầu tiên (findElement, get, executeScript...) → tạo session
+ *     + chạy initializer (cookies, maximize, navigate base URL)
+ *   - Test không đụng tới UI (fail validation, data-provider row bị skip)
+ *     → KHÔNG tạo browser, tearDown không phải quit
+ *   - Initializer lỗi (navigate timeout...) → session bị discard (quit),
+ *     mọi lần gọi sau ném lại lỗi gốc thay vì dùng session nửa vời
+ *
+ * Handle implement: WebDriver, JavascriptExecutor, TakesScreenshot,
+ * Interactive, HasCapabilities, WrapsDriver.
+ * Cần interface khác (HasCdp, HasDevTools...) → dùng unwrap(driver).
+ * Registry theo driver (NavigationEpoch, RequestBlocker, NetworkArchive,
+ * SessionResetter, ActionScripts) key bằng session thật → handle và
+ * driver nó bọc dùng chung 1 entry.
+ *
+ * Counters (FrameworkMetrics):
+ *   driver.lazy.materialized / driver.lazy.avoided
+ *
+ * Thread-Safe: 1 handle / test thread (giống ThreadLocal driver)
+ * =====================================================
+ */
+public final class LazyWebDriver implements InvocationHandler {
+
+    private static final Logger logger = LogManager.getLogger(LazyWebDriver.class);
+
+    public static final String METRIC_MATERIALIZED = "driver.lazy.materialized";
+    public static final String METRIC_AVOIDED = "driver.lazy.avoided";
+
+    private static final Class<?>[] INTERFACES = {
+        WebDriver.class, JavascriptExecutor.class, TakesScreenshot.class,
+        Interactive.class, HasCapabilities.class, WrapsDriver.class
+    };
+
+    private final Supplier<WebDriver> factory;
+    private final Consumer<WebDriver> initializer;
+    private final Consumer<WebDriver> discarder;
+    private WebDriver delegate;
+    private RuntimeException failure;
+    private boolean quit;
+
+    private LazyWebDriver(Supplier<WebDriver> factory, Consumer<WebDriver> initializer,
+                          Consumer<WebDriver> discarder) {
+        this.factory = factory;
+        this.initializer = initializer;
+        this.discarder = discarder;
+    }
+
+    /**
+     * @param factory     tạo session thật (DriverFactory / DriverPool)
+     * @param initializer chạy 1 lần ngay sau khi tạo (có thể null)
+     */
+    public static WebDriver create(Supplier<WebDriver> factory, Consumer<WebDriver> initializer) {
+        return create(factory, initializer, DriverFactory::quitDriver);
+    }
+
+    /**
+     * @param discarder bỏ session khi initializer lỗi (mặc định DriverFactory.quitDriver)
+     */
+    public static WebDriver create(Supplier<WebDriver> factory, Consumer<WebDriver> initializer,
+                                   Consumer<WebDriver> discarder) {
+        return (WebDriver) Proxy.newProxyInstance(LazyWebDriver.class.getClassLoader(), INTERFACES,
+                new LazyWebDriver(factory, initializer, discarder));
+    }
+
+    /*
+     * ======================
+     * INSPECT (không tạo session)
+     * ======================
+     */
+
+    public static boolean isLazy(WebDriver driver) {
+        return driver != null && Proxy.isProxyClass(driver.getClass())
+                && Proxy.getInvocationHandler(driver) instanceof LazyWebDriver;
+    }
+
+    /**
+     * false nếu là lazy handle chưa tạo session (driver thường → luôn true)
+     */
+    public static boolean isMaterialized(WebDriver driver) {
+        return !isLazy(driver) || handler(driver).delegate != null;
+    }
+
+    /**
+     * Session thật nếu đã tạo, null nếu chưa (KHÔNG tạo mới).
+     * Driver thường → trả về chính nó.
+     */
+    public static WebDriver getMaterialized(WebDriver driver) {
+        return isLazy(driver) ? handler(driver).delegate : driver;
+    }
+
+    /**
+     * Session thật (tạo nếu chưa có) - dùng khi cần HasCdp, HasDevTools...
+     */
+    public static WebDriver unwrap(WebDriver driver) {
+        return isLazy(driver) ? handler(driver).materialize() : driver;
+    }
+
+    private static LazyWebDriver handler(WebDriver driver) {
+        return (LazyWebDriver) Proxy.getInvocationHandler(driver);
+    }
+
+    /*
+     * ======================
+     * PROXY
+     * ======================
+     */
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "toString":
+                return delegate != null ? "Lazy(" + delegate + ")" : "LazyWebDriver(not started)";
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "quit":
+                if (delegate == null) {
+                    quit = true; // chưa có session → không có gì để quit
+                    return null;
+                }
+                break;
+            case "getWrappedDriver":
+                return materialize();
+            default:
+                break;
+        }
+
+        try {
+            return method.invoke(materialize(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private synchronized WebDriver materialize() {
+        if (delegate == null) {
+            if (quit) {
+                throw new IllegalStateException("Lazy WebDriver was already quit before it was used");
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Lazy WebDriver failed to initialize on first use", failure);
+            }
+            long start = System.currentTimeMillis();
+            WebDriver driver = factory.get();
+            if (initializer != null) {
+                try {
+                    initializer.accept(driver);
+                } catch (RuntimeException e) {
+                    // Session chưa tới trạng thái sẵn sàng → không giữ lại
+                    failure = e;
+                    try {
+                        discarder.accept(driver);
+                    } catch (RuntimeException discardError) {
+                        e.addSuppressed(discardError);
+                    }
+                    throw e;
+                }
+            }
+            delegate = driver;
+            FrameworkMetrics.increment(METRIC_MATERIALIZED);
+            logger.debug("[LAZY] Session materialized on first use in {} ms", System.currentTimeMillis() - start);
+        }
+        return delegate;
+    }
+}
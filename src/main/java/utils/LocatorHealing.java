@@ -0,0 +1,390 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.json.Json;
+import utils.exceptions.ElementInteractionException;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * =====================================================
+ * LocatorHealing - Fingerprint + chấm điểm khi @FindBy không còn khớp
+ * =====================================================
+ * @FindBy hỏng (dev đổi id / name) → mỗi bước chờ hết explicit.wait rồi fail.
+ *
+ *   1. capture(): lần tìm thấy ĐẦU TIÊN của mỗi field trong 1 lần chạy
+ *      → lưu fingerprint gọn (1 script):
+ *        tag, id, name, text, classes, neighbors (label / sibling), rect
+ *      key = "LoginPage.txtUserName", value = JSON
+ *   2. heal(): findElement trượt + có fingerprint → 1 script trong browser
+ *      chấm điểm mọi candidate visible cùng tag:
+ *        id 0.3 | name 0.2 | text 0.2 | class (Jaccard) 0.1
+ *        neighbors 0.1 | rect (khoảng cách) 0.1
+ *      (chia cho tổng trọng số của các thuộc tính fingerprint có → 0..1)
+ *      score >= locator.healing.threshold → dùng candidate đó,
+ *      log WARN locator gợi ý (#id / [name] / css duy nhất trên page)
+ *   3. Document chưa load xong → không heal (wait poll tiếp như cũ)
+ *   4. Lưu locator.healing.file ở @AfterSuite, đọc lại ở lần chạy sau
+ *
+ * Mặc định TẮT (locator.healing.enabled=false): element "giống nhất" có
+ * thể là control khác → test pass nhưng click / type nhầm chỗ.
+ *   - Test dùng locator đã heal → Extent đánh dấu WARNING (drainTestHeals)
+ *   - locator.healing.strict=true → không dùng element đã heal, fail ngay
+ *     (ElementInteractionException kèm locator gợi ý) thay vì chờ hết wait
+ *
+ * Report: locator.healed / locator.heal.failed
+ *         + System Info "[Heal] LoginPage.txtUserName" (locator gợi ý)
+ *
+ * Thread-Safe: YES
+ * =====================================================
+ */
+public final class LocatorHealing {
+
+    private static final Logger logger = LogManager.getLogger(LocatorHealing.class);
+
+    public static final String METRIC_HEALED = "locator.healed";
+    public static final String METRIC_FAILED = "locator.heal.failed";
+    public static final String METRIC_CAPTURED = "locator.fingerprint.captured";
+
+    private static final String DEFAULT_FILE = "locator-healing/fingerprints.properties";
+    private static final Json JSON = new Json();
+
+    // Dùng chung cho capture / heal: fingerprint của 1 element
+    private static final String FINGERPRINT_FUNCTION =
+            "function __thText(el) { return (el.innerText || el.value || '').trim().replace(/\\s+/g, ' ').substring(0, 80); }"
+            + "function __thNeighbors(el) {"
+            + "  var out = [], label = el.id && document.querySelector('label[for=\"' + CSS.escape(el.id) + '\"]');"
+            + "  label = label || (el.closest && el.closest('label'));"
+            + "  [label, el.previousElementSibling, el.nextElementSibling, el.parentElement && el.parentElement.previousElementSibling]"
+            + "    .forEach(function (n) { if (n && n !== el) { var t = __thText(n); if (t && out.indexOf(t) < 0) { out.push(t); } } });"
+            + "  if (el.getAttribute('placeholder')) { out.push(el.getAttribute('placeholder').trim()); }"
+            + "  return out;"
+            + "}"
+            + "function __thFingerprint(el) {"
+            + "  var r = el.getBoundingClientRect();"
+            + "  return { tag: el.tagName.toLowerCase(), id: el.id || '', name: el.getAttribute('name') || '',"
+            + "    text: __thText(el), classes: Array.prototype.slice.call(el.classList),"
+            + "    neighbors: __thNeighbors(el),"
+            + "    rect: { x: Math.round(r.left + scrollX), y: Math.round(r.top + scrollY),"
+            + "            w: Math.round(r.width), h: Math.round(r.height) } };"
+            + "}";
+
+    private static final String CAPTURE_SCRIPT = FINGERPRINT_FUNCTION + "return __thFingerprint(arguments[0]);";
+
+    private static final String HEAL_SCRIPT =
+            FINGERPRINT_FUNCTION
+            + "var fp = arguments[0], threshold = arguments[1];"
+            + "if (document.readyState !== 'complete') { return { pending: true }; }"
+            + "function visible(el) {"
+            + "  if (el.getClientRects().length === 0) { return false; }"
+            + "  var style = getComputedStyle(el);"
+            + "  return style.display !== 'none' && style.visibility !== 'hidden' && style.opacity !== '0';"
+            + "}"
+            + "function overlap(a, b) {"
+            + "  if (!a.length && !b.length) { return 1; }"
+            + "  var common = a.filter(function (x) { return b.indexOf(x) >= 0; }).length;"
+            + "  return common / (a.length + b.length - common);"
+            + "}"
+            + "function score(c) {"
+            + "  var total = 0, max = 0;"
+            + "  function add(weight, present, similarity) { if (present) { max += weight; total += weight * similarity; } }"
+            + "  add(0.3, fp.id, c.id === fp.id ? 1 : 0);"
+            + "  add(0.2, fp.name, c.name === fp.name ? 1 : 0);"
+            + "  add(0.2, fp.text, c.text === fp.text ? 1"
+            + "      : c.text && (c.text.indexOf(fp.text) >= 0 || fp.text.indexOf(c.text) >= 0) ? 0.5 : 0);"
+            + "  add(0.1, fp.classes && fp.classes.length, overlap(fp.classes || [], c.classes));"
+            + "  add(0.1, fp.neighbors && fp.neighbors.length, (fp.neighbors || [])"
+            + "      .filter(function (n) { return c.neighbors.indexOf(n) >= 0; }).length / Math.max(1, (fp.neighbors || []).length));"
+            + "  if (fp.rect) {"
+            + "    var d = Math.sqrt(Math.pow(c.rect.x - fp.rect.x, 2) + Math.pow(c.rect.y - fp.rect.y, 2));"
+            + "    add(0.1, true, Math.max(0, 1 - d / 300));"
+            + "  }"
+            + "  return max ? total / max : 0;"
+            + "}"
+            + "var best = null, bestScore = 0, nodes = document.getElementsByTagName(fp.tag);"
+            + "for (var i = 0; i < nodes.length; i++) {"
+            + "  if (!visible(nodes[i])) { continue; }"
+            + "  var s = score(__thFingerprint(nodes[i]));"
+            + "  if (s > bestScore) { best = nodes[i]; bestScore = s; }"
+            + "}"
+            + "if (!best || bestScore < threshold) { return { el: null, score: bestScore }; }"
+            + "function unique(css) { try { return document.querySelectorAll(css).length === 1; } catch (e) { return false; } }"
+            + "var suggestion = null, tag = best.tagName.toLowerCase(), name = best.getAttribute('name');"
+            + "if (best.id && unique('#' + CSS.escape(best.id))) { suggestion = 'id:' + best.id; }"
+            + "else if (name && unique(tag + '[name=\"' + CSS.escape(name) + '\"]')) { suggestion = 'name:' + name; }"
+            + "else {"
+            + "  var css = tag + Array.prototype.map.call(best.classList, function (c) { return '.' + CSS.escape(c); }).join('');"
+            + "  if (unique(css)) { suggestion = 'css:' + css; }"
+            + "}"
+            + "return { el: best, score: bestScore, suggestion: suggestion };";
+
+    // "Page.field" → fingerprint (JSON)
+    private static final Map<String, String> FINGERPRINTS = new ConcurrentHashMap<>();
+    // Field đã capture trong lần chạy này (mỗi field 1 lần)
+    private static final Set<String> CAPTURED = ConcurrentHashMap.newKeySet();
+    // "Page.field" → "By.id: old → id:new (score 0.82)"
+    private static final Map<String, String> HEALED = new ConcurrentHashMap<>();
+    // Heal trong test hiện tại (Extent đánh dấu WARNING khi test kết thúc)
+    private static final ThreadLocal<Set<String>> TEST_HEALS = ThreadLocal.withInitial(LinkedHashSet::new);
+    private static volatile boolean loaded;
+    private static volatile boolean changed;
+
+    private LocatorHealing() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.LOCATOR_HEALING_ENABLED, false);
+    }
+
+    public static boolean isStrict() {
+        return ConfigReader.getBoolean(ConfigKeys.LOCATOR_HEALING_STRICT, false);
+    }
+
+    private static double threshold() {
+        String value = ConfigReader.get(ConfigKeys.LOCATOR_HEALING_THRESHOLD);
+        try {
+            return value == null || value.isBlank() ? 0.6 : Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return 0.6;
+        }
+    }
+
+    /*
+     * ======================
+     * CAPTURE / HEAL (HealingElementLocatorFactory)
+     * ======================
+     */
+
+    /**
+     * Lưu fingerprint của element vừa tìm thấy (1 lần / field / lần chạy)
+     */
+    public static void capture(SearchContext context, String key, WebElement element) {
+        if (!(context instanceof JavascriptExecutor) || !CAPTURED.add(key)) {
+            return;
+        }
+        try {
+            Object result = ((JavascriptExecutor) context).executeScript(CAPTURE_SCRIPT, element);
+            if (result instanceof Map) {
+                ensureLoaded();
+                // TreeMap → JSON ổn định, file không đổi khi element không đổi
+                String fingerprint = JSON.toJson(new TreeMap<>((Map<?, ?>) result));
+                if (!fingerprint.equals(FINGERPRINTS.put(key, fingerprint))) {
+                    changed = true;
+                }
+                FrameworkMetrics.increment(METRIC_CAPTURED);
+            }
+        } catch (WebDriverException e) {
+            // Element vừa stale / không chạy được script → lần sau thử lại
+            CAPTURED.remove(key);
+            logger.debug("[HEAL] Cannot capture fingerprint of {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Tìm element giống fingerprint nhất (1 round-trip)
+     *
+     * @param original locator gốc (chỉ để log)
+     * @return healed element + locator gợi ý, null nếu không có fingerprint /
+     *         page chưa load xong / không candidate nào đạt ngưỡng
+     * @throws ElementInteractionException strict mode: có candidate đạt ngưỡng
+     *         (fail ngay với locator gợi ý, không dùng element đã heal)
+     */
+    public static Healed heal(SearchContext context, String key, By original) {
+        if (!(context instanceof JavascriptExecutor)) {
+            return null;
+        }
+        ensureLoaded();
+        String fingerprint = FINGERPRINTS.get(key);
+        if (fingerprint == null) {
+            return null;
+        }
+        Object result;
+        try {
+            Map<String, Object> fp = JSON.toType(fingerprint, Json.MAP_TYPE);
+            result = ((JavascriptExecutor) context).executeScript(HEAL_SCRIPT, fp, threshold());
+        } catch (WebDriverException e) {
+            logger.debug("[HEAL] Heal script failed for {}: {}", key, e.getMessage());
+            return null;
+        }
+        if (!(result instanceof Map) || Boolean.TRUE.equals(((Map<?, ?>) result).get("pending"))) {
+            return null;
+        }
+        Map<?, ?> match = (Map<?, ?>) result;
+        double score = ((Number) match.get("score")).doubleValue();
+        if (!(match.get("el") instanceof WebElement)) {
+            FrameworkMetrics.increment(METRIC_FAILED);
+            logger.debug("[HEAL] No candidate for {} ({}) reached threshold (best {})",
+                    key, original, String.format("%.2f", score));
+            return null;
+        }
+
+        By suggested = toBy((String) match.get("suggestion"));
+        String summary = String.format("%s → %s (score %.2f)", original,
+                suggested == null ? "no unique locator" : suggested, score);
+        if (isStrict()) {
+            throw new ElementInteractionException(String.format(
+                    "%s no longer matches %s (locator.healing.strict): closest element %s", key, original, summary));
+        }
+        FrameworkMetrics.increment(METRIC_HEALED);
+        TEST_HEALS.get().add(key + ": " + summary);
+        if (HEALED.put(key, summary) == null) {
+            logger.warn("[HEAL] {} no longer matches {} → healed, update locator to {}", key, original,
+                    suggested == null ? "(no unique locator)" : suggested);
+        }
+        return new Healed((WebElement) match.get("el"), suggested);
+    }
+
+    private static By toBy(String suggestion) {
+        if (suggestion == null) {
+            return null;
+        }
+        String value = suggestion.substring(suggestion.indexOf(':') + 1);
+        if (suggestion.startsWith("id:")) {
+            return By.id(value);
+        }
+        if (suggestion.startsWith("name:")) {
+            return By.name(value);
+        }
+        return By.cssSelector(value);
+    }
+
+    /**
+     * Locator gợi ý đã heal trước đó được dùng lại → test hiện tại cũng bị đánh dấu
+     */
+    static void markUsed(String key) {
+        String summary = HEALED.get(key);
+        if (summary != null) {
+            TEST_HEALS.get().add(key + ": " + summary);
+        }
+    }
+
+    /**
+     * Field đã heal trong test hiện tại (thread), xoá sau khi đọc
+     */
+    public static List<String> drainTestHeals() {
+        Set<String> heals = TEST_HEALS.get();
+        List<String> copy = new ArrayList<>(heals);
+        heals.clear();
+        return copy;
+    }
+
+    /**
+     * "Page.field" → locator gợi ý (System Info "[Heal] ...")
+     */
+    public static Map<String, String> healedAll() {
+        return new TreeMap<>(HEALED);
+    }
+
+    /*
+     * ======================
+     * LOAD / SAVE
+     * ======================
+     */
+
+    private static Path healingFile() {
+        String file = ConfigReader.get(ConfigKeys.LOCATOR_HEALING_FILE);
+        return Paths.get(file == null || file.isBlank() ? DEFAULT_FILE : file.trim());
+    }
+
+    private static synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        Path file = healingFile();
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+            // putIfAbsent: fingerprint capture trong lần chạy này mới hơn file
+            properties.forEach((key, value) -> FINGERPRINTS.putIfAbsent(String.valueOf(key), String.valueOf(value)));
+        } catch (Exception e) {
+            logger.warn("[HEAL] Cannot read {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Testable: quên fingerprint / heal của lần chạy này (cả heal của thread hiện tại),
+     * file được đọc lại ở lần dùng tiếp theo
+     */
+    public static synchronized void clear() {
+        FINGERPRINTS.clear();
+        CAPTURED.clear();
+        HEALED.clear();
+        TEST_HEALS.remove();
+        loaded = false;
+        changed = false;
+    }
+
+    /**
+     * Ghi fingerprint (gọi ở @AfterSuite)
+     */
+    public static synchronized void save() {
+        if (!changed) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.putAll(FINGERPRINTS);
+        Path file = healingFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream output = Files.newOutputStream(file)) {
+                properties.store(output, "Element fingerprint per Page.field (locator healing)");
+            }
+            changed = false;
+        } catch (Exception e) {
+            logger.warn("[HEAL] Cannot write {}: {}", file, e.getMessage());
+        }
+    }
+
+    /*
+     * ======================
+     * HEALED
+     * ======================
+     */
+
+    public static final class Healed {
+        private final WebElement element;
+        private final By suggested;
+
+        private Healed(WebElement element, By suggested) {
+            this.element = element;
+            this.suggested = suggested;
+        }
+
+        public WebElement getElement() {
+            return element;
+        }
+
+        /**
+         * Locator duy nhất trên page cho element đã heal (null nếu không có)
+         */
+        public By getSuggested() {
+            return suggested;
+        }
+    }
+}
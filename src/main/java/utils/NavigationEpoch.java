@@ -0,0 +1,56 @@
+package utils;
+
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * =====================================================
+ * NavigationEpoch - Bộ đếm navigation theo driver
+ * =====================================================
+ * Mỗi lần framework navigate (driver.get: BasePage.navigateTo, base URL,
+ * AuthSessionCache, SessionResetter) → advance(driver).
+ * CachedElementLocatorFactory so sánh epoch lúc cache element với epoch
+ * hiện tại: khác → element thuộc document cũ → tìm lại, không cần
+ * thử element cũ rồi ăn StaleElementReferenceException.
+ *
+ * Navigation ngầm (click submit form, driver.get trong test) không qua
+ * đây → proxy tự tìm lại khi gặp StaleElementReferenceException.
+ *
+ * Key = session thật: LazyWebDriver handle và driver nó bọc dùng chung
+ * 1 epoch (initializer advance trên driver thật, page object đọc qua handle).
+ *
+ * Thread-Safe: YES
+ * =====================================================
+ */
+public final class NavigationEpoch {
+
+    // Driver → epoch (WeakHashMap: driver quit → tự dọn)
+    private static final Map<SearchContext, Long> EPOCHS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private NavigationEpoch() {
+    }
+
+    public static long current(SearchContext driver) {
+        SearchContext key = key(driver);
+        return key == null ? 0 : EPOCHS.getOrDefault(key, 0L);
+    }
+
+    /**
+     * Gọi ngay sau khi driver chuyển sang document mới
+     */
+    public static void advance(SearchContext driver) {
+        SearchContext key = key(driver);
+        if (key != null) {
+            EPOCHS.merge(key, 1L, Long::sum);
+        }
+    }
+
+    // Lazy handle chưa tạo session → null (chưa có document nào)
+    private static SearchContext key(SearchContext driver) {
+        return driver instanceof WebDriver ? LazyWebDriver.getMaterialized((WebDriver) driver) : driver;
+    }
+}
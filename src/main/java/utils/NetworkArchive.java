@@ -0,0 +1,422 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * =====================================================
+ * NetworkArchive - HAR record / replay qua request interception
+ * =====================================================
+ * network.archive.mode:
+ *   off    : không can thiệp (mặc định)
+ *   record : mọi response browser tải về được lưu lại
+ *            → ghi file HAR 1.2 nén gzip ở @AfterSuite
+ *   replay : request được fulfill từ archive (không ra network)
+ *
+ * Key = method + URL + SHA-256(request body, byte thô)
+ *
+ * Lưu theo HAR: header response = danh sách name/value (Set-Cookie lặp lại
+ * giữ nguyên từng dòng, không nối bằng dấu phẩy vì Expires có dấu phẩy),
+ * request body = postData base64 ("_encoding": "base64") → body nhị phân
+ * cho cùng key sau khi đọc lại.
+ *
+ * Replay, request không có trong archive (network.archive.unmatched):
+ *   passthrough : cho đi network như bình thường + report
+ *   block       : trả 404 ngay + report
+ * → danh sách URL unmatched được log ở @AfterSuite, counter trong report
+ *
+ * Interception dùng NetworkInterceptor (CDP Fetch domain):
+ * Chrome / Edge (local, hoặc grid qua Augmenter). Browser không có
+ * DevTools → log warning, session chạy bình thường.
+ *
+ * Counters: network.archive.hit / .unmatched / .recorded
+ *
+ * Thread-Safe: YES (nhiều session record / replay song song)
+ * =====================================================
+ */
+public class NetworkArchive {
+
+    private static final Logger logger = LogManager.getLogger(NetworkArchive.class);
+
+    public static final String METRIC_HIT = "network.archive.hit";
+    public static final String METRIC_UNMATCHED = "network.archive.unmatched";
+    public static final String METRIC_RECORDED = "network.archive.recorded";
+
+    private static final String DEFAULT_FILE = "network-archive/archive.har.gz";
+    private static final int MAX_REPORTED_URLS = 50;
+
+    // Header không replay được (body đã được decode / độ dài thay đổi)
+    private static final Set<String> SKIPPED_HEADERS =
+            Set.of("content-encoding", "content-length", "transfer-encoding", "connection", "keep-alive");
+
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, NetworkInterceptor> INTERCEPTORS = new ConcurrentHashMap<>();
+    private static final Set<String> UNMATCHED_URLS = ConcurrentHashMap.newKeySet();
+
+    private static volatile boolean loaded;
+
+    private NetworkArchive() {
+    }
+
+    /*
+     * ======================
+     * CONFIG
+     * ======================
+     */
+
+    public static String mode() {
+        String mode = ConfigReader.get(ConfigKeys.NETWORK_ARCHIVE_MODE);
+        return (mode == null || mode.isBlank()) ? "off" : mode.trim().toLowerCase();
+    }
+
+    public static boolean isEnabled() {
+        return !"off".equals(mode());
+    }
+
+    private static boolean isRecording() {
+        return "record".equals(mode());
+    }
+
+    private static boolean blockUnmatched() {
+        return "block".equalsIgnoreCase(ConfigReader.get(ConfigKeys.NETWORK_ARCHIVE_UNMATCHED));
+    }
+
+    private static Path archiveFile() {
+        String file = ConfigReader.get(ConfigKeys.NETWORK_ARCHIVE_FILE);
+        return Paths.get(file == null || file.isBlank() ? DEFAULT_FILE : file.trim());
+    }
+
+    /*
+     * ======================
+     * ATTACH / DETACH (DriverFactory)
+     * ======================
+     */
+
+    /**
+     * Bật record / replay cho session vừa tạo (no-op khi mode=off)
+     */
+    public static void attach(WebDriver driver) {
+        driver = LazyWebDriver.getMaterialized(driver);
+        if (!isEnabled() || driver == null) {
+            return;
+        }
+        if (!(driver instanceof HasDevTools)) {
+            logger.warn("[NET-ARCHIVE] {} has no DevTools → {} mode skipped for this session",
+                    driver.getClass().getSimpleName(), mode());
+            return;
+        }
+        if (!isRecording()) {
+            ensureLoaded();
+        }
+        Filter filter = isRecording() ? recordFilter() : replayFilter();
+        try {
+            INTERCEPTORS.put(driver, new NetworkInterceptor(driver, filter));
+        } catch (RuntimeException e) {
+            logger.warn("[NET-ARCHIVE] Cannot intercept network ({}) → session runs without {}",
+                    e.getMessage(), mode());
+        }
+    }
+
+    /**
+     * Gỡ interceptor trước khi quit
+     */
+    public static void detach(WebDriver driver) {
+        driver = LazyWebDriver.getMaterialized(driver);
+        NetworkInterceptor interceptor = driver == null ? null : INTERCEPTORS.remove(driver);
+        if (interceptor != null) {
+            try {
+                interceptor.close();
+            } catch (Exception e) {
+                logger.debug("[NET-ARCHIVE] Ignored error on detach: {}", e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * ======================
+     * FILTERS
+     * ======================
+     */
+
+    private static Filter recordFilter() {
+        return next -> request -> {
+            HttpResponse response = next.execute(request);
+            try {
+                byte[] body = Contents.bytes(response.getContent());
+                ENTRIES.put(keyOf(request), Entry.of(request, response, body));
+                FrameworkMetrics.increment(METRIC_RECORDED);
+                // Supplier có thể chỉ đọc được 1 lần → gắn lại body cho browser
+                response.setContent(Contents.bytes(body));
+            } catch (Exception e) {
+                logger.debug("[NET-ARCHIVE] Not recorded {}: {}", request.getUri(), e.getMessage());
+            }
+            return response;
+        };
+    }
+
+    private static Filter replayFilter() {
+        return next -> request -> {
+            Entry entry = ENTRIES.get(keyOf(request));
+            if (entry != null) {
+                FrameworkMetrics.increment(METRIC_HIT);
+                return entry.toResponse();
+            }
+
+            FrameworkMetrics.increment(METRIC_UNMATCHED);
+            if (UNMATCHED_URLS.size() < MAX_REPORTED_URLS) {
+                UNMATCHED_URLS.add(request.getMethod() + " " + request.getUri());
+            }
+            if (blockUnmatched()) {
+                return new HttpResponse().setStatus(404)
+                        .setContent(Contents.utf8String("Blocked by NetworkArchive (not in archive)"));
+            }
+            return next.execute(request);
+        };
+    }
+
+    /*
+     * ======================
+     * LOAD / SAVE
+     * ======================
+     */
+
+    @SuppressWarnings("unchecked")
+    private static synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        Path file = archiveFile();
+        if (!Files.isRegularFile(file)) {
+            logger.warn("[NET-ARCHIVE] Replay mode but {} does not exist → every request is unmatched", file);
+            return;
+        }
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file));
+             Reader reader = new java.io.InputStreamReader(input, StandardCharsets.UTF_8)) {
+            Map<String, Object> har = new Json().toType(reader, Map.class);
+            List<Object> entries = (List<Object>) ((Map<String, Object>) har.get("log")).get("entries");
+            for (Object raw : entries) {
+                Entry entry = Entry.fromHar((Map<String, Object>) raw);
+                ENTRIES.put(entry.key, entry);
+            }
+            logger.info("[NET-ARCHIVE] Loaded {} response(s) from {}", ENTRIES.size(), file);
+        } catch (Exception e) {
+            logger.warn("[NET-ARCHIVE] Cannot read {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Record: ghi archive. Replay: log request unmatched. Gọi ở @AfterSuite.
+     */
+    public static synchronized void finish() {
+        if (isRecording() && !ENTRIES.isEmpty()) {
+            save();
+        }
+        if (!UNMATCHED_URLS.isEmpty()) {
+            logger.warn("[NET-ARCHIVE] {} request(s) not in archive ({}), e.g.:\n  {}",
+                    FrameworkMetrics.getCount(METRIC_UNMATCHED), blockUnmatched() ? "blocked" : "sent to network",
+                    String.join("\n  ", UNMATCHED_URLS));
+        }
+    }
+
+    private static void save() {
+        Path file = archiveFile();
+        List<Map<String, Object>> entries = new ArrayList<>();
+        ENTRIES.values().forEach(entry -> entries.add(entry.toHar()));
+
+        Map<String, Object> log = new LinkedHashMap<>();
+        log.put("version", "1.2");
+        log.put("creator", Map.of("name", "TH_Framework NetworkArchive", "version", "1.0"));
+        log.put("entries", entries);
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file));
+                 Writer writer = new java.io.OutputStreamWriter(output, StandardCharsets.UTF_8)) {
+                writer.write(new Json().toJson(Map.of("log", log)));
+            }
+            logger.info("[NET-ARCHIVE] Recorded {} response(s) to {}", entries.size(), file);
+        } catch (Exception e) {
+            logger.warn("[NET-ARCHIVE] Cannot write {}: {}", file, e.getMessage());
+        }
+    }
+
+    /*
+     * ======================
+     * KEY
+     * ======================
+     */
+
+    private static String keyOf(HttpRequest request) {
+        return keyOf(request.getMethod().name(), request.getUri(), Contents.bytes(request.getContent()));
+    }
+
+    private static String keyOf(String method, String url, byte[] body) {
+        return method + " " + url + " " + sha256(body);
+    }
+
+    private static String sha256(byte[] body) {
+        if (body == null || body.length == 0) {
+            return "-";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (Exception e) {
+            return String.valueOf(java.util.Arrays.hashCode(body));
+        }
+    }
+
+    /*
+     * ======================
+     * ENTRY (HAR 1.2 subset)
+     * ======================
+     */
+
+    private static final class Entry {
+        private final String key;
+        private final String method;
+        private final String url;
+        private final String requestType;
+        private final byte[] requestBody;
+        private final int status;
+        // HAR: name/value theo thứ tự, header lặp lại (Set-Cookie) = nhiều phần tử
+        private final List<Map.Entry<String, String>> headers;
+        private final byte[] body;
+
+        private Entry(String method, String url, String requestType, byte[] requestBody, int status,
+                      List<Map.Entry<String, String>> headers, byte[] body) {
+            this.method = method;
+            this.url = url;
+            this.requestType = requestType;
+            this.requestBody = requestBody;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.key = keyOf(method, url, requestBody);
+        }
+
+        private static Entry of(HttpRequest request, HttpResponse response, byte[] body) {
+            List<Map.Entry<String, String>> headers = new ArrayList<>();
+            response.forEachHeader((name, value) -> {
+                if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+                    headers.add(new AbstractMap.SimpleImmutableEntry<>(name, value));
+                }
+            });
+            byte[] requestBody = Contents.bytes(request.getContent());
+            String requestType = request.getHeader("Content-Type");
+            return new Entry(request.getMethod().name(), request.getUri(),
+                    requestType == null ? "" : requestType,
+                    requestBody.length == 0 ? null : requestBody,
+                    response.getStatus(), headers, body);
+        }
+
+        private HttpResponse toResponse() {
+            HttpResponse response = new HttpResponse().setStatus(status);
+            headers.forEach(header -> response.addHeader(header.getKey(), header.getValue()));
+            return response.setContent(Contents.bytes(body));
+        }
+
+        private Map<String, Object> toHar() {
+            Map<String, Object> request = new LinkedHashMap<>();
+            request.put("method", method);
+            request.put("url", url);
+            if (requestBody != null) {
+                Map<String, Object> postData = new LinkedHashMap<>();
+                postData.put("mimeType", requestType);
+                postData.put("text", Base64.getEncoder().encodeToString(requestBody));
+                postData.put("_encoding", "base64");
+                request.put("postData", postData);
+            }
+
+            List<Map<String, String>> headerList = new ArrayList<>();
+            headers.forEach(header -> headerList.add(Map.of("name", header.getKey(), "value", header.getValue())));
+
+            Map<String, Object> content = new LinkedHashMap<>();
+            content.put("size", body.length);
+            content.put("encoding", "base64");
+            content.put("text", Base64.getEncoder().encodeToString(body));
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("status", status);
+            response.put("headers", headerList);
+            response.put("content", content);
+
+            Map<String, Object> har = new LinkedHashMap<>();
+            har.put("request", request);
+            har.put("response", response);
+            return har;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Entry fromHar(Map<String, Object> har) {
+            Map<String, Object> request = (Map<String, Object>) har.get("request");
+            Map<String, Object> response = (Map<String, Object>) har.get("response");
+            Map<String, Object> postData = (Map<String, Object>) request.get("postData");
+            Map<String, Object> content = (Map<String, Object>) response.get("content");
+
+            List<Map.Entry<String, String>> headers = new ArrayList<>();
+            for (Object raw : (List<Object>) response.getOrDefault("headers", List.of())) {
+                Map<String, Object> header = (Map<String, Object>) raw;
+                headers.add(new AbstractMap.SimpleImmutableEntry<>(
+                        String.valueOf(header.get("name")), String.valueOf(header.get("value"))));
+            }
+
+            String text = content == null || content.get("text") == null ? "" : String.valueOf(content.get("text"));
+            byte[] body = content != null && "base64".equals(content.get("encoding"))
+                    ? Base64.getDecoder().decode(text)
+                    : text.getBytes(StandardCharsets.UTF_8);
+
+            byte[] requestBody = null;
+            if (postData != null && postData.get("text") != null) {
+                String postText = String.valueOf(postData.get("text"));
+                // Archive cũ (text UTF-8) vẫn đọc được
+                requestBody = "base64".equals(postData.get("_encoding"))
+                        ? Base64.getDecoder().decode(postText)
+                        : postText.getBytes(StandardCharsets.UTF_8);
+            }
+
+            return new Entry(
+                    String.valueOf(request.get("method")),
+                    String.valueOf(request.get("url")),
+                    postData == null || postData.get("mimeType") == null ? "" : String.valueOf(postData.get("mimeType")),
+                    requestBody,
+                    ((Number) response.get("status")).intValue(),
+                    headers,
+                    body);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * =====================================================
+ * NetworkIdle - Chờ page hết request (fetch / XHR / WebSocket)
+ * =====================================================
+ * Không phụ thuộc framework (khác jQuery.active / Angular $http):
+ * script instrumentation bọc window.fetch, XMLHttpRequest và WebSocket
+ * → window.__thNet.inflight = số request đang chạy
+ *   (WebSocket tính là in-flight khi đang handshake)
+ *
+ * waitForNetworkIdle(quietMillis, maxInflight):
+ *   xong khi inflight <= maxInflight liên tục trong quietMillis
+ *   → chờ trong browser (executeAsyncScript), không poll từ Java
+ *
+ * Cài instrumentation:
+ *   - wait.network.idle.preinstall=true + Chrome / Edge:
+ *     CDP Page.addScriptToEvaluateOnNewDocument khi tạo session
+ *     → đếm được cả request bắt đầu trong lúc page load
+ *   - còn lại: inject ở lần wait đầu tiên của mỗi document
+ *     → request đã bắt đầu TRƯỚC lúc inject không được đếm
+ *
+ * Metrics / test: wait.network.idle.ms (thời gian chờ thực tế)
+ *
+ * Thread-Safe: YES (stateless)
+ * =====================================================
+ */
+public final class NetworkIdle {
+
+    private static final Logger logger = LogManager.getLogger(NetworkIdle.class);
+
+    public static final String METRIC_WAIT = "wait.network.idle.ms";
+
+    private static final long SLICE_MS = 5000;
+
+    static final String INSTRUMENT_SCRIPT =
+            "(function () {"
+            + "  if (window.__thNet) { return; }"
+            + "  var net = window.__thNet = { inflight: 0, changedAt: Date.now() };"
+            + "  function start() { net.inflight++; net.changedAt = Date.now(); }"
+            + "  function end() { net.inflight = Math.max(0, net.inflight - 1); net.changedAt = Date.now(); }"
+            + "  if (window.fetch) {"
+            + "    var fetch = window.fetch;"
+            + "    window.fetch = function () {"
+            + "      start();"
+            + "      try {"
+            + "        return fetch.apply(this, arguments).then("
+            + "          function (r) { end(); return r; }, function (e) { end(); throw e; });"
+            + "      } catch (e) { end(); throw e; }"
+            + "    };"
+            + "  }"
+            + "  if (window.XMLHttpRequest) {"
+            + "    var send = XMLHttpRequest.prototype.send;"
+            + "    XMLHttpRequest.prototype.send = function () {"
+            + "      var xhr = this, counted = true; start();"
+            + "      xhr.addEventListener('loadend', function () { if (counted) { counted = false; end(); } });"
+            + "      try { return send.apply(xhr, arguments); }"
+            + "      catch (e) { if (counted) { counted = false; end(); } throw e; }"
+            + "    };"
+            + "  }"
+            + "  if (window.WebSocket) {"
+            + "    var Native = window.WebSocket;"
+            + "    var Wrapped = function (url, protocols) {"
+            + "      var ws = protocols === undefined ? new Native(url) : new Native(url, protocols);"
+            + "      var connecting = true; start();"
+            + "      function settle() { if (connecting) { connecting = false; end(); } }"
+            + "      ws.addEventListener('open', settle); ws.addEventListener('error', settle);"
+            + "      ws.addEventListener('close', settle);"
+            + "      return ws;"
+            + "    };"
+            + "    Wrapped.prototype = Native.prototype;"
+            + "    ['CONNECTING', 'OPEN', 'CLOSING', 'CLOSED'].forEach(function (k) { Wrapped[k] = Native[k]; });"
+            + "    window.WebSocket = Wrapped;"
+            + "  }"
+            + "})();";
+
+    private static final String WAIT_SCRIPT =
+            "var quiet = arguments[0], max = arguments[1], timeout = arguments[2],"
+            + "    done = arguments[arguments.length - 1], started = Date.now();"
+            + "var net = window.__thNet;"
+            + "var quietSince = net.inflight <= max ? net.changedAt : -1;"
+            + "function check() {"
+            + "  var now = Date.now();"
+            + "  if (net.inflight > max) { quietSince = -1; }"
+            + "  else { quietSince = Math.max(quietSince, net.changedAt); }"
+            + "  if (quietSince >= 0 && now - quietSince >= quiet) { return { idle: true, inflight: net.inflight }; }"
+            + "  if (now - started >= timeout) { return { idle: false, inflight: net.inflight }; }"
+            + "  return null;"
+            + "}"
+            + "var first = check();"
+            + "if (first) { done(first); return; }"
+            + "var timer = setInterval(function () {"
+            + "  var result = check();"
+            + "  if (result) { clearInterval(timer); done(result); }"
+            + "}, 25);";
+
+    private NetworkIdle() {
+    }
+
+    /*
+     * ======================
+     * SESSION (DriverFactory)
+     * ======================
+     */
+
+    /**
+     * Cài instrumentation cho mọi document của session (CDP, nếu bật preinstall)
+     */
+    public static void attach(WebDriver driver) {
+        if (!ConfigReader.getBoolean(ConfigKeys.NETWORK_IDLE_PREINSTALL, false) || !(driver instanceof HasDevTools)) {
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<>("Page.addScriptToEvaluateOnNewDocument",
+                    Map.of("source", INSTRUMENT_SCRIPT)));
+        } catch (RuntimeException e) {
+            logger.warn("[NET-IDLE] Cannot preinstall instrumentation ({}) → injected on first wait", e.getMessage());
+        }
+    }
+
+    /*
+     * ======================
+     * WAIT
+     * ======================
+     */
+
+    /**
+     * Chờ tới khi page có <= maxInflight request liên tục trong quietMillis
+     *
+     * @return thời gian đã chờ (ms)
+     * @throws TimeoutException nếu không idle trong timeout
+     */
+    public static long await(WebDriver driver, long quietMillis, int maxInflight, Duration timeout) {
+        if (quietMillis < 0 || maxInflight < 0) {
+            throw new IllegalArgumentException("quietMillis and maxInflight must be >= 0");
+        }
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        long start = System.currentTimeMillis();
+        long deadline = start + timeout.toMillis();
+        int inflight = 0;
+
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new TimeoutException(String.format(
+                        "Network not idle (quiet %d ms, max in-flight %d) within %d ms; %d request(s) still in flight",
+                        quietMillis, maxInflight, timeout.toMillis(), inflight));
+            }
+            try {
+                Object result = js.executeAsyncScript(INSTRUMENT_SCRIPT + WAIT_SCRIPT, quietMillis, maxInflight,
+                        Math.min(remaining, Math.max(SLICE_MS, quietMillis + 1000)));
+                if (result instanceof Map) {
+                    Map<?, ?> state = (Map<?, ?>) result;
+                    inflight = ((Number) state.get("inflight")).intValue();
+                    if (Boolean.TRUE.equals(state.get("idle"))) {
+                        break;
+                    }
+                }
+            } catch (ScriptTimeoutException e) {
+                throw new TimeoutException("Network idle wait exceeded the script timeout", e);
+            } catch (WebDriverException e) {
+                // Page navigate giữa chừng → document mới, chờ lại trên document đó
+                logger.debug("[NET-IDLE] Document changed while waiting → retry: {}", e.getMessage());
+            }
+        }
+
+        long waited = System.currentTimeMillis() - start;
+        FrameworkMetrics.recordForTest(METRIC_WAIT, waited);
+        logger.debug("[NET-IDLE] Idle after {} ms (quiet {} ms, max in-flight {})", waited, quietMillis, maxInflight);
+        return waited;
+    }
+}
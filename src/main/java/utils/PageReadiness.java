@@ -0,0 +1,148 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.AbstractDriverOptions;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.exceptions.InvalidConfigException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * =====================================================
+ * PageReadiness - Page load strategy + readiness contract
+ * =====================================================
+ * browser.page.load.strategy (áp dụng khi tạo session, local & grid):
+ *   normal : driver.get() chờ load event (mọi ảnh, font, script)
+ *   eager  : trả về sau DOMContentLoaded
+ *   none   : trả về ngay khi có response đầu tiên
+ *
+ * Readiness contract: page object khai báo điều kiện "đã dùng được"
+ * (BasePage.readinessContract(), vd: ô email visible + nút Login clickable)
+ * → await() trả về ngay khi contract đúng, không chờ subresource.
+ * Page không khai báo contract → chờ document.readyState theo strategy:
+ *   normal → "complete" | eager / none → "interactive" hoặc "complete"
+ *
+ * Metrics / test:
+ *   page.ready.ms      : navigation start → contract đúng (1 lần / document)
+ *   page.load.saved.ms : ready → load event (thời gian KHÔNG phải chờ).
+ *     Load event thường đến sau khi await() trả về → script ghi phần
+ *     tiết kiệm vào sessionStorage, lần await() sau (cùng origin) thu về.
+ *
+ * Thread-Safe: YES (stateless)
+ * =====================================================
+ */
+public final class PageReadiness {
+
+    private static final Logger logger = LogManager.getLogger(PageReadiness.class);
+
+    public static final String METRIC_READY = "page.ready.ms";
+    public static final String METRIC_SAVED = "page.load.saved.ms";
+
+    private static final String TIMING_SCRIPT =
+            "var key = '__thLoadSaved', saved = 0;"
+            + "try { saved = +sessionStorage.getItem(key) || 0; sessionStorage.removeItem(key); } catch (e) {}"
+            + "if (!window.performance || !performance.getEntriesByType) { return { ready: -1, saved: saved }; }"
+            + "if (window.__thReady) { return { ready: -1, saved: saved }; }"
+            + "window.__thReady = true;"
+            + "var readyAt = performance.now();"
+            + "var nav = performance.getEntriesByType('navigation')[0];"
+            + "if (!(nav && nav.loadEventEnd > 0)) {"
+            + "  window.addEventListener('load', function () { setTimeout(function () {"
+            + "    try {"
+            + "      var n = performance.getEntriesByType('navigation')[0];"
+            + "      var s = Math.max(0, Math.round(n.loadEventEnd - readyAt));"
+            + "      sessionStorage.setItem(key, String((+sessionStorage.getItem(key) || 0) + s));"
+            + "    } catch (e) {}"
+            + "  }, 0); });"
+            + "}"
+            + "return { ready: Math.round(readyAt), saved: saved };";
+
+    private PageReadiness() {
+    }
+
+    /*
+     * ======================
+     * STRATEGY (DriverFactory)
+     * ======================
+     */
+
+    public static PageLoadStrategy strategy() {
+        String value = ConfigReader.get(ConfigKeys.PAGE_LOAD_STRATEGY);
+        if (value == null || value.isBlank()) {
+            return PageLoadStrategy.NORMAL;
+        }
+        PageLoadStrategy strategy = PageLoadStrategy.fromString(value.trim().toLowerCase());
+        if (strategy == null) {
+            throw new InvalidConfigException(String.format(
+                    "Invalid browser.page.load.strategy: '%s'. Supported: normal, eager, none", value));
+        }
+        return strategy;
+    }
+
+    public static void applyTo(AbstractDriverOptions<?> options) {
+        PageLoadStrategy strategy = strategy();
+        if (strategy != PageLoadStrategy.NORMAL) {
+            options.setPageLoadStrategy(strategy);
+        }
+    }
+
+    /*
+     * ======================
+     * READINESS
+     * ======================
+     */
+
+    /**
+     * document.readyState đủ cho strategy hiện tại (contract mặc định)
+     */
+    public static ExpectedCondition<Boolean> documentReady() {
+        boolean needComplete = strategy() == PageLoadStrategy.NORMAL;
+        return driver -> {
+            Object state = ((JavascriptExecutor) driver).executeScript("return document.readyState");
+            return "complete".equals(state) || (!needComplete && "interactive".equals(state));
+        };
+    }
+
+    /**
+     * Chờ tới khi page dùng được + ghi page.ready.ms / page.load.saved.ms
+     *
+     * @param contract điều kiện ready của page (rỗng → documentReady())
+     */
+    public static void await(WebDriver driver, WebDriverWait wait, List<ExpectedCondition<?>> contract) {
+        if (contract == null || contract.isEmpty()) {
+            wait.until(documentReady());
+        } else {
+            for (ExpectedCondition<?> condition : contract) {
+                wait.until(condition);
+            }
+        }
+        recordTiming(driver);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void recordTiming(WebDriver driver) {
+        try {
+            Map<String, Object> timing =
+                    (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(TIMING_SCRIPT);
+            long ready = ((Number) timing.get("ready")).longValue();
+            long saved = ((Number) timing.get("saved")).longValue();
+            if (ready >= 0) {
+                FrameworkMetrics.recordForTest(METRIC_READY, ready);
+            }
+            if (saved > 0) {
+                FrameworkMetrics.recordForTest(METRIC_SAVED, saved);
+            }
+        } catch (Exception e) {
+            // Chỉ là số liệu → không làm fail test
+            logger.debug("[READY] Timing not recorded: {}", e.getMessage());
+        }
+    }
+}
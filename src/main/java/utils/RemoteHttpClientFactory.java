@@ -0,0 +1,262 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * =====================================================
+ * RemoteHttpClientFactory - Tuned HTTP layer cho RemoteWebDriver
+ * =====================================================
+ * Mỗi WebDriver command trên Grid = 1 HTTP round-trip.
+ * new RemoteWebDriver(url, options) dùng ClientConfig mặc định:
+ *   - 1 HTTP client / session (không reuse connection giữa session)
+ *   - 1 read timeout cho MỌI command (new-session cũng như click)
+ *   - không biết command nào chậm
+ *
+ * Factory này (remote.http.tuned=true):
+ *   1. Keep-alive pool: client dùng chung theo base URL + timeout class
+ *      → session mới reuse connection đang mở tới Grid / driver service
+ *   2. Read timeout theo command class:
+ *        new-session : POST /session          (remote.http.newsession.timeout)
+ *        script      : /execute/sync|async    (remote.http.script.timeout)
+ *        command     : element & các command khác (remote.http.command.timeout)
+ *   3. Latency histogram / command: "http.POST /session/{id}/element/{id}/click"
+ *      (FrameworkMetrics → Extent system info)
+ *
+ * Keep-alive của JDK HttpClient (jdk.httpclient.keepalive.timeout /
+ * connectionPoolSize) được JDK đọc 1 lần, khi tạo java.net.http.HttpClient
+ * ĐẦU TIÊN của JVM (GridScheduler /status, Selenium Manager, ... cũng
+ * tính) → configureJdkClient() chạy đầu @BeforeSuite, trước mọi client.
+ * Client tạo trước suite (listener, code ngoài framework) → chỉ -D khi
+ * chạy Maven mới có hiệu lực (-D luôn được ưu tiên hơn config).
+ *
+ * Thread-Safe: YES
+ * =====================================================
+ */
+public class RemoteHttpClientFactory implements HttpClient.Factory {
+
+    private static final Logger logger = LogManager.getLogger(RemoteHttpClientFactory.class);
+
+    public static final String METRIC_PREFIX = "http.";
+    public static final String METRIC_ERROR = "http.error";
+
+    private static final RemoteHttpClientFactory INSTANCE = new RemoteHttpClientFactory();
+
+    private static final Pattern SESSION_ID = Pattern.compile("/session/[^/]+");
+    private static final Pattern ELEMENT_ID = Pattern.compile("/(element|shadow|frame)/[^/]+(?=/)");
+
+    // Client dùng chung: baseUri + read timeout → pooled connections
+    private final Map<String, HttpClient> pooled = new ConcurrentHashMap<>();
+
+    private RemoteHttpClientFactory() {
+    }
+
+    /**
+     * Đẩy keep-alive / pool size từ config vào system property của JDK.
+     * Gọi ở đầu @BeforeSuite (BaseClass / BaseClassFlow) - trước khi bất kỳ
+     * java.net.http.HttpClient nào được tạo, sau đó JDK không đọc lại.
+     */
+    public static void configureJdkClient() {
+        setIfAbsent("jdk.httpclient.keepalive.timeout",
+                String.valueOf(ConfigReader.getInt(ConfigKeys.REMOTE_HTTP_KEEPALIVE_TIMEOUT, 120)));
+        int poolSize = ConfigReader.getInt(ConfigKeys.REMOTE_HTTP_POOL_SIZE, 0);
+        if (poolSize > 0) {
+            setIfAbsent("jdk.httpclient.connectionPoolSize", String.valueOf(poolSize));
+        }
+    }
+
+    /*
+     * ======================
+     * CONFIG
+     * ======================
+     */
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.REMOTE_HTTP_TUNED, false);
+    }
+
+    private static Duration seconds(String key, int defaultValue) {
+        return Duration.ofSeconds(Math.max(1, ConfigReader.getInt(key, defaultValue)));
+    }
+
+    /*
+     * ======================
+     * ENTRY POINT
+     * ======================
+     */
+
+    /**
+     * CommandExecutor cho new RemoteWebDriver(executor, options)
+     *
+     * @param remoteUrl Grid URL hoặc URL của driver service
+     */
+    public static CommandExecutor createExecutor(URL remoteUrl) {
+        ClientConfig config = ClientConfig.defaultConfig()
+                .baseUrl(remoteUrl)
+                .connectionTimeout(seconds(ConfigKeys.REMOTE_HTTP_CONNECT_TIMEOUT, 10))
+                .readTimeout(seconds(ConfigKeys.REMOTE_HTTP_COMMAND_TIMEOUT, 60));
+        return new HttpCommandExecutor(Collections.emptyMap(), config, INSTANCE);
+    }
+
+    /**
+     * Đóng các client dùng chung (gọi ở @AfterSuite)
+     */
+    public static void shutdown() {
+        INSTANCE.pooled.values().forEach(client -> {
+            try {
+                client.close();
+            } catch (Exception e) {
+                logger.debug("[HTTP] Ignored error on close: {}", e.getMessage());
+            }
+        });
+        INSTANCE.pooled.clear();
+    }
+
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        return new CommandClassClient(
+                pooledClient(config, seconds(ConfigKeys.REMOTE_HTTP_NEW_SESSION_TIMEOUT, 300)),
+                pooledClient(config, seconds(ConfigKeys.REMOTE_HTTP_SCRIPT_TIMEOUT, 120)),
+                pooledClient(config, seconds(ConfigKeys.REMOTE_HTTP_COMMAND_TIMEOUT, 60)));
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        delegate().cleanupIdleClients();
+    }
+
+    private HttpClient pooledClient(ClientConfig config, Duration readTimeout) {
+        String key = config.baseUri() + "|" + config.connectionTimeout().toSeconds() + "|" + readTimeout.toSeconds();
+        return pooled.computeIfAbsent(key, k -> delegate().createClient(config.readTimeout(readTimeout)));
+    }
+
+    /**
+     * Factory thật, resolve lúc tạo client (không cache lúc load class):
+     * webdriver.http.factory=th-counting (RoundTripCounter.install) có thể được
+     * đặt SAU khi class này load (configureJdkClient ở @BeforeSuite) → client
+     * dùng chung vẫn đi qua counting client, round-trip của grid được đếm.
+     */
+    private static HttpClient.Factory delegate() {
+        RoundTripCounter.install();
+        return HttpClient.Factory.createDefault();
+    }
+
+    /*
+     * ======================
+     * HELPERS
+     * ======================
+     */
+
+    /**
+     * "/session/4f2c.../element/a1b2.../click" → "/session/{id}/element/{id}/click"
+     */
+    static String commandName(HttpRequest request) {
+        String path = SESSION_ID.matcher(request.getUri()).replaceFirst("/session/{id}");
+        path = ELEMENT_ID.matcher(path).replaceAll("/$1/{id}");
+        return request.getMethod() + " " + path;
+    }
+
+    private static void setIfAbsent(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+
+    /*
+     * ======================
+     * COMMAND CLASS CLIENT
+     * ======================
+     */
+
+    /**
+     * Route request tới client có read timeout phù hợp + đo latency.
+     * close() KHÔNG đóng client dùng chung (session khác còn dùng).
+     */
+    private static final class CommandClassClient implements HttpClient {
+        private final HttpClient newSessionClient;
+        private final HttpClient scriptClient;
+        private final HttpClient commandClient;
+        private final boolean histogram;
+
+        private CommandClassClient(HttpClient newSessionClient, HttpClient scriptClient, HttpClient commandClient) {
+            this.newSessionClient = newSessionClient;
+            this.scriptClient = scriptClient;
+            this.commandClient = commandClient;
+            this.histogram = ConfigReader.getBoolean(ConfigKeys.REMOTE_HTTP_HISTOGRAM, true);
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            long start = System.currentTimeMillis();
+            try {
+                return route(request).execute(request);
+            } catch (RuntimeException e) {
+                FrameworkMetrics.increment(METRIC_ERROR);
+                throw e;
+            } finally {
+                if (histogram) {
+                    FrameworkMetrics.recordLatency(METRIC_PREFIX + commandName(request),
+                            System.currentTimeMillis() - start);
+                }
+            }
+        }
+
+        private HttpClient route(HttpRequest request) {
+            String uri = request.getUri();
+            if (request.getMethod() == HttpMethod.POST && (uri.equals("/session") || uri.equals("/session/"))) {
+                return newSessionClient;
+            }
+            if (uri.contains("/execute/")) {
+                return scriptClient;
+            }
+            return commandClient;
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return commandClient.openSocket(request, listener);
+        }
+
+        @Override
+        public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+            return route(request).executeAsync(request);
+        }
+
+        @Override
+        public <T> CompletableFuture<java.net.http.HttpResponse<T>> sendAsyncNative(
+                java.net.http.HttpRequest request, java.net.http.HttpResponse.BodyHandler<T> handler) {
+            return commandClient.sendAsyncNative(request, handler);
+        }
+
+        @Override
+        public <T> java.net.http.HttpResponse<T> sendNative(
+                java.net.http.HttpRequest request, java.net.http.HttpResponse.BodyHandler<T> handler)
+                throws IOException, InterruptedException {
+            return commandClient.sendNative(request, handler);
+        }
+
+        @Override
+        public void close() {
+            // Shared clients → đóng ở RemoteHttpClientFactory.shutdown()
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * =====================================================
+ * RequestBlocker - Chặn request bên thứ 3 (analytics, font, ads, ảnh lớn)
+ * =====================================================
+ * Mỗi driver.get() tải cả tài nguyên không nằm trong phạm vi test.
+ * Khi tạo session (DriverFactory) → CDP Network.setBlockedURLs với
+ * danh sách glob trong config (wildcard "*"):
+ *   network.block.patterns=*google-analytics.com*,*.woff2*
+ *
+ * Override theo TestNG group (vd: group UI cần font thật):
+ *   network.block.patterns.UI=*google-analytics.com*
+ *   network.block.patterns.UI=          (rỗng = không chặn gì)
+ * Test thuộc nhiều group có override → hợp các danh sách override.
+ * Session đã navigate trước beginTest (pipeline chuẩn bị ở background)
+ * → beginTest trả true khi blocklist đổi, BaseClass tải lại base URL.
+ *
+ * Report / test (Extent "Framework Metrics"):
+ *   network.blocked.requests : số request bị chặn (Network.loadingFailed)
+ *   network.blocked.bytes    : ước lượng bytes tiết kiệm (chỉ URL đã có size hint)
+ *   network.blocked.unsized  : request bị chặn chưa có size hint
+ * URL bị chặn không bao giờ được tải → size hint phải học từ lần chạy
+ * cho URL đó đi qua: Network.loadingFinished của URL khớp blocklist
+ *   - record run: network.block.size.record=true + network.block.enabled=false
+ *     → lắng nghe, KHÔNG chặn, chỉ học size (seed hints file)
+ *   - hoặc group override cho URL đi qua trong lần chạy có chặn
+ * → lưu ở network.block.size.hints.file. Chưa có hint → không cộng 0 vào
+ * bytes mà đếm vào network.blocked.unsized (tránh báo 0 gây hiểu nhầm).
+ *
+ * Chỉ Chrome / Edge (CDP). Browser khác → log warning, không chặn.
+ *
+ * Thread-Safe: YES (state theo driver, counter / test theo thread)
+ * =====================================================
+ */
+public class RequestBlocker {
+
+    private static final Logger logger = LogManager.getLogger(RequestBlocker.class);
+
+    public static final String METRIC_BLOCKED = "network.blocked.requests";
+    public static final String METRIC_BYTES = "network.blocked.bytes";
+    public static final String METRIC_UNSIZED = "network.blocked.unsized";
+
+    private static final String DEFAULT_HINTS_FILE = "network-block/size-hints.properties";
+    private static final int MAX_HINTS = 5000;
+
+    private static final Map<WebDriver, BlockState> STATES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<BlockState> CURRENT = new ThreadLocal<>();
+
+    private static Properties sizeHints;
+    private static volatile boolean hintsChanged;
+
+    private RequestBlocker() {
+    }
+
+    /*
+     * ======================
+     * CONFIG
+     * ======================
+     */
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.NETWORK_BLOCK_ENABLED, false);
+    }
+
+    /**
+     * Record run: không chặn, chỉ học size của URL khớp blocklist
+     */
+    private static boolean isRecordingSizes() {
+        return !isEnabled() && ConfigReader.getBoolean(ConfigKeys.NETWORK_BLOCK_SIZE_RECORD, false);
+    }
+
+    private static List<String> parse(String patterns) {
+        List<String> result = new ArrayList<>();
+        if (patterns != null) {
+            Arrays.stream(patterns.split(","))
+                    .map(String::trim)
+                    .filter(p -> !p.isEmpty())
+                    .forEach(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Pattern cho test thuộc các group (override nếu có, không thì mặc định)
+     */
+    static List<String> patternsFor(String... groups) {
+        Set<String> overridden = new LinkedHashSet<>();
+        boolean hasOverride = false;
+        for (String group : groups == null ? new String[0] : groups) {
+            String value = ConfigReader.get(ConfigKeys.NETWORK_BLOCK_PATTERNS + "." + group);
+            if (value != null) {
+                hasOverride = true;
+                overridden.addAll(parse(value));
+            }
+        }
+        return hasOverride ? new ArrayList<>(overridden) : parse(ConfigReader.get(ConfigKeys.NETWORK_BLOCK_PATTERNS));
+    }
+
+    /*
+     * ======================
+     * SESSION (DriverFactory)
+     * ======================
+     */
+
+    /**
+     * Bật Network domain + chặn theo danh sách mặc định (no-op khi tắt)
+     */
+    public static void attach(WebDriver driver) {
+        driver = LazyWebDriver.getMaterialized(driver);
+        if ((!isEnabled() && !isRecordingSizes()) || driver == null) {
+            return;
+        }
+        if (!(driver instanceof HasDevTools)) {
+            logger.warn("[BLOCK] {} has no DevTools → third-party requests are not blocked",
+                    driver.getClass().getSimpleName());
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            BlockState state = new BlockState(devTools, isEnabled());
+            devTools.addListener(new Event<>("Network.requestWillBeSent", input -> input.read(Map.class)),
+                    state::onRequest);
+            devTools.addListener(new Event<>("Network.loadingFinished", input -> input.read(Map.class)),
+                    state::onFinished);
+            devTools.addListener(new Event<>("Network.loadingFailed", input -> input.read(Map.class)),
+                    state::onFailed);
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            state.apply(patternsFor());
+            STATES.put(driver, state);
+        } catch (RuntimeException e) {
+            logger.warn("[BLOCK] Cannot enable request blocking: {}", e.getMessage());
+        }
+    }
+
+    public static void detach(WebDriver driver) {
+        driver = LazyWebDriver.getMaterialized(driver);
+        if (driver != null) {
+            STATES.remove(driver);
+        }
+    }
+
+    /*
+     * ======================
+     * TEST (BaseClass / BaseClassFlow)
+     * ======================
+     */
+
+    /**
+     * Áp blocklist của group cho test sắp chạy + gắn counter vào test thread.
+     * Gọi trên test thread, trước lần navigate đầu tiên của test.
+     *
+     * @return true nếu blocklist của session vừa đổi → trang đã tải (vd: pipeline
+     *         navigate ở background với blocklist mặc định) cần tải lại; counter
+     *         của lần tải cũ bị bỏ
+     */
+    public static boolean beginTest(WebDriver driver, String... groups) {
+        // Key = session thật (lazy handle → driver đã tạo, chưa tạo → không có state)
+        driver = LazyWebDriver.getMaterialized(driver);
+        BlockState state = driver == null ? null : STATES.get(driver);
+        CURRENT.set(state);
+        if (state == null || !state.apply(patternsFor(groups))) {
+            return false;
+        }
+        state.blocked.set(0);
+        state.bytes.set(0);
+        state.unsized.set(0);
+        return true;
+    }
+
+    /**
+     * Group lấy từ @Test của method (+ @Test ở class)
+     */
+    public static boolean beginTest(WebDriver driver, Method method) {
+        Set<String> groups = new LinkedHashSet<>();
+        Test classTest = method.getDeclaringClass().getAnnotation(Test.class);
+        Test methodTest = method.getAnnotation(Test.class);
+        if (classTest != null) {
+            groups.addAll(Arrays.asList(classTest.groups()));
+        }
+        if (methodTest != null) {
+            groups.addAll(Arrays.asList(methodTest.groups()));
+        }
+        return beginTest(driver, groups.toArray(new String[0]));
+    }
+
+    /**
+     * Ghi số request bị chặn / bytes tiết kiệm của test hiện tại vào report
+     */
+    public static void endTest() {
+        BlockState state = CURRENT.get();
+        CURRENT.remove();
+        if (state == null) {
+            return;
+        }
+        long blocked = state.blocked.getAndSet(0);
+        long bytes = state.bytes.getAndSet(0);
+        long unsized = state.unsized.getAndSet(0);
+        if (blocked > 0) {
+            FrameworkMetrics.recordForTest(METRIC_BLOCKED, blocked);
+        }
+        if (bytes > 0) {
+            FrameworkMetrics.recordForTest(METRIC_BYTES, bytes);
+        }
+        if (unsized > 0) {
+            FrameworkMetrics.recordForTest(METRIC_UNSIZED, unsized);
+        }
+    }
+
+    /**
+     * Lưu size hint đã học (gọi ở @AfterSuite)
+     */
+    public static synchronized void finish() {
+        if (!hintsChanged) {
+            return;
+        }
+        Path file = hintsFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream output = Files.newOutputStream(file)) {
+                sizeHints.store(output, "Encoded size (bytes) of blocklisted URLs, used to estimate bytes saved");
+            }
+            hintsChanged = false;
+        } catch (Exception e) {
+            logger.warn("[BLOCK] Cannot write {}: {}", file, e.getMessage());
+        }
+    }
+
+    /*
+     * ======================
+     * SIZE HINTS
+     * ======================
+     */
+
+    private static Path hintsFile() {
+        String file = ConfigReader.get(ConfigKeys.NETWORK_BLOCK_SIZE_HINTS_FILE);
+        return Paths.get(file == null || file.isBlank() ? DEFAULT_HINTS_FILE : file.trim());
+    }
+
+    private static synchronized Properties hints() {
+        if (sizeHints == null) {
+            sizeHints = new Properties();
+            Path file = hintsFile();
+            if (Files.isRegularFile(file)) {
+                try (InputStream input = Files.newInputStream(file)) {
+                    sizeHints.load(input);
+                } catch (Exception e) {
+                    logger.warn("[BLOCK] Cannot read {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        return sizeHints;
+    }
+
+    /**
+     * @return size đã học, 0 = chưa biết
+     */
+    private static long sizeHint(String url) {
+        try {
+            return Long.parseLong(hints().getProperty(url, "0"));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void learn(String url, long size) {
+        Properties hints = hints();
+        if (size > 0 && (hints.size() < MAX_HINTS || hints.containsKey(url))) {
+            hints.setProperty(url, String.valueOf(size));
+            hintsChanged = true;
+        }
+    }
+
+    /**
+     * Glob CDP ("*" = chuỗi bất kỳ) → regex
+     */
+    static Pattern toRegex(String glob) {
+        return Pattern.compile(Arrays.stream(glob.split("\\*", -1))
+                .map(Pattern::quote)
+                .collect(Collectors.joining(".*")));
+    }
+
+    /*
+     * ======================
+     * STATE / DRIVER
+     * ======================
+     */
+
+    private static final class BlockState {
+        private final DevTools devTools;
+        private final AtomicLong blocked = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong unsized = new AtomicLong();
+        private final Map<String, String> urls = new ConcurrentHashMap<>();
+        private final Map<String, Pattern> learnable = new ConcurrentHashMap<>();
+        private final boolean blocking;
+        private List<String> active;
+
+        private BlockState(DevTools devTools, boolean blocking) {
+            this.devTools = devTools;
+            this.blocking = blocking;
+            // Học size của mọi URL có trong bất kỳ blocklist nào
+            parse(ConfigReader.get(ConfigKeys.NETWORK_BLOCK_PATTERNS)).forEach(this::learnable);
+        }
+
+        /**
+         * @return true nếu danh sách chặn thực sự thay đổi
+         */
+        private synchronized boolean apply(List<String> patterns) {
+            if (patterns.equals(active)) {
+                return false;
+            }
+            patterns.forEach(this::learnable);
+            if (!blocking) {
+                // Record run: chỉ học size, không chặn
+                active = patterns;
+                return false;
+            }
+            boolean changed = active != null;
+            devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", patterns)));
+            active = patterns;
+            logger.debug("[BLOCK] Blocking {} pattern(s): {}", patterns.size(), patterns);
+            return changed;
+        }
+
+        private void onRequest(Map<String, Object> event) {
+            Object request = event.get("request");
+            if (request instanceof Map) {
+                urls.put(String.valueOf(event.get("requestId")), String.valueOf(((Map<?, ?>) request).get("url")));
+            }
+        }
+
+        private void onFinished(Map<String, Object> event) {
+            String url = urls.remove(String.valueOf(event.get("requestId")));
+            Object size = event.get("encodedDataLength");
+            if (url != null && size instanceof Number && isLearnable(url)) {
+                learn(url, ((Number) size).longValue());
+            }
+        }
+
+        private void onFailed(Map<String, Object> event) {
+            String url = urls.remove(String.valueOf(event.get("requestId")));
+            if (event.get("blockedReason") != null) {
+                blocked.incrementAndGet();
+                long size = url == null ? 0 : sizeHint(url);
+                if (size > 0) {
+                    bytes.addAndGet(size);
+                } else {
+                    unsized.incrementAndGet();
+                }
+            }
+        }
+
+        private void learnable(String glob) {
+            learnable.computeIfAbsent(glob, RequestBlocker::toRegex);
+        }
+
+        private boolean isLearnable(String url) {
+            return learnable.values().stream().anyMatch(p -> p.matcher(url).matches());
+        }
+    }
+}
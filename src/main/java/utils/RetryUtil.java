@@ -18,6 +18,13 @@ public class RetryUtil {
     }
 
     public static <T> T retry(Supplier<T> action, String actionName) {
+        return retry(action, () -> actionName);
+    }
+
+    /**
+     * actionName chỉ được tính khi retry thất bại (vd: mô tả element cần round-trip)
+     */
+    public static <T> T retry(Supplier<T> action, Supplier<String> actionName) {
         RuntimeException lastException = null;
 
         for (int attempt = 1; attempt <= RETRY_TIMES; attempt++) {
@@ -32,7 +39,7 @@ public class RetryUtil {
 
                 if (attempt == RETRY_TIMES) {
                     throw new RuntimeException(
-                            actionName + " failed after " + RETRY_TIMES + " retries", e);
+                            actionName.get() + " failed after " + RETRY_TIMES + " retries", e);
                 }
             }
         }
@@ -41,10 +48,14 @@ public class RetryUtil {
         if (lastException != null) {
             throw lastException;
         }
-        throw new RuntimeException(actionName + " failed with no exception captured");
+        throw new RuntimeException(actionName.get() + " failed with no exception captured");
     }
 
     public static void retry(Runnable action, String actionName) {
+        retry(action, () -> actionName);
+    }
+
+    public static void retry(Runnable action, Supplier<String> actionName) {
         retry(() -> {
             action.run();
             return null;
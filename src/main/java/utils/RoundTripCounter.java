@@ -0,0 +1,177 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpClientName;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * =====================================================
+ * RoundTripCounter - Đếm WebDriver round-trip theo action
+ * =====================================================
+ * Mỗi WebDriver command = 1 HTTP request tới driver / Grid.
+ * action.roundtrip.count=true → DriverFactory đặt
+ *   -Dwebdriver.http.factory=th-counting
+ * → mọi HttpClient Selenium tạo ra (local, shared service, Grid,
+ *   cả RemoteHttpClientFactory) được bọc bởi client đếm request
+ *   trên thread gọi (command WebDriver chạy đồng bộ trên test thread).
+ * Đăng ký qua META-INF/services (ServiceLoader của Selenium).
+ *
+ * BasePage đo từng action:
+ *   long before = RoundTripCounter.current();
+ *   ... wait / highlight / click ...
+ *   RoundTripCounter.record("click", before);
+ *
+ * Metrics:
+ *   action.<name>             : số action (suite)
+ *   action.<name>.roundtrips  : tổng round-trip (suite) → chia cho action.<name>
+ *   action.roundtrips         : tổng round-trip của các action / test
+ * So sánh trước / sau: chạy cùng suite với action.fast.enabled=false / true.
+ * CDP / BiDi (WebSocket) không tính.
+ *
+ * Thread-Safe: YES (counter theo thread)
+ * =====================================================
+ */
+@HttpClientName(RoundTripCounter.NAME)
+public class RoundTripCounter implements HttpClient.Factory {
+
+    private static final Logger logger = LogManager.getLogger(RoundTripCounter.class);
+
+    public static final String NAME = "th-counting";
+    public static final String METRIC_TEST = "action.roundtrips";
+
+    private static final String FACTORY_PROPERTY = "webdriver.http.factory";
+    private static final String DEFAULT_FACTORY = "jdk-http-client";
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+    private static volatile String delegateName = DEFAULT_FACTORY;
+    private static volatile boolean installed;
+
+    /**
+     * ServiceLoader cần public no-arg constructor (không tạo client ở đây)
+     */
+    public RoundTripCounter() {
+    }
+
+    /*
+     * ======================
+     * INSTALL (DriverFactory)
+     * ======================
+     */
+
+    /**
+     * Bật đếm (no-op khi action.roundtrip.count=false). Gọi trước khi tạo driver đầu tiên.
+     */
+    public static synchronized void install() {
+        if (installed || !ConfigReader.getBoolean(ConfigKeys.ACTION_ROUNDTRIP_COUNT, false)) {
+            return;
+        }
+        String current = System.getProperty(FACTORY_PROPERTY);
+        if (current != null && !current.isBlank() && !NAME.equals(current)) {
+            // -Dwebdriver.http.factory=... của người dùng → vẫn dùng, chỉ bọc thêm
+            delegateName = current.trim();
+        }
+        System.setProperty(FACTORY_PROPERTY, NAME);
+        installed = true;
+        logger.info("[ROUND-TRIP] Counting WebDriver HTTP commands (delegate: {})", delegateName);
+    }
+
+    public static boolean isInstalled() {
+        return installed;
+    }
+
+    /*
+     * ======================
+     * PER ACTION
+     * ======================
+     */
+
+    /**
+     * Số round-trip đã gửi trên thread hiện tại (tăng dần)
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Ghi số round-trip của 1 action (từ mốc before = current() lúc bắt đầu)
+     */
+    public static void record(String action, long before) {
+        if (!installed) {
+            return;
+        }
+        long roundTrips = current() - before;
+        FrameworkMetrics.increment("action." + action);
+        FrameworkMetrics.add("action." + action + ".roundtrips", roundTrips);
+        FrameworkMetrics.recordForTest(METRIC_TEST, roundTrips);
+        logger.debug("[ROUND-TRIP] {} = {}", action, roundTrips);
+    }
+
+    /*
+     * ======================
+     * FACTORY
+     * ======================
+     */
+
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        return new CountingClient(HttpClient.Factory.create(delegateName).createClient(config));
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        HttpClient.Factory.create(delegateName).cleanupIdleClients();
+    }
+
+    private static final class CountingClient implements HttpClient {
+        private final HttpClient delegate;
+
+        private CountingClient(HttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            COUNT.get()[0]++;
+            return delegate.execute(request);
+        }
+
+        @Override
+        public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+            COUNT.get()[0]++;
+            return delegate.executeAsync(request);
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return delegate.openSocket(request, listener);
+        }
+
+        @Override
+        public <T> CompletableFuture<java.net.http.HttpResponse<T>> sendAsyncNative(
+                java.net.http.HttpRequest request, java.net.http.HttpResponse.BodyHandler<T> handler) {
+            return delegate.sendAsyncNative(request, handler);
+        }
+
+        @Override
+        public <T> java.net.http.HttpResponse<T> sendNative(
+                java.net.http.HttpRequest request, java.net.http.HttpResponse.BodyHandler<T> handler)
+                throws IOException, InterruptedException {
+            return delegate.sendNative(request, handler);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * =====================================================
+ * SessionResetter - Soft reset instead of quit()
+ * =====================================================
+ * Wipe browser state so a pooled / class-scoped session can be
+ * reused by the next test without leaking data:
+ *
+ *   1. Close extra windows / tabs, switch back to the main one
+ *      (handle remembered at session creation, not getWindowHandles()
+ *      order - a test may have closed / reordered windows)
+ *   2. Clear storage of every origin the session visited
+ *      - CDP (Chrome/Edge local) : origins from Page.getNavigationHistory
+ *                                  of each window (collected before close)
+ *                                  → Storage.clearDataForOrigin(all) each
+ *                                  + local/sessionStorage via JS
+ *      - JS fallback (others)    : local/sessionStorage, IndexedDB,
+ *                                  service workers, CacheStorage of the
+ *                                  document open in each window
+ *   3. Clear cookies (CDP: all domains, fallback: current domain)
+ *   4. Navigate to about:blank
+ *
+ * => ~5 round-trips + 1 per visited origin / extra window,
+ *    no browser restart.
+ *
+ * Latency is returned and recorded as "session.reset.ms"
+ * (compare with "driver.create.ms" recorded by DriverFactory).
+ *
+ * Note: Firefox has no CDP here → JS fallback (BiDi storage module
+ * is not used yet). The fallback cannot see history, so an origin the
+ * test navigated away from is NOT cleared there.
+ * =====================================================
+ */
+public class SessionResetter {
+
+    private static final Logger logger = LogManager.getLogger(SessionResetter.class);
+
+    public static final String METRIC_RESET = "session.reset.ms";
+
+    private static final String CLEAR_WEB_STORAGE_SCRIPT =
+            "try { localStorage.clear(); sessionStorage.clear(); } catch (e) {}"
+            + " return location.origin;";
+
+    private static final String CLEAR_ALL_STORAGE_ASYNC_SCRIPT =
+            "var done = arguments[arguments.length - 1];"
+            + "if (!/^https?:$/.test(location.protocol)) { done('skipped'); return; }"
+            + "try { localStorage.clear(); sessionStorage.clear(); } catch (e) {}"
+            + "var tasks = [];"
+            + "if (window.indexedDB && indexedDB.databases) {"
+            + "  tasks.push(indexedDB.databases().then(function (dbs) {"
+            + "    return Promise.all(dbs.map(function (db) {"
+            + "      return new Promise(function (resolve) {"
+            + "        var req = indexedDB.deleteDatabase(db.name);"
+            + "        req.onsuccess = req.onerror = req.onblocked = function () { resolve(); };"
+            + "      });"
+            + "    }));"
+            + "  }));"
+            + "}"
+            + "if (navigator.serviceWorker && navigator.serviceWorker.getRegistrations) {"
+            + "  tasks.push(navigator.serviceWorker.getRegistrations().then(function (regs) {"
+            + "    return Promise.all(regs.map(function (r) { return r.unregister(); }));"
+            + "  }));"
+            + "}"
+            + "if (window.caches && caches.keys) {"
+            + "  tasks.push(caches.keys().then(function (keys) {"
+            + "    return Promise.all(keys.map(function (k) { return caches.delete(k); }));"
+            + "  }));"
+            + "}"
+            + "var timer = setTimeout(function () { done('timeout'); }, 2000);"
+            + "Promise.all(tasks.map(function (t) { return t.catch(function () {}); }))"
+            + "  .then(function () { clearTimeout(timer); done('ok'); });";
+
+    // Driver → handle of its first window (WeakHashMap: driver quit → tự dọn)
+    private static final Map<WebDriver, String> MAIN_WINDOWS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private SessionResetter() {
+    }
+
+    /**
+     * Nhớ window ban đầu của session - gọi ngay sau khi tạo driver
+     * (DriverFactory), trước khi test mở thêm tab.
+     */
+    public static void rememberMainWindow(WebDriver driver) {
+        driver = LazyWebDriver.getMaterialized(driver);
+        if (driver != null) {
+            MAIN_WINDOWS.put(driver, driver.getWindowHandle());
+        }
+    }
+
+    /**
+     * Reset the session to a clean about:blank state.
+     *
+     * @param driver session to reset
+     * @return elapsed time in ms
+     * @throws org.openqa.selenium.WebDriverException if the session is broken
+     *         (caller should then quit / evict it)
+     */
+    public static long reset(WebDriver driver) {
+        if (driver == null) {
+            throw new IllegalArgumentException("WebDriver cannot be null");
+        }
+        // Lazy handle không expose HasCdp → reset trên session thật;
+        // chưa tạo session thì không có gì để dọn
+        if (!LazyWebDriver.isMaterialized(driver)) {
+            return 0;
+        }
+        driver = LazyWebDriver.getMaterialized(driver);
+        long start = System.currentTimeMillis();
+
+        HasCdp cdp = driver instanceof HasCdp ? (HasCdp) driver : null;
+        Set<String> origins = new LinkedHashSet<>();
+
+        closeExtraWindows(driver, cdp, origins);
+        clearWindow(driver, cdp, origins);
+
+        if (cdp != null) {
+            for (String origin : origins) {
+                cdp.executeCdpCommand("Storage.clearDataForOrigin",
+                        Map.of("origin", origin, "storageTypes", "all"));
+            }
+            cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+        } else {
+            driver.manage().deleteAllCookies();
+        }
+
+        driver.get("about:blank");
+        NavigationEpoch.advance(driver);
+
+        long elapsed = System.currentTimeMillis() - start;
+        FrameworkMetrics.recordTime(METRIC_RESET, elapsed);
+        logger.debug("[RESET] Session reset in {} ms", elapsed);
+        return elapsed;
+    }
+
+    /*
+     * ======================
+     * STEPS
+     * ======================
+     */
+
+    private static void closeExtraWindows(WebDriver driver, HasCdp cdp, Set<String> origins) {
+        Set<String> handles = driver.getWindowHandles();
+        String main = mainWindow(driver, handles);
+        if (handles.size() <= 1) {
+            return;
+        }
+        for (String handle : handles) {
+            if (!handle.equals(main)) {
+                driver.switchTo().window(handle);
+                // Đóng tab → sessionStorage mất theo; localStorage / IndexedDB
+                // thì không → clear sau theo origin (CDP) hoặc ngay tại đây (JS)
+                if (cdp != null) {
+                    collectHistoryOrigins(cdp, origins);
+                } else {
+                    clearWithJavaScript(driver);
+                }
+                driver.close();
+            }
+        }
+        driver.switchTo().window(main);
+    }
+
+    /**
+     * Window giữ lại: handle đã nhớ nếu còn mở, không thì window hiện tại,
+     * cuối cùng mới lấy handle bất kỳ còn lại
+     */
+    private static String mainWindow(WebDriver driver, Set<String> handles) {
+        String remembered = MAIN_WINDOWS.get(driver);
+        if (remembered != null && handles.contains(remembered)) {
+            return remembered;
+        }
+        String main;
+        try {
+            main = driver.getWindowHandle();
+        } catch (NoSuchWindowException e) {
+            main = handles.iterator().next();
+        }
+        if (remembered != null) {
+            logger.debug("[RESET] Original window {} is gone, keeping {}", remembered, main);
+        }
+        MAIN_WINDOWS.put(driver, main);
+        return main;
+    }
+
+    private static void clearWindow(WebDriver driver, HasCdp cdp, Set<String> origins) {
+        if (cdp == null) {
+            clearWithJavaScript(driver);
+            return;
+        }
+        Object origin = ((JavascriptExecutor) driver).executeScript(CLEAR_WEB_STORAGE_SCRIPT);
+        addOrigin(origins, origin instanceof String ? (String) origin : null);
+        collectHistoryOrigins(cdp, origins);
+    }
+
+    /**
+     * Origin của mọi entry trong back/forward history của window hiện tại
+     */
+    private static void collectHistoryOrigins(HasCdp cdp, Set<String> origins) {
+        Object entries = cdp.executeCdpCommand("Page.getNavigationHistory", Map.of()).get("entries");
+        if (!(entries instanceof List)) {
+            return;
+        }
+        for (Object entry : (List<?>) entries) {
+            if (entry instanceof Map) {
+                Object url = ((Map<?, ?>) entry).get("url");
+                addOrigin(origins, url instanceof String ? (String) url : null);
+            }
+        }
+    }
+
+    private static void addOrigin(Set<String> origins, String url) {
+        if (url == null || !url.startsWith("http")) {
+            return;
+        }
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() != null) {
+                origins.add(uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort()));
+            }
+        } catch (IllegalArgumentException e) {
+            logger.debug("[RESET] Skipping unparsable URL {}", url);
+        }
+    }
+
+    private static void clearWithJavaScript(WebDriver driver) {
+        try {
+            ((JavascriptExecutor) driver).executeAsyncScript(CLEAR_ALL_STORAGE_ASYNC_SCRIPT);
+        } catch (org.openqa.selenium.ScriptTimeoutException e) {
+            logger.debug("[RESET] Storage cleanup script timed out: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * =====================================================
+ * StrategyCache - Nhớ chiến lược XPath đã thắng của smart finder
+ * =====================================================
+ * findElementByStrategies luôn thử từ chiến lược #1, trong khi cùng 1
+ * label trên cùng 1 page gần như luôn khớp cùng 1 chiến lược.
+ *
+ * Key = (element type, text, route)   route = host + path (+ ?route=...)
+ * Value = XPath template đã thắng (không lưu index → đổi thứ tự / thêm
+ *         template trong BasePage không làm cache trỏ nhầm)
+ *
+ *   - ConcurrentHashMap dùng chung mọi thread (không lock khi đọc / ghi)
+ *   - Route được xác định trong chính script resolve → 0 round-trip thêm:
+ *     gửi kèm "route → index thử trước" của (type, text)
+ *   - hit   : chiến lược trong cache thắng
+ *   - stale : có cache nhưng chiến lược khác thắng
+ *             (script tự thử tiếp cả danh sách, cache được cập nhật)
+ *   - miss  : chưa có cache cho route này
+ *   (poll chưa tìm thấy element - page đang load - không được tính)
+ *   - Lưu finder.cache.file ở @AfterSuite, đọc lại ở lần chạy sau
+ *   - Mặc định TẮT (finder.cache.enabled=false → thứ tự chiến lược cố định)
+ *
+ * Report: finder.cache.hit / miss / stale, finder.lookup.ms (histogram)
+ *         + System Info "[Finder] strategy cache" (hit ratio)
+ *
+ * Thread-Safe: YES
+ * =====================================================
+ */
+public final class StrategyCache {
+
+    private static final Logger logger = LogManager.getLogger(StrategyCache.class);
+
+    public static final String METRIC_HIT = "finder.cache.hit";
+    public static final String METRIC_MISS = "finder.cache.miss";
+    public static final String METRIC_STALE = "finder.cache.stale";
+    public static final String METRIC_LOOKUP = "finder.lookup.ms";
+
+    private static final String DEFAULT_FILE = "finder-cache/strategy-cache.properties";
+    private static final String SEPARATOR = "|";
+
+    // "type|text" → (route → template)
+    private static final Map<String, Map<String, String>> WINNERS = new ConcurrentHashMap<>();
+    private static volatile boolean loaded;
+    private static volatile boolean changed;
+
+    private StrategyCache() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean(ConfigKeys.FINDER_CACHE_ENABLED, false);
+    }
+
+    /*
+     * ======================
+     * RESOLVE (BasePage)
+     * ======================
+     */
+
+    /**
+     * Resolve với chiến lược đã học được thử trước
+     *
+     * @param templates XPath template (thứ tự ưu tiên mặc định)
+     * @param xpaths    templates đã format với text
+     * @return match (element null = không tìm thấy)
+     */
+    public static StrategyResolver.Match resolve(WebDriver driver, String type, String text,
+                                                 List<String> templates, List<String> xpaths) {
+        long start = System.currentTimeMillis();
+        if (!isEnabled()) {
+            StrategyResolver.Match match = StrategyResolver.resolve(driver, xpaths, Map.of());
+            FrameworkMetrics.recordLatency(METRIC_LOOKUP, System.currentTimeMillis() - start);
+            return match;
+        }
+        ensureLoaded();
+        Map<String, String> byRoute = WINNERS.getOrDefault(type + SEPARATOR + text, Map.of());
+        Map<String, Integer> preferred = new HashMap<>();
+        byRoute.forEach((route, template) -> {
+            int index = templates.indexOf(template);
+            if (index >= 0) {
+                preferred.put(route, index);
+            }
+        });
+
+        StrategyResolver.Match match = StrategyResolver.resolve(driver, xpaths, preferred);
+        FrameworkMetrics.recordLatency(METRIC_LOOKUP, System.currentTimeMillis() - start);
+        if (match.getRoute() == null || match.getElement() == null) {
+            // Fallback tuần tự (không biết route) / page chưa có element (poll tiếp) → không tính, không học
+            return match;
+        }
+
+        Integer cached = preferred.get(match.getRoute());
+        if (cached == null) {
+            FrameworkMetrics.increment(METRIC_MISS);
+        } else if (cached == match.getIndex()) {
+            FrameworkMetrics.increment(METRIC_HIT);
+        } else {
+            FrameworkMetrics.increment(METRIC_STALE);
+            logger.debug("[FINDER] Cached strategy #{} for {} '{}' no longer matches on {}",
+                    cached + 1, type, text, match.getRoute());
+        }
+        if (cached == null || cached != match.getIndex()) {
+            WINNERS.computeIfAbsent(type + SEPARATOR + text, k -> new ConcurrentHashMap<>())
+                    .put(match.getRoute(), templates.get(match.getIndex()));
+            changed = true;
+        }
+        return match;
+    }
+
+    /**
+     * "hit 85.0% (34 hit / 4 miss / 2 stale), lookup p50<=25 ms" cho report
+     */
+    public static String summary() {
+        long hit = FrameworkMetrics.getCount(METRIC_HIT);
+        long miss = FrameworkMetrics.getCount(METRIC_MISS);
+        long stale = FrameworkMetrics.getCount(METRIC_STALE);
+        long total = hit + miss + stale;
+        if (total == 0) {
+            return null;
+        }
+        return String.format("hit %.1f%% (%d hit / %d miss / %d stale), lookup p50<=%d ms, p99<=%d ms",
+                100.0 * hit / total, hit, miss, stale,
+                FrameworkMetrics.getPercentile(METRIC_LOOKUP, 50), FrameworkMetrics.getPercentile(METRIC_LOOKUP, 99));
+    }
+
+    /*
+     * ======================
+     * LOAD / SAVE
+     * ======================
+     */
+
+    private static Path cacheFile() {
+        String file = ConfigReader.get(ConfigKeys.FINDER_CACHE_FILE);
+        return Paths.get(file == null || file.isBlank() ? DEFAULT_FILE : file.trim());
+    }
+
+    private static synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        Path file = cacheFile();
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+            properties.forEach((key, template) -> {
+                // type|text|route (text có thể chứa "|" → route = phần sau "|" cuối)
+                String entry = String.valueOf(key);
+                int routeAt = entry.lastIndexOf(SEPARATOR);
+                if (routeAt > 0) {
+                    WINNERS.computeIfAbsent(entry.substring(0, routeAt), k -> new ConcurrentHashMap<>())
+                            .put(entry.substring(routeAt + 1), String.valueOf(template));
+                }
+            });
+        } catch (Exception e) {
+            logger.warn("[FINDER] Cannot read {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Testable: quên chiến lược đã học, file được đọc lại ở lần resolve tiếp theo
+     */
+    public static synchronized void clear() {
+        WINNERS.clear();
+        loaded = false;
+        changed = false;
+    }
+
+    /**
+     * Ghi cache (gọi ở @AfterSuite)
+     */
+    public static synchronized void save() {
+        if (!changed) {
+            return;
+        }
+        Properties properties = new Properties();
+        WINNERS.forEach((typeAndText, byRoute) -> byRoute.forEach((route, template) ->
+                properties.setProperty(typeAndText + SEPARATOR + route, template)));
+        Path file = cacheFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream output = Files.newOutputStream(file)) {
+                properties.store(output, "Winning smart-finder XPath template per type|text|route");
+            }
+            changed = false;
+        } catch (Exception e) {
+            logger.warn("[FINDER] Cannot write {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * =====================================================
+ * StrategyResolver - Thử nhiều XPath trong 1 round-trip
+ * =====================================================
+ * Smart finder cũ (BasePage.findElementByStrategies): mỗi chiến lược =
+ * 1 findElements + isDisplayed / isEnabled cho từng candidate
+ * → N chiến lược × M candidate round-trip, lặp lại ở MỖI lần poll
+ * của wait.until.
+ *
+ * resolve(): gửi toàn bộ XPath (đã format) trong 1 script:
+ *   - Đánh giá theo thứ tự ưu tiên (index 0 trước)
+ *   - Lọc candidate tương tác được ngay trong browser:
+ *       displayed (display / opacity / visibility / có kích thước)
+ *       + enabled (không disabled)
+ *   - XPath lỗi → bỏ qua, thử chiến lược sau (giống vòng lặp Java)
+ *   → trả về element thắng + index chiến lược + route của page
+ *   preferred (StrategyCache): chiến lược thắng lần trước ở route này
+ *   được thử trước, trượt → thử tiếp cả danh sách trong cùng script
+ *
+ * Driver không chạy được script / script lỗi → vòng lặp Java cũ
+ * (cùng kết quả, nhiều round-trip).
+ * Counters: finder.strategy.script / finder.strategy.fallback
+ *
+ * Thread-Safe: YES (stateless)
+ * =====================================================
+ */
+public final class StrategyResolver {
+
+    private static final Logger logger = LogManager.getLogger(StrategyResolver.class);
+
+    public static final String METRIC_SCRIPT = "finder.strategy.script";
+    public static final String METRIC_FALLBACK = "finder.strategy.fallback";
+
+    private static final String RESOLVE_SCRIPT =
+            "var xpaths = arguments[0], preferred = arguments[1] || {};"
+            + "var m = /[?&]route=([^&#]*)/.exec(location.search);"
+            + "var route = location.host + location.pathname + (m ? '?route=' + m[1] : '');"
+            + "function interactable(el) {"
+            + "  if (!el || el.nodeType !== 1 || el.getClientRects().length === 0) { return false; }"
+            + "  for (var node = el; node && node.nodeType === 1; node = node.parentElement) {"
+            + "    var style = getComputedStyle(node);"
+            + "    if (style.display === 'none' || style.opacity === '0') { return false; }"
+            + "  }"
+            + "  return getComputedStyle(el).visibility !== 'hidden' && !el.disabled;"
+            + "}"
+            + "var order = [], first = preferred[route];"
+            + "if (typeof first === 'number' && first >= 0 && first < xpaths.length) { order.push(first); }"
+            + "for (var k = 0; k < xpaths.length; k++) { if (k !== first) { order.push(k); } }"
+            + "for (var n = 0; n < order.length; n++) {"
+            + "  var i = order[n], snapshot;"
+            + "  try {"
+            + "    snapshot = document.evaluate(xpaths[i], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "  } catch (e) { continue; }"
+            + "  for (var j = 0; j < snapshot.snapshotLength; j++) {"
+            + "    if (interactable(snapshot.snapshotItem(j))) {"
+            + "      return { el: snapshot.snapshotItem(j), index: i, route: route };"
+            + "    }"
+            + "  }"
+            + "}"
+            + "return { el: null, index: -1, route: route };";
+
+    private StrategyResolver() {
+    }
+
+    /*
+     * ======================
+     * PUBLIC API
+     * ======================
+     */
+
+    /**
+     * @param xpaths XPath đã format, theo thứ tự ưu tiên
+     * @return element displayed + enabled đầu tiên, null nếu không có
+     */
+    public static Match resolve(WebDriver driver, List<String> xpaths) {
+        Match match = resolve(driver, xpaths, Map.of());
+        return match.getElement() == null ? null : match;
+    }
+
+    /**
+     * Như resolve(driver, xpaths) nhưng thử trước chiến lược đã thắng
+     * ở route hiện tại (StrategyCache), route được xác định trong cùng script.
+     *
+     * @param preferred route → index chiến lược thử trước
+     * @return luôn khác null: element null = không tìm thấy, route null = không biết route (fallback)
+     */
+    public static Match resolve(WebDriver driver, List<String> xpaths, Map<String, Integer> preferred) {
+        if (driver instanceof JavascriptExecutor) {
+            try {
+                Object result = ((JavascriptExecutor) driver).executeScript(RESOLVE_SCRIPT, xpaths, preferred);
+                FrameworkMetrics.increment(METRIC_SCRIPT);
+                if (result instanceof Map) {
+                    Map<?, ?> match = (Map<?, ?>) result;
+                    return new Match((WebElement) match.get("el"), ((Number) match.get("index")).intValue(),
+                            (String) match.get("route"));
+                }
+            } catch (WebDriverException e) {
+                logger.debug("[FINDER] Resolve script failed → sequential lookup: {}", e.getMessage());
+            }
+        }
+        FrameworkMetrics.increment(METRIC_FALLBACK);
+        return resolveSequentially(driver, xpaths);
+    }
+
+    /**
+     * Vòng lặp cũ: findElements + isDisplayed / isEnabled theo từng chiến lược
+     */
+    private static Match resolveSequentially(WebDriver driver, List<String> xpaths) {
+        for (int index = 0; index < xpaths.size(); index++) {
+            try {
+                for (WebElement element : driver.findElements(By.xpath(xpaths.get(index)))) {
+                    try {
+                        if (element.isDisplayed() && element.isEnabled()) {
+                            return new Match(element, index, null);
+                        }
+                    } catch (StaleElementReferenceException e) {
+                        // Element bị stale, thử element tiếp theo
+                    }
+                }
+            } catch (Exception ignored) {
+                // XPath không match hoặc có lỗi khác, thử chiến lược tiếp theo
+            }
+        }
+        return new Match(null, -1, null);
+    }
+
+    /*
+     * ======================
+     * MATCH
+     * ======================
+     */
+
+    public static final class Match {
+        private final WebElement element;
+        private final int index;
+        private final String route;
+
+        private Match(WebElement element, int index, String route) {
+            this.element = element;
+            this.index = index;
+            this.route = route;
+        }
+
+        public WebElement getElement() {
+            return element;
+        }
+
+        /**
+         * Vị trí chiến lược thắng trong danh sách đã truyền vào (-1 = không tìm thấy)
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * host + path (+ ?route=...) của page lúc resolve, null nếu không biết
+         */
+        public String getRoute() {
+            return route;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package utils;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * =====================================================
+ * WaitHistory - Timeout / polling học từ lịch sử chạy
+ * =====================================================
+ * explicit.wait=10 áp dụng cho MỌI điều kiện: page nhanh vẫn poll thưa,
+ * page chậm đôi khi timeout. Class này:
+ *   1. wait.history.enabled=true (mặc định TẮT): ghi thời gian thực tế để
+ *      điều kiện đúng, theo (condition, locator)
+ *      vd: "VISIBLE By.id: input-email" → 40 mẫu gần nhất
+ *      (timeout được ghi = thời gian đã chờ → lần sau nới ra)
+ *      Key lấy từ By / locator của proxy @FindBy, KHÔNG từ toString() của
+ *      element thật (chứa session id → mỗi run 1 key mới). Element không
+ *      có locator ổn định → không ghi, dùng explicit.wait.
+ *   2. Lưu file wait.history.file (đọc lần đầu dùng, ghi ở @AfterSuite)
+ *      Key không được ghi trong wait.history.retention.days ngày bị bỏ,
+ *      tối đa MAX_KEYS key (bỏ key lâu nhất không dùng)
+ *   3. wait.adaptive.enabled=true + đủ wait.adaptive.min.samples mẫu:
+ *        timeout = clamp(p99 × wait.adaptive.safety.factor, 1s, wait.adaptive.max)
+ *        polling = clamp(p50 / 4, 25ms, 500ms)   (WebDriverWait fallback)
+ *      chưa đủ mẫu → explicit.wait như cũ
+ *
+ * explain(key) → "timeout = p99 1200ms × 2.0 → 2400ms, ... (n=37, timeout bounds 1000..30000ms)"
+ * Bảng tuning được đưa vào Extent report (System Info "[Wait] ...").
+ *
+ * Thread-Safe: YES
+ * =====================================================
+ */
+public final class WaitHistory {
+
+    private static final Logger logger = LogManager.getLogger(WaitHistory.class);
+
+    private static final String DEFAULT_FILE = "wait-history/wait-history.properties";
+    private static final int MAX_SAMPLES = 40;
+    private static final int MAX_REPORTED = 30;
+    private static final int MAX_KEYS = 500;
+    private static final long MIN_TIMEOUT_MS = 1000;
+    private static final long MIN_POLLING_MS = 25;
+    private static final long MAX_POLLING_MS = 500;
+
+    private static final String LOCATOR_PREFIX = "DefaultElementLocator ";
+    private static final String PROXY_PREFIX = "Proxy element for: " + LOCATOR_PREFIX;
+    private static final String LAST_RECORDED_SEPARATOR = "|";
+
+    private static final Map<String, Entry> SAMPLES = new ConcurrentHashMap<>();
+    private static volatile boolean loaded;
+    private static volatile boolean changed;
+
+    private WaitHistory() {
+    }
+
+    /*
+     * ======================
+     * CONFIG
+     * ======================
+     */
+
+    public static boolean isRecording() {
+        return ConfigReader.getBoolean(ConfigKeys.WAIT_HISTORY_ENABLED, false);
+    }
+
+    public static boolean isAdaptive() {
+        return ConfigReader.getBoolean(ConfigKeys.WAIT_ADAPTIVE_ENABLED, false);
+    }
+
+    private static double safetyFactor() {
+        String value = ConfigReader.get(ConfigKeys.WAIT_ADAPTIVE_SAFETY_FACTOR);
+        try {
+            return value == null || value.isBlank() ? 2.0 : Math.max(1.0, Double.parseDouble(value.trim()));
+        } catch (NumberFormatException e) {
+            return 2.0;
+        }
+    }
+
+    private static long hardMaxMillis() {
+        return ConfigReader.getInt(ConfigKeys.WAIT_ADAPTIVE_MAX, 30) * 1000L;
+    }
+
+    private static int minSamples() {
+        return Math.max(1, ConfigReader.getInt(ConfigKeys.WAIT_ADAPTIVE_MIN_SAMPLES, 5));
+    }
+
+    private static long retentionMillis() {
+        return Math.max(1, ConfigReader.getInt(ConfigKeys.WAIT_HISTORY_RETENTION_DAYS, 30)) * 24L * 60 * 60 * 1000;
+    }
+
+    /*
+     * ======================
+     * KEY / RECORD
+     * ======================
+     */
+
+    /**
+     * (condition, By) → key ổn định giữa các lần chạy
+     */
+    public static String key(String condition, By locator) {
+        return locator == null ? null : condition + " " + locator;
+    }
+
+    /**
+     * (condition, element) → key ổn định giữa các lần chạy
+     *
+     * @return null nếu element không có locator ổn định
+     *         (→ không ghi mẫu, timeout = explicit.wait)
+     */
+    public static String key(String condition, WebElement element) {
+        String locator = CachedElementLocatorFactory.locatorOf(element);
+        if (locator != null) {
+            return condition + " " + unquote(strip(locator, LOCATOR_PREFIX));
+        }
+        String description = element == null ? "" : String.valueOf(element);
+        if (description.startsWith(PROXY_PREFIX)) {
+            return condition + " " + unquote(strip(description, PROXY_PREFIX));
+        }
+        // "[[ChromeDriver: chrome on linux (abc123)] -> id: x]" → "id: x" (bỏ session id)
+        int arrow = description.lastIndexOf("] -> ");
+        if (description.startsWith("[") && arrow > 0 && description.endsWith("]")) {
+            String foundBy = description.substring(arrow + 5, description.length() - 1);
+            // "unknown locator" (element từ executeScript, ...) → chỉ có element id
+            if (!foundBy.isBlank() && !foundBy.contains("unknown locator")) {
+                return condition + " " + foundBy;
+            }
+        }
+        return null;
+    }
+
+    private static String strip(String value, String prefix) {
+        return value.startsWith(prefix) ? value.substring(prefix.length()) : value;
+    }
+
+    private static String unquote(String value) {
+        return value.length() > 1 && value.startsWith("'") && value.endsWith("'")
+                ? value.substring(1, value.length() - 1)
+                : value;
+    }
+
+    public static void record(String key, long millis) {
+        if (key == null || !isRecording()) {
+            return;
+        }
+        ensureLoaded();
+        Entry entry = SAMPLES.get(key);
+        if (entry == null) {
+            evictIfFull();
+            entry = SAMPLES.computeIfAbsent(key, k -> new Entry(0));
+        }
+        synchronized (entry) {
+            entry.samples.addLast(millis);
+            while (entry.samples.size() > MAX_SAMPLES) {
+                entry.samples.removeFirst();
+            }
+            entry.lastRecorded = System.currentTimeMillis();
+        }
+        changed = true;
+    }
+
+    /**
+     * Đủ MAX_KEYS key → bỏ key lâu nhất không được ghi
+     */
+    private static void evictIfFull() {
+        while (SAMPLES.size() >= MAX_KEYS) {
+            SAMPLES.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastRecorded))
+                    .ifPresent(oldest -> SAMPLES.remove(oldest.getKey(), oldest.getValue()));
+        }
+    }
+
+    /*
+     * ======================
+     * TUNING
+     * ======================
+     */
+
+    /**
+     * Timeout cho key (adaptive tắt / chưa đủ mẫu → configured)
+     */
+    public static Duration timeoutFor(String key, Duration configured) {
+        if (key == null) {
+            return configured;
+        }
+        long[] samples = samples(key);
+        if (!isAdaptive() || samples.length < minSamples()) {
+            return configured;
+        }
+        return Duration.ofMillis(tunedTimeout(samples));
+    }
+
+    /**
+     * Polling cho WebDriverWait fallback (adaptive tắt / chưa đủ mẫu → mặc định 500ms)
+     */
+    public static Duration pollingFor(String key) {
+        if (key == null) {
+            return Duration.ofMillis(MAX_POLLING_MS);
+        }
+        long[] samples = samples(key);
+        if (!isAdaptive() || samples.length < minSamples()) {
+            return Duration.ofMillis(MAX_POLLING_MS);
+        }
+        return Duration.ofMillis(clamp(percentile(samples, 50) / 4, MIN_POLLING_MS, MAX_POLLING_MS));
+    }
+
+    /**
+     * Giải thích timeout / polling đang dùng cho key
+     */
+    public static String explain(String key) {
+        long[] samples = samples(key);
+        if (samples.length < minSamples()) {
+            return String.format("explicit.wait (only %d/%d samples)", samples.length, minSamples());
+        }
+        long p99 = percentile(samples, 99);
+        return String.format("timeout = p99 %dms × %.1f → %dms, polling = p50 %dms / 4 → %dms"
+                        + " (n=%d, timeout bounds %d..%dms)%s",
+                p99, safetyFactor(), tunedTimeout(samples), percentile(samples, 50),
+                clamp(percentile(samples, 50) / 4, MIN_POLLING_MS, MAX_POLLING_MS),
+                samples.length, MIN_TIMEOUT_MS, Math.max(MIN_TIMEOUT_MS, hardMaxMillis()), isAdaptive() ? "" : " [not applied: wait.adaptive.enabled=false]");
+    }
+
+    /**
+     * Bảng tuning cho report (key có nhiều mẫu nhất trước)
+     */
+    public static Map<String, String> explainAll() {
+        Map<String, String> result = new LinkedHashMap<>();
+        SAMPLES.entrySet().stream()
+                .sorted((a, b) -> Integer.compare(b.getValue().samples.size(), a.getValue().samples.size()))
+                .limit(MAX_REPORTED)
+                .forEach(entry -> result.put(entry.getKey(), explain(entry.getKey())));
+        return result;
+    }
+
+    private static long tunedTimeout(long[] samples) {
+        long tuned = (long) Math.ceil(percentile(samples, 99) * safetyFactor());
+        return clamp(tuned, MIN_TIMEOUT_MS, Math.max(MIN_TIMEOUT_MS, hardMaxMillis()));
+    }
+
+    private static long[] samples(String key) {
+        ensureLoaded();
+        Entry entry = SAMPLES.get(key);
+        if (entry == null) {
+            return new long[0];
+        }
+        synchronized (entry) {
+            return entry.samples.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+
+    static long percentile(long[] samples, int percentile) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /*
+     * ======================
+     * LOAD / SAVE
+     * ======================
+     */
+
+    private static Path historyFile() {
+        String file = ConfigReader.get(ConfigKeys.WAIT_HISTORY_FILE);
+        return Paths.get(file == null || file.isBlank() ? DEFAULT_FILE : file.trim());
+    }
+
+    private static synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        Path file = historyFile();
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+            // File cũ (chưa có "lastRecorded|") → coi như ghi lúc file được sửa
+            long fileTime = Files.getLastModifiedTime(file).toMillis();
+            properties.forEach((key, value) -> {
+                String line = String.valueOf(value);
+                int separator = line.indexOf(LAST_RECORDED_SEPARATOR);
+                Entry entry = new Entry(separator > 0 ? Long.parseLong(line.substring(0, separator).trim()) : fileTime);
+                for (String sample : line.substring(separator + 1).split(",")) {
+                    if (!sample.isBlank()) {
+                        entry.samples.addLast(Long.parseLong(sample.trim()));
+                    }
+                }
+                SAMPLES.put(String.valueOf(key), entry);
+            });
+        } catch (Exception e) {
+            logger.warn("[WAIT-HISTORY] Cannot read {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Ghi lịch sử (gọi ở @AfterSuite)
+     */
+    public static synchronized void save() {
+        if (!changed) {
+            return;
+        }
+        prune();
+        Properties properties = new Properties();
+        SAMPLES.forEach((key, entry) -> {
+            synchronized (entry) {
+                properties.setProperty(key, entry.lastRecorded + LAST_RECORDED_SEPARATOR
+                        + String.join(",", entry.samples.stream().map(String::valueOf).toList()));
+            }
+        });
+        Path file = historyFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream output = Files.newOutputStream(file)) {
+                properties.store(output, "lastRecorded|time-to-satisfy (ms) per wait condition + locator, newest last");
+            }
+            changed = false;
+        } catch (Exception e) {
+            logger.warn("[WAIT-HISTORY] Cannot write {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Bỏ key không được ghi trong wait.history.retention.days (locator đã đổi / test đã xoá)
+     */
+    private static void prune() {
+        long cutoff = System.currentTimeMillis() - retentionMillis();
+        int before = SAMPLES.size();
+        SAMPLES.entrySet().removeIf(entry -> entry.getValue().lastRecorded < cutoff);
+        if (SAMPLES.size() < before) {
+            logger.debug("[WAIT-HISTORY] Pruned {} stale keys", before - SAMPLES.size());
+        }
+    }
+
+    /**
+     * Testable: quên mọi mẫu, file được đọc lại ở lần dùng tiếp theo
+     */
+    public static synchronized void clear() {
+        SAMPLES.clear();
+        loaded = false;
+        changed = false;
+    }
+
+    private static final class Entry {
+        private final Deque<Long> samples = new ArrayDeque<>();
+        private volatile long lastRecorded;
+
+        private Entry(long lastRecorded) {
+            this.lastRecorded = lastRecorded;
+        }
+    }
+}
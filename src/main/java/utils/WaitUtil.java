@@ -6,11 +6,13 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import utils.exceptions.ElementInteractionException;
 
 import java.time.Duration;
+import java.util.Arrays;
 
 /**
  * =====================================================
@@ -79,7 +81,7 @@ public class WaitUtil {
         }
         try {
             logger.debug("[WAIT] Visibility of element: {}", describeElement(element));
-            wait.until(ExpectedConditions.visibilityOf(element));
+            DomWaitEngine.until(driver, DomWaitEngine.Condition.VISIBLE, element, timeout());
         } catch (TimeoutException e) {
             String message = String.format(
                 "Element not visible within %d seconds: %s",
@@ -102,7 +104,7 @@ public class WaitUtil {
         }
         try {
             logger.debug("[WAIT] Visibility of locator: {}", locator);
-            wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+            DomWaitEngine.until(driver, DomWaitEngine.Condition.VISIBLE, locator, timeout());
         } catch (TimeoutException e) {
             String message = String.format(
                 "Locator not visible within %d seconds: %s",
@@ -129,7 +131,7 @@ public class WaitUtil {
         }
         try {
             logger.debug("[WAIT] Clickability of element: {}", describeElement(element));
-            wait.until(ExpectedConditions.elementToBeClickable(element));
+            DomWaitEngine.until(driver, DomWaitEngine.Condition.CLICKABLE, element, timeout());
         } catch (TimeoutException e) {
             String message = String.format(
                 "Element not clickable within %d seconds: %s",
@@ -152,7 +154,7 @@ public class WaitUtil {
         }
         try {
             logger.debug("[WAIT] Clickability of locator: {}", locator);
-            wait.until(ExpectedConditions.elementToBeClickable(locator));
+            DomWaitEngine.until(driver, DomWaitEngine.Condition.CLICKABLE, locator, timeout());
         } catch (TimeoutException e) {
             String message = String.format(
                 "Locator not clickable within %d seconds: %s",
@@ -179,7 +181,7 @@ public class WaitUtil {
         }
         try {
             logger.debug("[WAIT] Presence of locator: {}", locator);
-            wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+            DomWaitEngine.until(driver, DomWaitEngine.Condition.PRESENT, locator, timeout());
         } catch (TimeoutException e) {
             String message = String.format(
                 "Element not found within %d seconds: %s",
@@ -206,7 +208,7 @@ public class WaitUtil {
         }
         try {
             logger.debug("[WAIT] Invisibility of element: {}", describeElement(element));
-            wait.until(ExpectedConditions.invisibilityOf(element));
+            DomWaitEngine.until(driver, DomWaitEngine.Condition.INVISIBLE, element, timeout());
         } catch (TimeoutException e) {
             String message = String.format(
                 "Element still visible after %d seconds: %s",
@@ -229,7 +231,7 @@ public class WaitUtil {
         }
         try {
             logger.debug("[WAIT] Invisibility of locator: {}", locator);
-            wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+            DomWaitEngine.until(driver, DomWaitEngine.Condition.INVISIBLE, locator, timeout());
         } catch (TimeoutException e) {
             String message = String.format(
                 "Locator still visible after %d seconds: %s",
@@ -246,20 +248,29 @@ public class WaitUtil {
     // ============================================
 
     /**
-     * Wait for page to be fully loaded (document.readyState = "complete")
+     * Wait for page to be loaded according to browser.page.load.strategy
+     * (normal → readyState "complete", eager / none → "interactive" is enough)
      * @throws ElementInteractionException if timeout
      */
     public void waitForPageLoaded() throws ElementInteractionException {
+        waitForReady();
+    }
+
+    /**
+     * Wait for a page readiness contract (all conditions true)
+     * Returns as soon as the page is usable instead of waiting for the load event.
+     * No condition → same as waitForPageLoaded()
+     * @param contract conditions meaning "page is ready"
+     * @throws ElementInteractionException if timeout
+     */
+    public void waitForReady(ExpectedCondition<?>... contract) throws ElementInteractionException {
         try {
-            logger.debug("[WAIT] Page loaded (document.readyState = complete)");
-            wait.until(driver -> {
-                Object readyState = ((org.openqa.selenium.JavascriptExecutor) driver)
-                    .executeScript("return document.readyState");
-                return "complete".equals(readyState);
-            });
+            logger.debug("[WAIT] Page ready ({} condition(s), strategy={})",
+                contract.length, PageReadiness.strategy());
+            PageReadiness.await(driver, wait, Arrays.asList(contract));
         } catch (TimeoutException e) {
             String message = String.format(
-                "Page did not load within %d seconds",
+                "Page not ready within %d seconds",
                 explicitWaitSeconds
             );
             logger.error(message);
@@ -267,6 +278,25 @@ public class WaitUtil {
         }
     }
 
+    /**
+     * Wait until the page has at most maxInflight fetch/XHR/WebSocket requests
+     * for quietMillis in a row (framework-agnostic, resolved in the browser)
+     * Use instead of fixed sleeps after actions that trigger background requests.
+     * @param quietMillis quiet window in milliseconds
+     * @param maxInflight requests allowed to stay open (e.g. long-polling = 1)
+     * @return time waited in milliseconds (also reported as wait.network.idle.ms)
+     * @throws ElementInteractionException if timeout
+     */
+    public long waitForNetworkIdle(long quietMillis, int maxInflight) throws ElementInteractionException {
+        try {
+            logger.debug("[WAIT] Network idle (quiet {} ms, max in-flight {})", quietMillis, maxInflight);
+            return NetworkIdle.await(driver, quietMillis, maxInflight, timeout());
+        } catch (TimeoutException e) {
+            logger.error(e.getMessage());
+            throw new ElementInteractionException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Wait for JavaScript to complete (jQuery AJAX calls)
      * Useful when page uses jQuery for AJAX requests
@@ -347,6 +377,13 @@ public class WaitUtil {
     // HELPER METHODS
     // ============================================
 
+    /**
+     * Explicit wait as Duration (DomWaitEngine)
+     */
+    private Duration timeout() {
+        return Duration.ofSeconds(explicitWaitSeconds);
+    }
+
     /**
      * Helper to describe element for logging
      * @param element WebElement to describe
@@ -0,0 +1,84 @@
+package frameworkTests;
+
+import config.ConfigKeys;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import utils.ConcurrencyGovernor;
+import utils.exceptions.DriverCreationException;
+
+/**
+ * Framework test: ConcurrencyGovernor budget (explicit / auto theo CPU + RAM),
+ * parkingLimit và hàng đợi permit - không tạo browser.
+ */
+public class ConcurrencyGovernor_Test {
+
+    private static final String[] PROPERTIES = {
+        ConfigKeys.CONCURRENCY_ENABLED, ConfigKeys.CONCURRENCY_MAX,
+        ConfigKeys.CONCURRENCY_MEMORY_PER_SESSION_MB, ConfigKeys.CONCURRENCY_QUEUE_TIMEOUT
+    };
+
+    @BeforeMethod
+    public void resetGovernor() {
+        ConcurrencyGovernor.reset();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreDefaults() {
+        ConcurrencyGovernor.reset();
+        for (String property : PROPERTIES) {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    public void TC001_ExplicitMaxIsUsedAsIs() {
+        System.setProperty(ConfigKeys.CONCURRENCY_MAX, "3");
+        Assert.assertEquals(ConcurrencyGovernor.budget(), 3);
+
+        // Tính 1 lần cho cả suite: đổi config giữa chừng không đổi budget
+        System.setProperty(ConfigKeys.CONCURRENCY_MAX, "7");
+        Assert.assertEquals(ConcurrencyGovernor.budget(), 3);
+    }
+
+    @Test
+    public void TC002_AutoBudgetIsBoundedByCores() {
+        // 1 MB / session → RAM không phải giới hạn → số core
+        System.setProperty(ConfigKeys.CONCURRENCY_MEMORY_PER_SESSION_MB, "1");
+        int cores = Runtime.getRuntime().availableProcessors();
+        Assert.assertEquals(ConcurrencyGovernor.budget(), cores);
+    }
+
+    @Test
+    public void TC003_AutoBudgetIsBoundedByFreeMemoryButNeverZero() {
+        // Mỗi session "cần" ~2 PB → RAM trống chia ra 0 → tối thiểu 1
+        System.setProperty(ConfigKeys.CONCURRENCY_MEMORY_PER_SESSION_MB, String.valueOf(Integer.MAX_VALUE));
+        Assert.assertEquals(ConcurrencyGovernor.budget(), 1);
+    }
+
+    @Test
+    public void TC004_ParkingLimitLeavesOnePermitForTests() {
+        System.setProperty(ConfigKeys.CONCURRENCY_MAX, "4");
+        Assert.assertEquals(ConcurrencyGovernor.parkingLimit(), Integer.MAX_VALUE, "Governor off → no limit");
+
+        System.setProperty(ConfigKeys.CONCURRENCY_ENABLED, "true");
+        Assert.assertEquals(ConcurrencyGovernor.parkingLimit(), 3);
+    }
+
+    @Test
+    public void TC005_AcquireBeyondBudgetTimesOut() {
+        System.setProperty(ConfigKeys.CONCURRENCY_MAX, "2");
+        System.setProperty(ConfigKeys.CONCURRENCY_QUEUE_TIMEOUT, "0");
+
+        ConcurrencyGovernor.acquire();
+        ConcurrencyGovernor.acquire();
+        Assert.assertThrows(DriverCreationException.class, ConcurrencyGovernor::acquire);
+
+        // Permit trả lại → acquire được ngay
+        ConcurrencyGovernor.abandon();
+        ConcurrencyGovernor.acquire();
+        ConcurrencyGovernor.abandon();
+        ConcurrencyGovernor.abandon();
+    }
+}
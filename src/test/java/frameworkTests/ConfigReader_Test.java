@@ -0,0 +1,83 @@
+package frameworkTests;
+
+import config.ConfigKeys;
+import config.ConfigReader;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.AuthSessionCache;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Framework test: ConfigReader.getBoolean defaults + AuthSessionCache
+ * khi tắt (driver giao nguyên trạng cho routine UI login).
+ */
+public class ConfigReader_Test {
+
+    private static final String MISSING_KEY = "framework.test.missing.flag";
+
+    @AfterMethod(alwaysRun = true)
+    public void clearOverrides() {
+        System.clearProperty(MISSING_KEY);
+        System.clearProperty(ConfigKeys.AUTH_CACHE_ENABLED);
+    }
+
+    @Test
+    public void TC001_MissingKeyReturnsDefault() {
+        Assert.assertNull(ConfigReader.get(MISSING_KEY));
+        Assert.assertTrue(ConfigReader.getBoolean(MISSING_KEY, true));
+        Assert.assertFalse(ConfigReader.getBoolean(MISSING_KEY, false));
+    }
+
+    @Test
+    public void TC002_BlankValueReturnsDefault() {
+        System.setProperty(MISSING_KEY, "   ");
+        Assert.assertTrue(ConfigReader.getBoolean(MISSING_KEY, true));
+        Assert.assertFalse(ConfigReader.getBoolean(MISSING_KEY, false));
+    }
+
+    @Test
+    public void TC003_ValueIsTrimmedAndCaseInsensitive() {
+        System.setProperty(MISSING_KEY, " TRUE ");
+        Assert.assertTrue(ConfigReader.getBoolean(MISSING_KEY, false));
+
+        // Giá trị lạ → false (Boolean.parseBoolean), không phải default
+        System.setProperty(MISSING_KEY, "yes");
+        Assert.assertFalse(ConfigReader.getBoolean(MISSING_KEY, true));
+    }
+
+    @Test
+    public void TC004_SystemPropertyOverridesConfigFile() {
+        Assert.assertFalse(ConfigReader.getBoolean(ConfigKeys.AUTH_CACHE_ENABLED, true),
+                "auth.cache.enabled ships as false");
+
+        System.setProperty(ConfigKeys.AUTH_CACHE_ENABLED, "true");
+        Assert.assertTrue(ConfigReader.getBoolean(ConfigKeys.AUTH_CACHE_ENABLED, false));
+    }
+
+    @Test
+    public void TC005_DisabledAuthCacheHandsDriverToRoutineUntouched() {
+        List<String> calls = new ArrayList<>();
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebDriver.class}, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return "equals".equals(method.getName()) ? proxy == args[0]
+                                : "hashCode".equals(method.getName()) ? System.identityHashCode(proxy)
+                                : "StubDriver";
+                    }
+                    calls.add(method.getName());
+                    return null;
+                });
+        List<WebDriver> received = new ArrayList<>();
+
+        AuthSessionCache.login(driver, "user@example.com", received::add);
+
+        Assert.assertEquals(received.size(), 1);
+        Assert.assertSame(received.get(0), driver);
+        Assert.assertTrue(calls.isEmpty(), "Cache off must not navigate / clear cookies: " + calls);
+    }
+}
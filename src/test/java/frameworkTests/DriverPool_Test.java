@@ -0,0 +1,200 @@
+package frameworkTests;
+
+import base.BaseClass;
+import base.BaseClassFlow;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import utils.DriverPool;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Framework test: DriverPool lease / release / eviction with stub sessions
+ * (DriverPool.useFactory → no browser needed).
+ */
+public class DriverPool_Test {
+
+    private static final String[] PROPERTIES = {
+        "driver.pool.enabled", "driver.pool.size", "driver.pool.max.reuse", "run.mode"
+    };
+
+    private final List<StubSession> created = new ArrayList<>();
+
+    @BeforeMethod
+    public void installStubFactory() {
+        created.clear();
+        System.setProperty("driver.pool.size", "2");
+        System.setProperty("driver.pool.max.reuse", "20");
+        System.setProperty("run.mode", "local");
+        DriverPool.useFactory((browser, os, runMode) -> {
+            StubSession session = new StubSession();
+            synchronized (created) {
+                created.add(session);
+            }
+            return session.driver;
+        });
+        // shutdown() của test trước đóng pool → warmUp mở lại (key riêng, không dùng trong test)
+        DriverPool.warmUp("stub", "stub", "stub");
+        created.clear();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreDefaults() {
+        DriverPool.shutdown();
+        DriverPool.useFactory(null);
+        for (String property : PROPERTIES) {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    public void TC001_WarmUpFillsPoolForTheLeaseKey() {
+        DriverPool.warmUp("chrome", "linux", "local");
+        Assert.assertEquals(DriverPool.idleCount("chrome", "linux", "local"), 2);
+        Assert.assertEquals(created.size(), 2);
+
+        // Warm-up lần 2 (BaseClass + BaseClassFlow) chỉ bù phần thiếu
+        DriverPool.warmUp("Chrome", "Linux", "LOCAL");
+        Assert.assertEquals(created.size(), 2);
+
+        WebDriver leased = DriverPool.lease("chrome", "linux", "local");
+        Assert.assertTrue(isStub(leased, created));
+        Assert.assertEquals(DriverPool.idleCount("chrome", "linux", "local"), 1);
+        Assert.assertEquals(created.size(), 2, "Lease on a warmed key must not create a session");
+
+        DriverPool.lease("firefox", "linux", "local");
+        Assert.assertEquals(created.size(), 3, "Other key → miss → new session");
+    }
+
+    @Test
+    public void TC002_ReleasedSessionIsResetAndReused() {
+        WebDriver first = DriverPool.lease("chrome", "linux", "local");
+        DriverPool.release(first);
+
+        StubSession session = created.get(0);
+        Assert.assertEquals(session.quits, 0);
+        Assert.assertTrue(session.navigatedToBlank, "Release must soft-reset the session");
+        Assert.assertSame(DriverPool.lease("chrome", "linux", "local"), first);
+        Assert.assertEquals(created.size(), 1);
+    }
+
+    @Test
+    public void TC003_SessionIsEvictedAtMaxReuse() {
+        System.setProperty("driver.pool.max.reuse", "2");
+
+        WebDriver driver = DriverPool.lease("chrome", "linux", "local");
+        DriverPool.release(driver);
+        Assert.assertSame(DriverPool.lease("chrome", "linux", "local"), driver);
+        DriverPool.release(driver);
+
+        Assert.assertEquals(created.get(0).quits, 1, "Session must be quit after max reuse");
+        Assert.assertEquals(DriverPool.idleCount("chrome", "linux", "local"), 0);
+        Assert.assertNotSame(DriverPool.lease("chrome", "linux", "local"), driver);
+    }
+
+    @Test
+    public void TC004_UnhealthyIdleSessionIsEvictedOnLease() {
+        DriverPool.warmUp("chrome", "linux", "local");
+        created.forEach(session -> session.alive = false);
+
+        WebDriver driver = DriverPool.lease("chrome", "linux", "local");
+        Assert.assertEquals(created.size(), 3);
+        Assert.assertSame(driver, created.get(2).driver);
+        Assert.assertEquals(created.get(0).quits + created.get(1).quits, 2);
+    }
+
+    @Test
+    public void TC005_ForeignDriverIsQuitOnRelease() {
+        StubSession foreign = new StubSession();
+        DriverPool.release(foreign.driver);
+        Assert.assertEquals(foreign.quits, 1);
+    }
+
+    @Test
+    public void TC006_BeforeTestWarmsPoolWithPoolEnabled() {
+        System.setProperty("driver.pool.enabled", "true");
+
+        // @BeforeTest chạy trước @BeforeClass → logger chưa được khởi tạo
+        new PooledClass().beforeTest("chrome", "linux");
+        Assert.assertEquals(DriverPool.idleCount("chrome", "linux", "local"), 2);
+
+        new PooledFlowClass().beforeTest("chrome", "linux");
+        Assert.assertEquals(created.size(), 2);
+    }
+
+    /*
+     * ======================
+     * STUBS
+     * ======================
+     */
+
+    private static boolean isStub(WebDriver driver, List<StubSession> sessions) {
+        return sessions.stream().anyMatch(session -> session.driver == driver);
+    }
+
+    // Không đăng ký trong testng xml → TestNG không chạy config của BaseClass
+    private static final class PooledClass extends BaseClass {
+        @Override
+        public void beforeTest(String browser, String os) {
+            super.beforeTest(browser, os);
+        }
+    }
+
+    private static final class PooledFlowClass extends BaseClassFlow {
+        @Override
+        public void beforeTest(String browser, String os) {
+            super.beforeTest(browser, os);
+        }
+    }
+
+    /**
+     * WebDriver giả: đủ cho health check, SessionResetter (JS path) và quit
+     */
+    private static final class StubSession {
+        private final WebDriver driver;
+        private volatile boolean alive = true;
+        private volatile boolean navigatedToBlank;
+        private volatile int quits;
+
+        private StubSession() {
+            driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {WebDriver.class, JavascriptExecutor.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            case "toString":
+                                return "StubSession";
+                            case "getWindowHandles":
+                                if (!alive) {
+                                    throw new WebDriverException("session gone");
+                                }
+                                return Set.of("main");
+                            case "getWindowHandle":
+                                return "main";
+                            case "get":
+                                navigatedToBlank = "about:blank".equals(args[0]);
+                                return null;
+                            case "quit":
+                                quits++;
+                                return null;
+                            case "manage":
+                                return Proxy.newProxyInstance(getClass().getClassLoader(),
+                                        new Class<?>[] {WebDriver.Options.class}, (o, m, a) -> null);
+                            default:
+                                return null;
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package frameworkTests;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import utils.GridScheduler;
+import utils.exceptions.GridConnectionException;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Framework test: GridScheduler against a local stand-in grid.
+ * The stand-in only serves /status (no browser needed).
+ *
+ * Stand-in topology:
+ *   node 1 (UP, maxSessions=2)  : 2 x chrome/linux slots, 1 x firefox/linux slot
+ *   node 2 (DOWN)               : 4 x chrome/linux slots (must be ignored)
+ */
+public class GridScheduler_Test {
+
+    private HttpServer standInGrid;
+    private String gridUrl;
+
+    // Số chrome session đang chạy trên node 1 (test điều khiển)
+    private final AtomicInteger busyChrome = new AtomicInteger();
+
+    // Độ trễ của /status (ms) - giả lập Grid phản hồi chậm
+    private final AtomicInteger statusDelayMs = new AtomicInteger();
+
+    @BeforeClass
+    public void startStandInGrid() throws Exception {
+        standInGrid = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        standInGrid.createContext("/status", exchange -> {
+            try {
+                Thread.sleep(statusDelayMs.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = statusJson().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        standInGrid.start();
+        gridUrl = "http://127.0.0.1:" + standInGrid.getAddress().getPort() + "/wd/hub";
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStandInGrid() {
+        if (standInGrid != null) {
+            standInGrid.stop(0);
+        }
+    }
+
+    @BeforeMethod
+    public void resetGrid() {
+        busyChrome.set(0);
+        statusDelayMs.set(0);
+    }
+
+    @Test
+    public void TC001_CountsFreeSlotsPerBrowserAndPlatform() {
+        GridScheduler scheduler = new GridScheduler(gridUrl, 50, 1000);
+
+        Assert.assertEquals(scheduler.freeSlots("chrome", Platform.LINUX), 2);
+        Assert.assertEquals(scheduler.freeSlots("firefox", Platform.LINUX), 1);
+        Assert.assertEquals(scheduler.freeSlots("chrome", Platform.WINDOWS), 0);
+        Assert.assertEquals(scheduler.freeSlots("MicrosoftEdge", Platform.LINUX), 0);
+    }
+
+    @Test
+    public void TC002_NodeMaxSessionsLimitsFreeSlots() throws Exception {
+        GridScheduler scheduler = new GridScheduler(gridUrl, 50, 1000);
+        busyChrome.set(2);
+        Thread.sleep(100);
+
+        // node 1 đã đủ maxSessions=2 → firefox slot trống nhưng không dùng được
+        Assert.assertEquals(scheduler.freeSlots("chrome", Platform.LINUX), 0);
+        Assert.assertEquals(scheduler.freeSlots("firefox", Platform.LINUX), 0);
+    }
+
+    @Test
+    public void TC003_QueuesUntilSlotIsFree() throws Exception {
+        GridScheduler scheduler = new GridScheduler(gridUrl, 50, 10_000);
+        busyChrome.set(2);
+
+        long start = System.currentTimeMillis();
+        CompletableFuture<WebDriver> queued = CompletableFuture.supplyAsync(
+                () -> scheduler.schedule("chrome", Platform.LINUX, () -> null));
+
+        Thread.sleep(500);
+        Assert.assertFalse(queued.isDone(), "Request should wait while the grid is saturated");
+
+        busyChrome.set(1);
+        queued.get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(System.currentTimeMillis() - start >= 500, "Request was not held in the local queue");
+    }
+
+    @Test
+    public void TC004_FailsWithClearErrorAfterQueueTimeout() {
+        GridScheduler scheduler = new GridScheduler(gridUrl, 50, 300);
+        busyChrome.set(2);
+
+        GridConnectionException error = Assert.expectThrows(GridConnectionException.class,
+                () -> scheduler.schedule("chrome", Platform.LINUX, () -> null));
+        Assert.assertTrue(error.getMessage().contains("No free Grid slot"), error.getMessage());
+    }
+
+    @Test
+    public void TC005_ReservationsPreventOverbooking() throws Exception {
+        GridScheduler scheduler = new GridScheduler(gridUrl, 50, 10_000);
+        busyChrome.set(1);
+
+        // Slot cuối cùng đang được tạo session (Grid /status chưa phản ánh)
+        CompletableFuture<Void> creating = new CompletableFuture<>();
+        CompletableFuture<WebDriver> first = CompletableFuture.supplyAsync(
+                () -> scheduler.schedule("chrome", Platform.LINUX, () -> {
+                    creating.join();
+                    return null;
+                }));
+        Thread.sleep(200);
+        Assert.assertEquals(scheduler.freeSlots("chrome", Platform.LINUX), 0);
+
+        busyChrome.set(2);
+        creating.complete(null);
+        first.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(scheduler.freeSlots("chrome", Platform.LINUX), 0);
+    }
+
+    @Test
+    public void TC006_ReservationCountsAgainstNodeForOtherBrowsers() throws Exception {
+        GridScheduler scheduler = new GridScheduler(gridUrl, 50, 10_000);
+        busyChrome.set(1);
+
+        // Chrome session đang tạo chiếm chỗ maxSessions cuối của node 1 → firefox hết chỗ
+        CompletableFuture<Void> creating = new CompletableFuture<>();
+        CompletableFuture<WebDriver> chrome = CompletableFuture.supplyAsync(
+                () -> scheduler.schedule("chrome", Platform.LINUX, () -> {
+                    creating.join();
+                    return null;
+                }));
+        Thread.sleep(200);
+        Assert.assertEquals(scheduler.freeSlots("firefox", Platform.LINUX), 0);
+
+        busyChrome.set(2);
+        creating.complete(null);
+        chrome.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(scheduler.freeSlots("firefox", Platform.LINUX), 0);
+    }
+
+    @Test
+    public void TC007_SlowStatusDoesNotBlockOtherThreads() throws Exception {
+        GridScheduler scheduler = new GridScheduler(gridUrl, 50, 10_000);
+        Assert.assertEquals(scheduler.freeSlots("chrome", Platform.LINUX), 2);
+
+        statusDelayMs.set(1500);
+        Thread.sleep(100);
+        CompletableFuture<Integer> slowPoll = CompletableFuture.supplyAsync(
+                () -> scheduler.freeSlots("chrome", Platform.LINUX));
+        Thread.sleep(200);
+
+        // Poll chậm đang chạy → thread khác dùng snapshot hiện có, không chờ HTTP
+        long start = System.currentTimeMillis();
+        Assert.assertEquals(scheduler.freeSlots("firefox", Platform.LINUX), 1);
+        Assert.assertTrue(System.currentTimeMillis() - start < 500, "freeSlots waited for another thread's /status call");
+        Assert.assertEquals(slowPoll.get(5, TimeUnit.SECONDS).intValue(), 2);
+    }
+
+    /*
+     * ======================
+     * STAND-IN /status
+     * ======================
+     */
+
+    private String statusJson() {
+        StringBuilder node1Slots = new StringBuilder();
+        for (int i = 0; i < 2; i++) {
+            node1Slots.append(slotJson("chrome", i < busyChrome.get())).append(',');
+        }
+        node1Slots.append(slotJson("firefox", false));
+
+        StringBuilder node2Slots = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            node2Slots.append(i > 0 ? "," : "").append(slotJson("chrome", false));
+        }
+
+        return "{\"value\":{\"ready\":true,\"message\":\"Selenium Grid ready.\",\"nodes\":["
+                + "{\"availability\":\"UP\",\"maxSessions\":2,\"slots\":[" + node1Slots + "]},"
+                + "{\"availability\":\"DOWN\",\"maxSessions\":4,\"slots\":[" + node2Slots + "]}"
+                + "]}}";
+    }
+
+    private static String slotJson(String browserName, boolean busy) {
+        return "{\"session\":" + (busy ? "{\"sessionId\":\"stand-in\"}" : "null")
+                + ",\"stereotype\":{\"browserName\":\"" + browserName + "\",\"platformName\":\"linux\"}}";
+    }
+}
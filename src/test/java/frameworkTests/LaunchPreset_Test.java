@@ -0,0 +1,120 @@
+package frameworkTests;
+
+import config.ConfigKeys;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.LaunchPreset;
+import utils.exceptions.InvalidConfigException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Framework test: LaunchPreset parse tên preset, override window size /
+ * renderer limit và argument / preference được áp vào options.
+ */
+public class LaunchPreset_Test {
+
+    private static final String[] PROPERTIES = {
+        ConfigKeys.BROWSER_PRESET, ConfigKeys.BROWSER_WINDOW_SIZE, ConfigKeys.BROWSER_RENDERER_LIMIT
+    };
+
+    @AfterMethod(alwaysRun = true)
+    public void clearOverrides() {
+        for (String property : PROPERTIES) {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    public void TC001_PresetNameIsParsedLeniently() {
+        Assert.assertEquals(LaunchPreset.fromName(null), LaunchPreset.DEFAULT);
+        Assert.assertEquals(LaunchPreset.fromName("  "), LaunchPreset.DEFAULT);
+        Assert.assertEquals(LaunchPreset.fromName(" Headless-Fast "), LaunchPreset.HEADLESS_FAST);
+        Assert.assertEquals(LaunchPreset.fromName("ci-lowmem"), LaunchPreset.CI_LOWMEM);
+
+        InvalidConfigException error = Assert.expectThrows(InvalidConfigException.class,
+                () -> LaunchPreset.fromName("turbo"));
+        Assert.assertTrue(error.getMessage().contains("headed-debug"), error.getMessage());
+    }
+
+    @Test
+    public void TC002_CurrentPresetComesFromConfig() {
+        Assert.assertEquals(LaunchPreset.current(), LaunchPreset.DEFAULT);
+
+        System.setProperty(ConfigKeys.BROWSER_PRESET, "headed-debug");
+        Assert.assertEquals(LaunchPreset.current(), LaunchPreset.HEADED_DEBUG);
+    }
+
+    @Test
+    public void TC003_WindowSizeOverride() {
+        Assert.assertFalse(LaunchPreset.DEFAULT.hasFixedWindow());
+        Assert.assertEquals(LaunchPreset.CI_LOWMEM.getWindowSize(), new Dimension(1366, 768));
+
+        System.setProperty(ConfigKeys.BROWSER_WINDOW_SIZE, " 1280X720 ");
+        Assert.assertEquals(LaunchPreset.CI_LOWMEM.getWindowSize(), new Dimension(1280, 720));
+        Assert.assertTrue(LaunchPreset.DEFAULT.hasFixedWindow(), "Override fixes the window of any preset");
+
+        System.setProperty(ConfigKeys.BROWSER_WINDOW_SIZE, "1024,600");
+        Assert.assertEquals(LaunchPreset.HEADLESS_FAST.getWindowSize(), new Dimension(1024, 600));
+
+        System.setProperty(ConfigKeys.BROWSER_WINDOW_SIZE, "wide");
+        Assert.assertThrows(InvalidConfigException.class, LaunchPreset.HEADLESS_FAST::getWindowSize);
+    }
+
+    @Test
+    public void TC004_RendererLimitOverride() {
+        Assert.assertEquals(LaunchPreset.CI_LOWMEM.getRendererLimit(), 2);
+        Assert.assertEquals(LaunchPreset.DEFAULT.getRendererLimit(), 0);
+
+        System.setProperty(ConfigKeys.BROWSER_RENDERER_LIMIT, "6");
+        Assert.assertEquals(LaunchPreset.CI_LOWMEM.getRendererLimit(), 6);
+    }
+
+    @Test
+    public void TC005_ChromiumArguments() {
+        List<String> lowMem = chromeArguments(LaunchPreset.CI_LOWMEM);
+        Assert.assertTrue(lowMem.containsAll(List.of("--headless=new", "--window-size=1366,768",
+                "--disable-extensions", "--disable-dev-shm-usage", "--renderer-process-limit=2")), lowMem.toString());
+
+        List<String> debug = chromeArguments(LaunchPreset.HEADED_DEBUG);
+        Assert.assertEquals(debug, List.of("--start-maximized"));
+
+        Assert.assertTrue(chromeArguments(LaunchPreset.DEFAULT).isEmpty(), "default keeps the old launch");
+    }
+
+    @Test
+    public void TC006_FirefoxArgumentsAndPreferences() {
+        System.setProperty(ConfigKeys.BROWSER_RENDERER_LIMIT, "3");
+        Map<?, ?> firefox = firefoxOptions(LaunchPreset.HEADLESS_FAST);
+
+        Assert.assertEquals(firefox.get("args"), List.of("-headless", "--width=1920", "--height=1080"));
+        Map<?, ?> prefs = (Map<?, ?>) firefox.get("prefs");
+        Assert.assertEquals(prefs.get("dom.ipc.processCount"), 3);
+        Assert.assertEquals(prefs.get("toolkit.telemetry.enabled"), false);
+    }
+
+    /*
+     * ======================
+     * HELPERS
+     * ======================
+     */
+
+    @SuppressWarnings("unchecked")
+    private static List<String> chromeArguments(LaunchPreset preset) {
+        ChromeOptions options = new ChromeOptions();
+        preset.applyTo(options);
+        Map<String, Object> chrome = (Map<String, Object>) options.asMap().get(ChromeOptions.CAPABILITY);
+        return (List<String>) chrome.get("args");
+    }
+
+    private static Map<?, ?> firefoxOptions(LaunchPreset preset) {
+        FirefoxOptions options = new FirefoxOptions();
+        preset.applyTo(options);
+        return (Map<?, ?>) options.asMap().get(FirefoxOptions.FIREFOX_OPTIONS);
+    }
+}
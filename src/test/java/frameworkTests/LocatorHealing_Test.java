@@ -0,0 +1,163 @@
+package frameworkTests;
+
+import config.ConfigKeys;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import utils.LocatorHealing;
+import utils.exceptions.ElementInteractionException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Framework test: LocatorHealing capture → lưu file → đọc lại ở "lần chạy sau"
+ * → heal với đúng fingerprint (capture / heal script giả lập).
+ */
+public class LocatorHealing_Test {
+
+    private static final String KEY = "LoginPage.txtEmailAddress";
+
+    private Path healingFile;
+    private StubBrowser browser;
+
+    @BeforeMethod
+    public void useTemporaryFile() throws IOException {
+        healingFile = Files.createTempDirectory("locator-healing-test").resolve("fingerprints.properties");
+        System.setProperty(ConfigKeys.LOCATOR_HEALING_FILE, healingFile.toString());
+        LocatorHealing.clear();
+        browser = new StubBrowser();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreDefaults() throws IOException {
+        LocatorHealing.clear();
+        System.clearProperty(ConfigKeys.LOCATOR_HEALING_FILE);
+        System.clearProperty(ConfigKeys.LOCATOR_HEALING_STRICT);
+        Files.deleteIfExists(healingFile);
+        Files.deleteIfExists(healingFile.getParent());
+    }
+
+    @Test
+    public void TC001_FingerprintSurvivesSaveAndReload() throws IOException {
+        LocatorHealing.capture(browser.driver, KEY, browser.element);
+        LocatorHealing.save();
+
+        Properties saved = new Properties();
+        try (InputStream input = Files.newInputStream(healingFile)) {
+            saved.load(input);
+        }
+        Assert.assertTrue(saved.getProperty(KEY).startsWith("{"), saved.getProperty(KEY));
+
+        // "Lần chạy sau": fingerprint chỉ còn trong file
+        LocatorHealing.clear();
+        LocatorHealing.Healed healed = LocatorHealing.heal(browser.driver, KEY, By.id("input-email"));
+
+        Assert.assertNotNull(healed);
+        Assert.assertSame(healed.getElement(), browser.element);
+        Assert.assertEquals(healed.getSuggested(), By.id("input-email-new"));
+        Map<?, ?> fingerprint = browser.healedWith;
+        Assert.assertEquals(fingerprint.get("id"), "input-email");
+        Assert.assertEquals(fingerprint.get("neighbors"), List.of("E-Mail Address"));
+        Assert.assertEquals(((Map<?, ?>) fingerprint.get("rect")).get("x"), 120L);
+        Assert.assertEquals(LocatorHealing.drainTestHeals().size(), 1);
+    }
+
+    @Test
+    public void TC002_CaptureRunsOncePerFieldPerRun() {
+        LocatorHealing.capture(browser.driver, KEY, browser.element);
+        LocatorHealing.capture(browser.driver, KEY, browser.element);
+        Assert.assertEquals(browser.captures, 1);
+    }
+
+    @Test
+    public void TC003_FingerprintCapturedThisRunWinsOverFile() throws IOException {
+        Properties old = new Properties();
+        old.setProperty(KEY, "{\"id\":\"stale-id\",\"tag\":\"input\"}");
+        try (OutputStream output = Files.newOutputStream(healingFile)) {
+            old.store(output, null);
+        }
+        LocatorHealing.capture(browser.driver, KEY, browser.element);
+        LocatorHealing.heal(browser.driver, KEY, By.id("input-email"));
+        Assert.assertEquals(browser.healedWith.get("id"), "input-email");
+    }
+
+    @Test
+    public void TC004_NoFingerprintOrStrictMode() {
+        Assert.assertNull(LocatorHealing.heal(browser.driver, KEY, By.id("input-email")));
+        Assert.assertNull(browser.healedWith, "No fingerprint → no heal script");
+
+        LocatorHealing.capture(browser.driver, KEY, browser.element);
+        System.setProperty(ConfigKeys.LOCATOR_HEALING_STRICT, "true");
+        ElementInteractionException error = Assert.expectThrows(ElementInteractionException.class,
+                () -> LocatorHealing.heal(browser.driver, KEY, By.id("input-email")));
+        Assert.assertTrue(error.getMessage().contains("By.id: input-email-new"), error.getMessage());
+        Assert.assertTrue(LocatorHealing.drainTestHeals().isEmpty());
+    }
+
+    /*
+     * ======================
+     * STUBS
+     * ======================
+     */
+
+    /**
+     * Giả lập CAPTURE_SCRIPT (fingerprint cố định) và HEAL_SCRIPT (ghi lại fingerprint nhận được)
+     */
+    private static final class StubBrowser {
+        private final WebDriver driver;
+        private final WebElement element;
+        private volatile int captures;
+        private volatile Map<?, ?> healedWith;
+
+        private StubBrowser() {
+            element = (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {WebElement.class}, (proxy, method, args) -> null);
+            driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {WebDriver.class, JavascriptExecutor.class},
+                    (proxy, method, args) -> {
+                        if (!"executeScript".equals(method.getName())) {
+                            return null;
+                        }
+                        String script = (String) args[0];
+                        Object[] scriptArgs = (Object[]) args[1];
+                        if (script.contains("var fp = arguments[0]")) {
+                            healedWith = (Map<?, ?>) scriptArgs[0];
+                            Map<String, Object> result = new HashMap<>();
+                            result.put("el", element);
+                            result.put("score", 0.82);
+                            result.put("suggestion", "id:input-email-new");
+                            return result;
+                        }
+                        captures++;
+                        return fingerprint();
+                    });
+        }
+
+        private static Map<String, Object> fingerprint() {
+            Map<String, Object> fingerprint = new HashMap<>();
+            fingerprint.put("tag", "input");
+            fingerprint.put("id", "input-email");
+            fingerprint.put("name", "email");
+            fingerprint.put("text", "");
+            fingerprint.put("classes", new ArrayList<>(List.of("form-control")));
+            fingerprint.put("neighbors", new ArrayList<>(List.of("E-Mail Address")));
+            fingerprint.put("rect", Map.of("x", 120L, "y", 340L, "w", 300L, "h", 34L));
+            return fingerprint;
+        }
+    }
+}
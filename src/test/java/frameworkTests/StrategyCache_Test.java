@@ -0,0 +1,161 @@
+package frameworkTests;
+
+import config.ConfigKeys;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import utils.FrameworkMetrics;
+import utils.StrategyCache;
+import utils.StrategyResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Framework test: StrategyCache học chiến lược thắng theo route, lưu file
+ * và dùng lại ở "lần chạy sau" (clear + đọc lại file) - resolve script giả lập.
+ */
+public class StrategyCache_Test {
+
+    private static final String ROUTE = "shop.test/index.php?route=account/login";
+    private static final List<String> TEMPLATES = List.of(
+            "//button[normalize-space()='%s']",
+            "//input[@value='%s']",
+            "//a[normalize-space()='%s']");
+
+    private Path cacheFile;
+    private StubResolver resolver;
+
+    @BeforeMethod
+    public void useTemporaryCache() throws IOException {
+        cacheFile = Files.createTempDirectory("finder-cache-test").resolve("strategy-cache.properties");
+        System.setProperty(ConfigKeys.FINDER_CACHE_FILE, cacheFile.toString());
+        System.setProperty(ConfigKeys.FINDER_CACHE_ENABLED, "true");
+        StrategyCache.clear();
+        resolver = new StubResolver();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreDefaults() throws IOException {
+        StrategyCache.clear();
+        System.clearProperty(ConfigKeys.FINDER_CACHE_FILE);
+        System.clearProperty(ConfigKeys.FINDER_CACHE_ENABLED);
+        Files.deleteIfExists(cacheFile);
+        Files.deleteIfExists(cacheFile.getParent());
+    }
+
+    @Test
+    public void TC001_WinnerIsLearnedAndTriedFirst() {
+        long miss = FrameworkMetrics.getCount(StrategyCache.METRIC_MISS);
+        long hit = FrameworkMetrics.getCount(StrategyCache.METRIC_HIT);
+        resolver.winner = 1;
+
+        resolve("button", "Login", TEMPLATES);
+        Assert.assertEquals(resolver.preferred, Map.of(), "Nothing learned yet");
+        Assert.assertEquals(FrameworkMetrics.getCount(StrategyCache.METRIC_MISS), miss + 1);
+
+        resolve("button", "Login", TEMPLATES);
+        Assert.assertEquals(resolver.preferred, Map.of(ROUTE, 1));
+        Assert.assertEquals(FrameworkMetrics.getCount(StrategyCache.METRIC_HIT), hit + 1);
+    }
+
+    @Test
+    public void TC002_StaleWinnerIsReplaced() {
+        long stale = FrameworkMetrics.getCount(StrategyCache.METRIC_STALE);
+        resolver.winner = 1;
+        resolve("button", "Login", TEMPLATES);
+
+        resolver.winner = 2;
+        resolve("button", "Login", TEMPLATES);
+        Assert.assertEquals(FrameworkMetrics.getCount(StrategyCache.METRIC_STALE), stale + 1);
+
+        resolve("button", "Login", TEMPLATES);
+        Assert.assertEquals(resolver.preferred, Map.of(ROUTE, 2));
+    }
+
+    @Test
+    public void TC003_SaveAndReloadRoundTrip() throws IOException {
+        resolver.winner = 2;
+        // Text chứa "|" → route vẫn tách đúng (phần sau "|" cuối)
+        resolve("link", "Terms | Conditions", TEMPLATES);
+        StrategyCache.save();
+
+        Properties saved = new Properties();
+        try (InputStream input = Files.newInputStream(cacheFile)) {
+            saved.load(input);
+        }
+        Assert.assertEquals(saved.getProperty("link|Terms | Conditions|" + ROUTE), TEMPLATES.get(2));
+
+        // "Lần chạy sau": template lưu theo nội dung, không theo index → đổi thứ tự vẫn đúng
+        StrategyCache.clear();
+        List<String> reordered = List.of(TEMPLATES.get(2), TEMPLATES.get(0), TEMPLATES.get(1));
+        resolver.winner = 0;
+        resolve("link", "Terms | Conditions", reordered);
+        Assert.assertEquals(resolver.preferred, Map.of(ROUTE, 0));
+    }
+
+    @Test
+    public void TC004_NotFoundAndDisabledAreNotLearned() {
+        resolver.winner = -1;
+        resolve("button", "Login", TEMPLATES);
+        StrategyCache.save();
+        Assert.assertFalse(Files.exists(cacheFile), "Page still loading → nothing to save");
+
+        System.setProperty(ConfigKeys.FINDER_CACHE_ENABLED, "false");
+        resolver.winner = 1;
+        resolve("button", "Login", TEMPLATES);
+        resolve("button", "Login", TEMPLATES);
+        Assert.assertEquals(resolver.preferred, Map.of(), "Disabled → fixed strategy order");
+    }
+
+    /*
+     * ======================
+     * STUBS
+     * ======================
+     */
+
+    private StrategyResolver.Match resolve(String type, String text, List<String> templates) {
+        List<String> xpaths = templates.stream().map(template -> String.format(template, text)).toList();
+        return StrategyCache.resolve(resolver.driver, type, text, templates, xpaths);
+    }
+
+    /**
+     * Giả lập RESOLVE_SCRIPT: trả về chiến lược "winner" trên ROUTE, ghi lại preferred
+     */
+    private static final class StubResolver {
+        private final WebDriver driver;
+        private final WebElement element;
+        private volatile int winner;
+        private volatile Map<?, ?> preferred;
+
+        private StubResolver() {
+            element = (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {WebElement.class}, (proxy, method, args) -> null);
+            driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {WebDriver.class, JavascriptExecutor.class},
+                    (proxy, method, args) -> {
+                        if (!"executeScript".equals(method.getName())) {
+                            return null;
+                        }
+                        Object[] scriptArgs = (Object[]) args[1];
+                        preferred = new HashMap<>((Map<?, ?>) scriptArgs[1]);
+                        Map<String, Object> result = new HashMap<>();
+                        result.put("el", winner < 0 ? null : element);
+                        result.put("index", (long) winner);
+                        result.put("route", ROUTE);
+                        return result;
+                    });
+        }
+    }
+}
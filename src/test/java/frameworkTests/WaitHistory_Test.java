@@ -0,0 +1,223 @@
+package frameworkTests;
+
+import config.ConfigKeys;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.internal.LocatingElementHandler;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import utils.WaitHistory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Framework test: WaitHistory key / timeout / polling math và file lịch sử
+ * (file tạm riêng, không đụng wait-history/ của project).
+ */
+public class WaitHistory_Test {
+
+    private static final String[] PROPERTIES = {
+        ConfigKeys.WAIT_HISTORY_ENABLED, ConfigKeys.WAIT_HISTORY_FILE, ConfigKeys.WAIT_HISTORY_RETENTION_DAYS,
+        ConfigKeys.WAIT_ADAPTIVE_ENABLED, ConfigKeys.WAIT_ADAPTIVE_SAFETY_FACTOR,
+        ConfigKeys.WAIT_ADAPTIVE_MIN_SAMPLES, ConfigKeys.WAIT_ADAPTIVE_MAX
+    };
+
+    private static final Duration CONFIGURED = Duration.ofSeconds(10);
+
+    private Path historyFile;
+
+    @BeforeMethod
+    public void useTemporaryHistory() throws IOException {
+        historyFile = Files.createTempDirectory("wait-history-test").resolve("wait-history.properties");
+        System.setProperty(ConfigKeys.WAIT_HISTORY_FILE, historyFile.toString());
+        System.setProperty(ConfigKeys.WAIT_HISTORY_ENABLED, "true");
+        System.setProperty(ConfigKeys.WAIT_ADAPTIVE_ENABLED, "true");
+        System.setProperty(ConfigKeys.WAIT_ADAPTIVE_SAFETY_FACTOR, "2.0");
+        System.setProperty(ConfigKeys.WAIT_ADAPTIVE_MIN_SAMPLES, "5");
+        System.setProperty(ConfigKeys.WAIT_ADAPTIVE_MAX, "30");
+        WaitHistory.clear();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreDefaults() throws IOException {
+        WaitHistory.clear();
+        for (String property : PROPERTIES) {
+            System.clearProperty(property);
+        }
+        Files.deleteIfExists(historyFile);
+        Files.deleteIfExists(historyFile.getParent());
+    }
+
+    @Test
+    public void TC001_NotEnoughSamplesUsesConfiguredWait() {
+        String key = WaitHistory.key("VISIBLE", By.id("input-email"));
+        record(key, 100, 200, 300, 400);
+
+        Assert.assertEquals(WaitHistory.timeoutFor(key, CONFIGURED), CONFIGURED);
+        Assert.assertEquals(WaitHistory.pollingFor(key), Duration.ofMillis(500));
+    }
+
+    @Test
+    public void TC002_TimeoutIsP99TimesFactorAndPollingIsP50Quarter() {
+        String key = WaitHistory.key("VISIBLE", By.id("input-email"));
+        // 40 mẫu 100..4000ms → p99 = 4000, p50 = 2000
+        for (long millis = 100; millis <= 4000; millis += 100) {
+            record(key, millis);
+        }
+        Assert.assertEquals(WaitHistory.timeoutFor(key, CONFIGURED), Duration.ofMillis(8000));
+        Assert.assertEquals(WaitHistory.pollingFor(key), Duration.ofMillis(500));
+
+        System.setProperty(ConfigKeys.WAIT_ADAPTIVE_SAFETY_FACTOR, "1.5");
+        Assert.assertEquals(WaitHistory.timeoutFor(key, CONFIGURED), Duration.ofMillis(6000));
+
+        String fast = WaitHistory.key("CLICKABLE", By.id("button-login"));
+        record(fast, 400, 400, 400, 800, 800);
+        Assert.assertEquals(WaitHistory.pollingFor(fast), Duration.ofMillis(100));
+    }
+
+    @Test
+    public void TC003_TimeoutAndPollingAreClamped() {
+        String fast = WaitHistory.key("PRESENT", By.id("fast"));
+        record(fast, 10, 10, 10, 10, 10);
+        Assert.assertEquals(WaitHistory.timeoutFor(fast, CONFIGURED), Duration.ofMillis(1000));
+        Assert.assertEquals(WaitHistory.pollingFor(fast), Duration.ofMillis(25));
+
+        System.setProperty(ConfigKeys.WAIT_ADAPTIVE_MAX, "3");
+        String slow = WaitHistory.key("PRESENT", By.id("slow"));
+        record(slow, 5000, 5000, 5000, 5000, 5000);
+        Assert.assertEquals(WaitHistory.timeoutFor(slow, CONFIGURED), Duration.ofMillis(3000));
+        Assert.assertEquals(WaitHistory.pollingFor(slow), Duration.ofMillis(500));
+    }
+
+    @Test
+    public void TC004_OnlyNewestSamplesAreKept() {
+        String key = WaitHistory.key("VISIBLE", By.id("window"));
+        for (int i = 0; i < 40; i++) {
+            record(key, 9000);
+        }
+        for (int i = 0; i < 40; i++) {
+            record(key, 500);
+        }
+        Assert.assertEquals(WaitHistory.timeoutFor(key, CONFIGURED), Duration.ofMillis(1000));
+    }
+
+    @Test
+    public void TC005_RecordingAndAdaptiveAreOptIn() {
+        String key = WaitHistory.key("VISIBLE", By.id("input-email"));
+
+        System.clearProperty(ConfigKeys.WAIT_HISTORY_ENABLED);
+        Assert.assertFalse(WaitHistory.isRecording(), "wait.history.enabled ships as false");
+        record(key, 100, 100, 100, 100, 100);
+        Assert.assertEquals(WaitHistory.timeoutFor(key, CONFIGURED), CONFIGURED);
+
+        System.setProperty(ConfigKeys.WAIT_HISTORY_ENABLED, "true");
+        record(key, 100, 100, 100, 100, 100);
+        System.clearProperty(ConfigKeys.WAIT_ADAPTIVE_ENABLED);
+        Assert.assertEquals(WaitHistory.timeoutFor(key, CONFIGURED), CONFIGURED);
+    }
+
+    @Test
+    public void TC006_KeysComeFromLocatorNotSessionIds() {
+        Assert.assertEquals(WaitHistory.key("VISIBLE", By.id("input-email")), "VISIBLE By.id: input-email");
+
+        // Proxy @FindBy: locator đọc trực tiếp, không findElement
+        ElementLocator locator = new ElementLocator() {
+            @Override
+            public WebElement findElement() {
+                throw new AssertionError("key() must not look the element up");
+            }
+
+            @Override
+            public List<WebElement> findElements() {
+                throw new AssertionError("key() must not look the element up");
+            }
+
+            @Override
+            public String toString() {
+                return "DefaultElementLocator 'By.id: input-email'";
+            }
+        };
+        WebElement proxy = (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebElement.class}, new LocatingElementHandler(locator));
+        Assert.assertEquals(WaitHistory.key("VISIBLE", proxy), "VISIBLE By.id: input-email");
+
+        // Element thật: bỏ session id, giữ locator
+        String first = WaitHistory.key("VISIBLE",
+                element("[[ChromeDriver: chrome on linux (1a2b3c)] -> id: input-email]"));
+        String second = WaitHistory.key("VISIBLE",
+                element("[[ChromeDriver: chrome on linux (9f8e7d)] -> id: input-email]"));
+        Assert.assertEquals(first, "VISIBLE id: input-email");
+        Assert.assertEquals(second, first);
+
+        // Không có locator (chỉ session + element id) → không có key, không ghi
+        String unknown = WaitHistory.key("VISIBLE",
+                element("[[ChromeDriver: chrome on linux (1a2b3c)] -> unknown locator]"));
+        Assert.assertNull(unknown);
+        WaitHistory.record(unknown, 100);
+        Assert.assertEquals(WaitHistory.timeoutFor(unknown, CONFIGURED), CONFIGURED);
+        Assert.assertTrue(WaitHistory.explainAll().isEmpty());
+    }
+
+    @Test
+    public void TC007_SaveRoundTripsAndPrunesStaleKeys() throws IOException {
+        String key = WaitHistory.key("VISIBLE", By.id("input-email"));
+        record(key, 100, 200, 300, 400, 500);
+
+        // Key cũ hơn retention (file từ run trước)
+        Properties stale = new Properties();
+        stale.setProperty("VISIBLE By.id: removed", "1000|100,100,100,100,100");
+        stale.setProperty("VISIBLE By.id: legacy", "100,100,100,100,100");
+        try (OutputStream output = Files.newOutputStream(historyFile)) {
+            stale.store(output, null);
+        }
+        WaitHistory.clear();
+        record(key, 100, 200, 300, 400, 500);
+        WaitHistory.save();
+
+        Properties saved = load();
+        Assert.assertEquals(saved.stringPropertyNames(), Set.of(key, "VISIBLE By.id: legacy"));
+        Assert.assertTrue(saved.getProperty(key).endsWith("|100,200,300,400,500"), saved.getProperty(key));
+
+        WaitHistory.clear();
+        Assert.assertEquals(WaitHistory.timeoutFor(key, CONFIGURED), Duration.ofMillis(1000));
+        Assert.assertEquals(WaitHistory.pollingFor(key), Duration.ofMillis(75));
+    }
+
+    /*
+     * ======================
+     * HELPERS
+     * ======================
+     */
+
+    private static void record(String key, long... samples) {
+        for (long sample : samples) {
+            WaitHistory.record(key, sample);
+        }
+    }
+
+    private Properties load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(historyFile)) {
+            properties.load(input);
+        }
+        return properties;
+    }
+
+    private static WebElement element(String description) {
+        return (WebElement) Proxy.newProxyInstance(WaitHistory_Test.class.getClassLoader(),
+                new Class<?>[] {WebElement.class},
+                (proxy, method, args) -> "toString".equals(method.getName()) ? description : null);
+    }
+}
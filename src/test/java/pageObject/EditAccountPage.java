@@ -3,6 +3,10 @@ package pageObject;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.List;
 import base.BasePage;
 
 /**
@@ -39,6 +43,16 @@ public class EditAccountPage extends BasePage {
     @FindBy(xpath = "//a[normalize-space()='Back']")
     private WebElement lnkBack;
 
+    /**
+     * Edit Account page is usable once the form is rendered and can be submitted.
+     */
+    @Override
+    protected List<ExpectedCondition<?>> readinessContract() {
+        return List.of(
+                ExpectedConditions.visibilityOf(txtFirstName),
+                ExpectedConditions.elementToBeClickable(btnContinue));
+    }
+
     /**
      * Enters the given first name into the 'First Name' text field.
      * It first clears the field before entering the new value.
@@ -3,6 +3,10 @@ package pageObject;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.List;
 
 import base.BasePage;
 
@@ -29,6 +33,14 @@ public class HomePage extends BasePage {
     @FindBy(linkText = "Register")
     private WebElement registerLink;
 
+    /**
+     * Home page is usable once the 'My Account' menu can be opened.
+     */
+    @Override
+    protected List<ExpectedCondition<?>> readinessContract() {
+        return List.of(ExpectedConditions.elementToBeClickable(myAccountMenu));
+    }
+
     /**
      * Clicks on the 'My Account' menu dropdown.
      */
@@ -44,7 +56,9 @@ public class HomePage extends BasePage {
     public LoginPage navigateToLoginPage() {
         logStep("Navigate to Login page");
         click(loginLink);
-        return new LoginPage(driver);
+        LoginPage loginPage = new LoginPage(driver);
+        loginPage.waitUntilReady();
+        return loginPage;
     }
 
     /**
@@ -3,6 +3,10 @@ package pageObject;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.List;
 
 import base.BasePage;
 
@@ -29,6 +33,16 @@ public class LoginPage extends BasePage {
     @FindBy(xpath = "//input[@value='Login']")
     private WebElement btnLogin;
 
+    /**
+     * Login page is usable once the credential form can be filled and submitted.
+     */
+    @Override
+    protected List<ExpectedCondition<?>> readinessContract() {
+        return List.of(
+                ExpectedConditions.visibilityOf(txtUserName),
+                ExpectedConditions.elementToBeClickable(btnLogin));
+    }
+
     /**
      * Enters the username in the username field.
      * @param userName The username to enter.
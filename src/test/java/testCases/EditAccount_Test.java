@@ -9,6 +9,7 @@ import pageObject.HomePage;
 import pageObject.LoginPage;
 import pageObject.AccountPage;
 import pageObject.EditAccountPage;
+import utils.AuthSessionCache;
 import utils.RandomDataUtil;
 
 
@@ -23,7 +24,8 @@ public class EditAccount_Test extends BaseClass {
      * <p>
      * Test Steps:
      * <ol>
-     * <li>Login with valid credentials.</li>
+     * <li>Login with valid credentials via Home → My Account → Login
+     * (cached session state after the first login when auth.cache.enabled=true).</li>
      * <li>Navigate to the 'Edit Account' page.</li>
      * <li>Update First Name, Last Name, and Telephone with new random data.</li>
      * <li>Save the changes.</li>
@@ -36,16 +38,16 @@ public class EditAccount_Test extends BaseClass {
         logger.info("========== START TEST CASE: TC001_EditAccount_Test ==========");
 
         try {
-            // STEP 1: LOGIN
+            // STEP 1: LOGIN (cached session state, UI login only once per suite)
             logger.info("STEP 1: User logs in with valid credentials");
-            HomePage homePage = new HomePage(getDriver());
-            homePage.openMyAccountMenu();
-            homePage.navigateToLoginPage();
-
-            LoginPage loginPage = new LoginPage(getDriver());
             String email = ConfigReader.getRequired("email");
             String password = ConfigReader.getRequired("password");
-            loginPage.login(email, password);
+            AuthSessionCache.login(getDriver(), email, driver -> {
+                HomePage homePage = new HomePage(driver);
+                homePage.openMyAccountMenu();
+                homePage.navigateToLoginPage();
+                new LoginPage(driver).login(email, password);
+            });
 
             // STEP 2: NAVIGATE TO EDIT ACCOUNT PAGE
             logger.info("STEP 2: User navigates to Edit Account page");
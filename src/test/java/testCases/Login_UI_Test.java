@@ -59,7 +59,7 @@ public class Login_UI_Test extends BaseClassFlow {
         super.beforeMethod(method);
         
         // Navigate to login page (config-driven URL)
-        String loginUrl = ConfigReader.getRequired(ConfigKeys.LOGIN_URL);
+        String loginUrl = ConfigReader.getLoginUrl();
         logger.info(">>> Navigating to Login Page: " + loginUrl);
         getDriver().get(loginUrl);
         getDriver().manage().deleteAllCookies();